@@ -0,0 +1,90 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark für die Multi-Ball-Schleife von {@link BreakoutSimulation}.
+ * Hält dauerhaft {@code balls} Bälle im Spiel (Standard: 500), misst die Dauer jedes Spieltakts
+ * und vergleicht sie mit dem Budget eines 60-Hz-Frames. Zusätzlich werden die im Takt allokierten
+ * Bytes und die Anzahl der Garbage Collections ausgegeben.
+ * <p>
+ * Aufruf: {@code java BreakoutBenchmark [balls] [ticks]}
+ */
+public class BreakoutBenchmark {
+
+    private static final long FRAME_BUDGET_NS = 1_000_000_000L / 60;
+    private static final int WARMUP_TICKS = 20_000;
+
+    public static void main(String[] args) {
+        int balls = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 6_000;
+
+        BreakoutSimulation sim = new BreakoutSimulation();
+        sim.reset();
+        SplittableRandom rand = new SplittableRandom(42);
+
+        System.out.printf("BreakoutBenchmark: %d Bälle, %d Ticks (Aufwärmen: %d)%n", balls, ticks, WARMUP_TICKS);
+
+        // Aufwärmen (JIT)
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            step(sim, balls, rand);
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long gcBefore = gcCount();
+
+        long[] durations = new long[ticks];
+        long allocated = 0;
+        for (int i = 0; i < ticks; i++) {
+            topUp(sim, balls, rand); // außerhalb der Messung
+
+            long allocBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            if (sim.tick() == BreakoutSimulation.Status.CLEARED) {
+                sim.resetBricks();
+            }
+            durations[i] = System.nanoTime() - start;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocBefore;
+        }
+        long gcs = gcCount() - gcBefore;
+
+        Arrays.sort(durations);
+        long overBudget = Arrays.stream(durations).filter(d -> d > FRAME_BUDGET_NS).count();
+        System.out.printf("  Median: %8.1f µs%n", durations[ticks / 2] / 1000.0);
+        System.out.printf("  p99:    %8.1f µs%n", durations[(int) (ticks * 0.99)] / 1000.0);
+        System.out.printf("  Max:    %8.1f µs%n", durations[ticks - 1] / 1000.0);
+        System.out.printf("  Budget (60 Hz): %.1f µs, überschritten: %d von %d Ticks%n",
+                FRAME_BUDGET_NS / 1000.0, overBudget, ticks);
+        System.out.printf("  Allokiert: %.1f Bytes/Tick, GCs während der Messung: %d%n",
+                (double) allocated / ticks, gcs);
+    }
+
+    private static void step(BreakoutSimulation sim, int balls, SplittableRandom rand) {
+        topUp(sim, balls, rand);
+        if (sim.tick() == BreakoutSimulation.Status.CLEARED) {
+            sim.resetBricks();
+        }
+    }
+
+    /** Ersetzt verlorene Bälle, damit immer {@code balls} Bälle unterwegs sind. */
+    private static void topUp(BreakoutSimulation sim, int balls, SplittableRandom rand) {
+        while (sim.getBallCount() < balls) {
+            double angle = rand.nextDouble(Math.PI * 0.2, Math.PI * 0.8);
+            double speed = rand.nextDouble(2.0, 12.0);
+            sim.spawnBall(rand.nextDouble(0, BreakoutSimulation.WIDTH - BreakoutSimulation.BALL_SIZE),
+                    BreakoutSimulation.HEIGHT - 60,
+                    Math.cos(angle) * speed, -Math.sin(angle) * speed);
+        }
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
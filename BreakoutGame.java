@@ -1,134 +1,216 @@
 import framework.*;
 import javax.swing.*;
 import java.awt.*;
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.Timer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Breakout-Spiel für das Arcade-Framework.
  * Steuerung: Joystick 1 (Left/Right)
  * Neustart/Pause: Button MENU
+ * Wiederholung der letzten Sekunden: Y1 nach dem Game Over (Joystick links/rechts spult)
  */
 public class BreakoutGame implements ArcadeGame {
 
     // Konstanten
-    private static final int WIDTH = 600;
-    private static final int HEIGHT = 450;
-    private static final int PADDLE_WIDTH = 80;
-    private static final int PADDLE_HEIGHT = 10;
-    private static final int BALL_SIZE = 8;
-    private static final int BRICK_ROWS = 5;
-    private static final int BRICK_COLS = 10;
-    private static final int BRICK_WIDTH = WIDTH / BRICK_COLS;
-    private static final int BRICK_HEIGHT = 20;
+    private static final int WIDTH = BreakoutSimulation.WIDTH;
+    private static final int HEIGHT = BreakoutSimulation.HEIGHT;
     private static final int GAME_SPEED_MS = 16; // Ca. 60 FPS
+    private static final int REPLAY_SECONDS = 10;
+
+    // Aufbau der Szene für Zuschauer (siehe SpectatorViewer): Ziegel als Zellen (Darstellungsschlüssel + 1,
+    // 0 = leer), dazu diese Zahlen und danach x/y je Ball
+    static final int SCENE_PADDLE_X = 0;
+    static final int SCENE_SCORE = 1;
+    static final int SCENE_LIVES = 2;
+    static final int SCENE_LEVEL = 3;
+    static final int SCENE_STATE = 4; // 0 läuft, 1 Pause, 2 Game Over
+    static final int SCENE_BALLS = 5;
+    static final int SCENE_MAX_BALLS = 64; // mehr werden dem Zuschauer nicht gezeigt
+
+    // Dunklere Variante der Palette für Ziegel, die noch mehr als einen Treffer aushalten
+    private static final Color[] STRONG_PALETTE = Arrays.stream(BreakoutSimulation.PALETTE)
+            .map(Color::darker).toArray(Color[]::new);
+
+    // Spiellogik (Schläger, Bälle, Ziegel, Punkte)
+    private final BreakoutSimulation sim = new BreakoutSimulation();
+    private final ParticleSystem particles = new ParticleSystem(2048, 256);
+
+    // Level (optional aus einem Levelpaket, sonst das eingebaute Standardlevel)
+    static final String LEVEL_PACK_FILE = "breakout_levels.bin";
+    private BreakoutLevelPack levelPack;
+    private int levelIndex = 0;
 
-    // Spielobjekte
-    private Rectangle paddle;
-    private Rectangle ball;
-    private Brick[][] bricks; // Das Gitter der Ziegel
-    private int score = 0;
-    private int lives = 3;
-
-    // Ballbewegung
-    private int ballXDir = 2;
-    private int ballYDir = -2;
     private int paddleSpeed = 6;
+    // Schlägerschritte seit dem letzten Tick (negativ = links), werden erst im Tick ausgeführt, damit die
+    // Simulation nur Eingaben pro Tick sieht (gleiche Eingaben, gleicher Lauf)
+    private final AtomicInteger pendingPaddleSteps = new AtomicInteger();
+
+    // Zustands-Hash pro Tick (aufzeichnen/prüfen mit -Darcade.hashlog)
+    private final GameSession session = new GameSession("Breakout");
+    private final StateHash stateHash = new StateHash();
 
     // Spielstatus
     private boolean isRunning = true;
-    private boolean isPaused = false;
+    private volatile boolean isPaused = false; // aus dem Input-Thread gesetzt
 
     // Framework Komponenten
-    private final Gamepad input = new UsbGamepad();
-    private InputWatcher watcher;
-    private Timer timer;
+    private final Gamepad input;
+    private final InputListener inputListener;
+    private InputWatcher watcher; // nur eigenständig, im Launcher verteilt der InputHub
+    // Spielschleife; hält im Leerlauf (Game Over ohne Eingabe, Pause) ganz an
+    private final GameMetrics metrics = new GameMetrics("Breakout"); // per JMX sichtbar, solange das Spiel läuft
+    private final GameLoop loop = new GameLoop("Breakout-Loop", GAME_SPEED_MS, () -> {
+        updateGame();
+        publishScene();
+    }, metrics);
+    // Übertragung an Zuschauer, nur mit -Darcade.spectator.port bzw. .socket
+    private final SpectatorStream spectator = SpectatorStream.shared();
+    // Aufnahme als GIF/PNG, nur mit -Darcade.record=gif|png
+    private final FrameRecorder recorder = FrameRecorder.fromSystemProperties("Breakout");
+    private Scene scene = new Scene("Breakout", SCENE_BALLS, 0, 0);
+    // Sofort-Wiederholung nach dem Game Over; jeder Spiel-Tick wird als Szene aufgenommen
+    private final ReplayPlayer replay = new ReplayPlayer(REPLAY_SECONDS, GAME_SPEED_MS);
+    private boolean stepped = false; // nur in der Spielschleife
+    private final IdleController idle = new IdleController("Breakout", loop);
     private JFrame frame;
     private JPanel panel;
 
     // Highscores
-    private final String HIGHSCORE_FILE = "breakout_highscores.txt";
-    private ArrayList<HighScore> highscores = new ArrayList<>();
+    private final String HIGHSCORE_FILE = "breakout_highscores.bin";
+    private final String LEGACY_HIGHSCORE_FILE = "breakout_highscores.txt"; // altes CSV-Format, wird beim Laden migriert
+    private final HighScoreStore highscoreStore = new HighScoreStore(HIGHSCORE_FILE, LEGACY_HIGHSCORE_FILE);
+    private static final int HIGHSCORE_PLACES = 10;
+    private final Leaderboard highscores = new Leaderboard(HIGHSCORE_PLACES);
+    private final ScoreHistory history = new ScoreHistory(); // alle Runden, für Platzierung/Perzentil
+    // Abgleich mit anderen Automaten, nur wenn -Darcade.leaderboard=host:port gesetzt ist (sonst null)
+    private final LeaderboardSync sync = LeaderboardSync.fromSystemProperties("breakout", "breakout_sync.queue", this::onRemoteScore);
+
+    // Game Over und Initialen-Eingabe, läuft in der Spielschleife weiter
+    private final GameOverOverlay overlay = new GameOverOverlay(this::onNameEntered, this::initGame);
+    private String lastMessage = "";
+    private int lastScore = 0;
 
     public BreakoutGame() {
-        loadHighScores();
-        setupInputWatcher();
+        this(new UsbGamepad());
+    }
+
+    /**
+     * @param input Das Gamepad; im {@link ArcadeLauncher} das gemeinsame aller Spiele.
+     */
+    public BreakoutGame(Gamepad input) {
+        this.input = input;
+        for (HighScore hs : highscoreStore.load()) {
+            highscores.offer(hs);
+            history.record(hs);
+        }
+        loadLevelPack();
+        sim.setParticles(particles);
+        inputListener = metrics.meter(createInputListener());
+        metrics.setHighScoreStore(highscoreStore);
         initGame();
     }
 
     private void initGame() {
-        // Initialisiere die Positionen von Schläger und Ball
-        paddle = new Rectangle(WIDTH / 2 - PADDLE_WIDTH / 2, HEIGHT - 30, PADDLE_WIDTH, PADDLE_HEIGHT);
-        ball = new Rectangle(WIDTH / 2 - BALL_SIZE / 2, HEIGHT - 40, BALL_SIZE, BALL_SIZE);
-
-        score = 0;
-        lives = 3;
-        ballXDir = 2;
-        ballYDir = -2;
-
-        createBricks();
+        levelIndex = 0;
+        if (levelPack != null) {
+            try {
+                sim.loadLevel(levelPack.level(levelIndex));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Breakout: " + e.getMessage() + ", spiele ohne Levelpaket");
+                levelPack = null;
+                sim.loadDefaultLevel();
+            }
+        }
+        sim.reset();
+        session.newRound(); // Breakout braucht keinen Zufall, nur die Hash-Kette
+        pendingPaddleSteps.set(0);
+        replay.clear();
+        particles.clear();
         isRunning = true;
         isPaused = false;
     }
 
-    private void createBricks() {
-        bricks = new Brick[BRICK_ROWS][BRICK_COLS];
-        for (int i = 0; i < BRICK_ROWS; i++) {
-            for (int j = 0; j < BRICK_COLS; j++) {
-                int x = j * BRICK_WIDTH;
-                int y = i * BRICK_HEIGHT + 50; // Versetzt von oben
-                Color color;
-                switch (i) {
-                    case 0 -> color = Color.RED;
-                    case 1 -> color = Color.ORANGE;
-                    case 2 -> color = Color.YELLOW;
-                    case 3 -> color = Color.GREEN;
-                    default -> color = Color.CYAN;
-                }
-                bricks[i][j] = new Brick(x, y, BRICK_WIDTH, BRICK_HEIGHT, color);
-            }
+    private void loadLevelPack() {
+        Path file = Path.of(LEVEL_PACK_FILE);
+        if (!Files.exists(file)) return;
+
+        try {
+            levelPack = new BreakoutLevelPack(file);
+            if (levelPack.getLevelCount() == 0) levelPack = null;
+        } catch (IOException e) {
+            System.out.println("Breakout: Levelpaket konnte nicht geladen werden: " + e.getMessage());
         }
     }
 
-    private void resetBallPosition() {
-        ball.setLocation(WIDTH / 2 - BALL_SIZE / 2, HEIGHT - 40);
-        ballXDir = 2;
-        ballYDir = -2;
+    /**
+     * Wechselt nach einem abgeschlossenen Level zum nächsten Level des Pakets.
+     * Punkte und Leben bleiben erhalten.
+     *
+     * @return {@code false}, wenn es kein weiteres Level gibt.
+     */
+    private boolean nextLevel() {
+        if (levelPack == null || levelIndex + 1 >= levelPack.getLevelCount()) return false;
+
+        try {
+            sim.loadLevel(levelPack.level(++levelIndex));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Breakout: " + e.getMessage());
+            return false;
+        }
+        sim.resetBalls();
+        return true;
     }
 
     // ---------- Input ----------
-    private void setupInputWatcher() {
-        watcher = new InputWatcher(input, new InputListener() {
+    private InputListener createInputListener() {
+        return new InputListener() {
 
             // Schläger bewegen (Joystick 1 Left/Right)
             @Override public void onJoystick1Left() {
-                movePaddle(-paddleSpeed);
+                if (replay.isPlaying()) { replay.scrub(-1); return; }
+                if (overlay.isVisible()) { overlay.left(); return; }
+                movePaddle(-1);
             }
             @Override public void onJoystick1Right() {
-                movePaddle(paddleSpeed);
+                if (replay.isPlaying()) { replay.scrub(1); return; }
+                if (overlay.isVisible()) { overlay.right(); return; }
+                movePaddle(1);
             }
 
-            // Neustart / Pause
-            @Override public void onButtonMenuPressed() {}
-
-            // Rest ignorieren
+            // Bestätigen / Neustart nach dem Game Over, sonst Pause
+            @Override public void onButtonMenuPressed() {
+                if (replay.isPlaying()) { replay.toggle(); return; }
+                if (overlay.isVisible()) { overlay.confirm(); return; }
+                togglePause();
+            }
+            @Override public void onButtonA1Pressed() {
+                if (replay.isPlaying()) { replay.toggle(); return; }
+                overlay.confirm();
+            }
+            @Override public void onButtonY1Pressed() {
+                if (!isRunning) replay.toggle();
+            }
             @Override public void onJoystick1Up() {
-                if (!isRunning) {
-                    initGame();
-                    startTimer();
-                    panel.repaint();
-                }
+                if (replay.isPlaying()) return; // die Wiederholung kennt nur vor/zurück
+                overlay.up();
+            }
+            @Override public void onJoystick1Down() {
+                if (replay.isPlaying()) return;
+                overlay.down();
             }
-            @Override public void onJoystick1Down() {}
+
+            // Rest ignorieren
             @Override public void onJoystick2Up() {}
             @Override public void onJoystick2Down() {}
             @Override public void onJoystick2Left() {}
             @Override public void onJoystick2Right() {}
-            @Override public void onButtonA1Pressed() {}
             @Override public void onButtonB1Pressed() {}
             @Override public void onButtonX1Pressed() {}
-            @Override public void onButtonY1Pressed() {}
             @Override public void onButtonA2Pressed() {}
             @Override public void onButtonB2Pressed() {}
             @Override public void onButtonX2Pressed() {}
@@ -142,150 +224,149 @@ public class BreakoutGame implements ArcadeGame {
             @Override public void onButtonB2Released() {}
             @Override public void onButtonX2Released() {}
             @Override public void onButtonY2Released() {}
-        });
+        };
     }
 
-    private void movePaddle(int dx) {
+    private void togglePause() {
+        if (!isRunning) return;
+        isPaused = !isPaused;
+        if (!isPaused) idle.wake(); // falls die Schleife schon angehalten ist
+        requestRepaint();
+    }
+
+    /** Merkt einen Schritt nach links ({@code -1}) oder rechts ({@code 1}) für den nächsten Tick vor. */
+    private void movePaddle(int step) {
         if (!isRunning || isPaused) return;
+        pendingPaddleSteps.addAndGet(step);
+    }
 
-        int newX = paddle.x + dx;
-        // Begrenzung innerhalb des Spielfelds
-        if (newX >= 0 && newX <= WIDTH - PADDLE_WIDTH) {
-            paddle.x = newX;
-        }
+    // ---------- Game Loop ----------
+    /** Fordert ein neues Bild an (gezählt für die {@link GameMetrics}). */
+    private void requestRepaint() {
+        metrics.frameRequested();
         panel.repaint();
     }
 
-    // ---------- Game Loop ----------
     private void updateGame() {
-        if (!isRunning || isPaused) return;
-
-        // 1. Ball bewegen
-        ball.x += ballXDir;
-        ball.y += ballYDir;
-
-        // 2. Kollision mit Wänden
-        if (ball.x <= 0 || ball.x >= WIDTH - BALL_SIZE) {
-            ballXDir *= -1; // Seitenwände
-        }
-        if (ball.y <= 0) {
-            ballYDir *= -1; // Obere Wand
-        }
-        if (ball.y >= HEIGHT - BALL_SIZE) {
-            // Ball verloren
-            lives--;
-            if (lives <= 0) {
-                gameOver("Du hast alle Leben verloren.");
-                return;
-            }
-            resetBallPosition();
+        if (!isRunning) {
+            // Game Over: Anzeige weiter bedienen, bis die nächste Runde startet
+            loop.stage("Game-Over-Anzeige");
+            boolean replaying = replay.update();
+            overlay.update();
+            particles.update();
+            requestRepaint();
+            idle.tick(!replaying && overlay.isSettled() && particles.size() == 0);
+            return;
         }
-
-        // 3. Kollision mit Schläger
-        if (ball.intersects(paddle)) {
-            // Ball prallt vom Schläger ab
-            ballYDir = -Math.abs(ballYDir);
-
-            // Optional: Geschwindigkeit und Richtung basierend auf Trefferpunkt anpassen
-            double centerPaddle = paddle.x + PADDLE_WIDTH / 2.0;
-            double centerBall = ball.x + BALL_SIZE / 2.0;
-            double diff = centerBall - centerPaddle;
-            ballXDir = (int) (diff / 10.0); // Beschleunigung/Richtung nach Trefferpunkt
+        if (isPaused) {
+            // Schleife anhalten; MENU setzt sie fort
+            idle.enterIdle();
+            return;
         }
 
-        // 4. Kollision mit Ziegeln
-        checkBrickCollision();
-
-        // 5. Gewonnen?
-        if (allBricksDestroyed()) {
-            gameOver("Alle Ziegel zerstört!");
+        particles.update();
+        loop.stage("Simulation");
+        // Schritte einzeln ausführen, damit jeder wie bisher an der Spielfeldgrenze abgewiesen werden kann
+        int steps = pendingPaddleSteps.getAndSet(0);
+        for (int i = 0; i < Math.abs(steps); i++) {
+            sim.movePaddle(Integer.signum(steps) * paddleSpeed);
         }
+        BreakoutSimulation.Status status = sim.tick();
+        stepped = true;
+        session.tick(sim.stateHash(stateHash));
 
-        panel.repaint();
-    }
-
-    private void checkBrickCollision() {
-        for (int i = 0; i < BRICK_ROWS; i++) {
-            for (int j = 0; j < BRICK_COLS; j++) {
-                Brick brick = bricks[i][j];
-                if (brick != null && brick.isVisible()) {
-                    Rectangle brickRect = brick.getBounds();
-                    if (ball.intersects(brickRect)) {
-                        brick.setInvisible();
-                        score += 10;
-
-                        // Einfache Kollisionserkennung: Richtungsumkehr
-                        if (ball.x + BALL_SIZE <= brickRect.x || ball.x >= brickRect.x + brickRect.width) {
-                            ballXDir *= -1;
-                        } else {
-                            ballYDir *= -1;
-                        }
-                        return; // Nur ein Treffer pro Update
-                    }
+        switch (status) {
+            case LOST -> {
+                session.endRound();
+                gameOver("Du hast alle Leben verloren.");
+                return;
+            }
+            case CLEARED -> {
+                if (!nextLevel()) {
+                    session.endRound();
+                    gameOver("Alle Ziegel zerstört!");
+                    return;
                 }
             }
+            default -> {}
         }
+
+        requestRepaint();
     }
 
-    private boolean allBricksDestroyed() {
-        for (int i = 0; i < BRICK_ROWS; i++) {
-            for (int j = 0; j < BRICK_COLS; j++) {
-                if (bricks[i][j] != null && bricks[i][j].isVisible()) {
-                    return false;
-                }
-            }
+    /**
+     * Nimmt den Zustand nach einem Spiel-Tick für die Wiederholung auf und überträgt ihn an die Zuschauer, falls
+     * jemand zuschaut.
+     */
+    private void publishScene() {
+        if (!stepped && !spectator.hasViewers()) return;
+        int rows = sim.getBrickRows(), cols = sim.getBrickCols();
+        if (scene.getGridWidth() != cols || scene.getGridHeight() != rows) {
+            scene = new Scene("Breakout", SCENE_BALLS, cols, rows); // anderes Level-Format
         }
-        return true;
+        for (int idx = 0; idx < rows * cols; idx++) scene.setCell(idx, brickStyle(idx) + 1);
+
+        int balls = Math.min(sim.getBallCount(), SCENE_MAX_BALLS);
+        scene.setValueCount(SCENE_BALLS + 2 * balls);
+        scene.set(SCENE_PADDLE_X, sim.getPaddleX());
+        scene.set(SCENE_SCORE, sim.getScore());
+        scene.set(SCENE_LIVES, sim.getLives());
+        scene.set(SCENE_LEVEL, levelPack != null ? levelIndex + 1 : 0);
+        scene.set(SCENE_STATE, !isRunning ? 2 : isPaused ? 1 : 0);
+        for (int i = 0; i < balls; i++) {
+            scene.set(SCENE_BALLS + 2 * i, (int) sim.getBallX(i));
+            scene.set(SCENE_BALLS + 2 * i + 1, (int) sim.getBallY(i));
+        }
+        if (stepped) replay.record(scene);
+        stepped = false;
+        spectator.publish(scene);
     }
 
     // ---------- Spielende / Highscores ----------
     private void gameOver(String message) {
+        loop.stage("gameOver");
         isRunning = false;
-        timer.cancel();
-
-        addHighScore(score);
-
-        JOptionPane.showMessageDialog(frame,
-                "GAME OVER\n" + message + "\nFinaler Score: " + score + "\nDrücke MENU zum Neustart.",
-                "Breakout",
-                JOptionPane.INFORMATION_MESSAGE);
+        lastMessage = message;
+        lastScore = sim.getScore();
+
+        // Nach den Initialen wird nur gefragt, wenn der Score in die Bestenliste kommt
+        if (highscores.qualifies(lastScore)) {
+            overlay.showNameEntry("GAME OVER", message, "Finaler Score: " + lastScore,
+                    "Neuer Highscore! Initialen eingeben:");
+        } else {
+            addHighScore("Player", lastScore);
+            overlay.showSummary("GAME OVER", message, "Finaler Score: " + lastScore, placementText(lastScore));
+        }
+        requestRepaint();
     }
 
-    private void loadHighScores() {
-        File f = new File(HIGHSCORE_FILE);
-        if (!f.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            highscores.clear();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                highscores.add(new HighScore(parts[0], Integer.parseInt(parts[1])));
-            }
-        } catch (Exception ignored) {}
+    private void onNameEntered(String name) {
+        addHighScore(name, lastScore);
+        overlay.showSummary("GAME OVER", lastMessage, "Finaler Score: " + lastScore,
+                name + " - " + placementText(lastScore));
     }
 
-    private void saveHighScores() {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(HIGHSCORE_FILE))) {
-            for (HighScore hs : highscores) {
-                pw.println(hs.getName() + "," + hs.getScore());
-            }
-        } catch (Exception ignored) {}
+    private void addHighScore(String name, int score) {
+        // Jede Runde wird gespeichert, damit die Historie auch nach einem Neustart vollständig ist
+        HighScore play = new HighScore(name, score);
+        highscores.offer(play);
+        history.record(play);
+        highscoreStore.append(play);
+        if (sync != null) sync.submit(play);
     }
 
-    private void addHighScore(int score) {
-        String name = JOptionPane.showInputDialog(frame,
-                "Name eingeben für Highscore (" + score + "):",
-                "Highscore",
-                JOptionPane.PLAIN_MESSAGE);
-
-        if (name == null || name.isBlank()) name = "Player";
-
-        highscores.add(new HighScore(name, score));
-
-        highscores.sort((a, b) -> b.getScore() - a.getScore());
+    /**
+     * Runde von einem anderen Automaten (aus dem Sync-Thread): nur im Speicher übernehmen, nicht zurückschicken.
+     * Dauerhaft liegt sie im Eingang des {@link LeaderboardSync}, der sie beim nächsten Start wieder liefert.
+     */
+    private void onRemoteScore(HighScore play) {
+        highscores.offer(play);
+        history.record(play);
+    }
 
-        saveHighScores();
+    /** Text wie "Platz 4.213 von 180.000" für die Game-Over-Anzeige. */
+    private String placementText(int score) {
+        return String.format("Platz %,d von %,d", history.rank(score), history.size());
     }
 
     // ---------- Framework ----------
@@ -301,30 +382,68 @@ public class BreakoutGame implements ArcadeGame {
 
         frame.setVisible(true);
 
+        IdleGamepad idleInput = new IdleGamepad(input); // legt den Watcher im Leerlauf schlafen
+        watcher = new InputWatcher(idleInput, inputListener);
+        idle.setGamepad(idleInput);
         watcher.startWatching();
-        startTimer();
+        if (sync != null) sync.start();
+        metrics.register();
+        recorder.start();
+        loop.start();
 
         return frame;
     }
 
-    private void startTimer() {
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override public void run() {
-                updateGame();
+    @Override
+    public JComponent startHosted(ArcadeHost host) {
+        if (panel == null) {
+            panel = new GamePanel();
+            panel.setPreferredSize(new Dimension(WIDTH, HEIGHT));
+        }
+        initGame();
+        host.getInputHub().setListener(inputListener);
+        idle.setGamepad(host.getIdleGamepad());
+        if (sync != null) sync.start();
+        metrics.register();
+        recorder.start();
+        loop.start();
+        return panel;
+    }
+
+    /**
+     * Lässt eine eigene Simulation einige Runden laufen, damit Kollision und Ziegel-Logik
+     * schon übersetzt sind, wenn das Spiel im Launcher angezeigt wird.
+     */
+    @Override
+    public void warmUp() {
+        BreakoutSimulation scratch = new BreakoutSimulation();
+        for (int round = 0; round < 20; round++) {
+            scratch.reset();
+            for (int i = 0; i < 1000 && scratch.tick() == BreakoutSimulation.Status.RUNNING; i++) {
+                scratch.movePaddle((i & 64) == 0 ? paddleSpeed : -paddleSpeed);
             }
-        }, 0, GAME_SPEED_MS);
+        }
+    }
+
+    @Override
+    public String getTitle() {
+        return "Breakout";
     }
 
     @Override
     public void stop() {
-        if (timer != null) timer.cancel();
+        idle.wake();
+        loop.stop();
+        session.endRound();
+        metrics.unregister();
+        recorder.close();
         if (watcher != null) watcher.stopWatching();
+        if (sync != null) sync.close();
     }
 
     @Override
-    public ArrayList<HighScore> getHighScores() {
-        return highscores;
+    public List<HighScore> getHighScores() {
+        return highscores.snapshot();
     }
 
     // ---------- Rendering ----------
@@ -335,67 +454,114 @@ public class BreakoutGame implements ArcadeGame {
 
         @Override
         protected void paintComponent(Graphics g) {
+            ArcadeEvents.PaintEvent paint = metrics.beginPaint();
+            recorder.paint(g, getWidth(), getHeight(), this::paintGame);
+            metrics.endPaint(paint);
+        }
+
+        /** Zeichnet das Spiel, auf den Bildschirm oder in ein Bild der Aufnahme. */
+        private void paintGame(Graphics g) {
             super.paintComponent(g);
+            if (replay.isPlaying()) {
+                ScenePainter.paintReplay(g, replay, getWidth(), getHeight());
+                return;
+            }
 
             // Ziegel (Bricks)
-            for (int i = 0; i < BRICK_ROWS; i++) {
-                for (int j = 0; j < BRICK_COLS; j++) {
-                    Brick brick = bricks[i][j];
-                    if (brick != null && brick.isVisible()) {
-                        g.setColor(brick.getColor());
-                        g.fillRect(brick.getX(), brick.getY(), brick.getWidth(), brick.getHeight());
-                        g.setColor(Color.DARK_GRAY);
-                        g.drawRect(brick.getX(), brick.getY(), brick.getWidth(), brick.getHeight());
-                    }
-                }
-            }
+            paintBricks(g);
 
             // Schläger
             g.setColor(Color.WHITE);
-            g.fillRect(paddle.x, paddle.y, paddle.width, paddle.height);
+            g.fillRect(sim.getPaddleX(), BreakoutSimulation.PADDLE_Y,
+                    BreakoutSimulation.PADDLE_WIDTH, BreakoutSimulation.PADDLE_HEIGHT);
 
-            // Ball
+            // Bälle
             g.setColor(Color.YELLOW);
-            g.fillOval(ball.x, ball.y, ball.width, ball.height);
+            int size = BreakoutSimulation.BALL_SIZE;
+            for (int i = 0, n = sim.getBallCount(); i < n; i++) {
+                g.fillOval((int) sim.getBallX(i), (int) sim.getBallY(i), size, size);
+            }
+
+            // Partikel
+            particles.render(g);
 
             // Score und Leben
             g.setColor(Color.WHITE);
             g.setFont(new Font("Arial", Font.BOLD, 20));
-            g.drawString("Score: " + score, 10, 20);
-            g.drawString("Leben: " + lives, WIDTH - 100, 20);
+            g.drawString("Score: " + sim.getScore(), 10, 20);
+            g.drawString("Leben: " + sim.getLives(), WIDTH - 100, 20);
+            if (levelPack != null) {
+                g.drawString("Level " + (levelIndex + 1), WIDTH / 2 - 35, 20);
+            }
 
             // Pause-Meldung
             if (isPaused) {
                 g.setFont(new Font("Arial", Font.BOLD, 50));
                 g.drawString("PAUSE", WIDTH / 2 - 80, HEIGHT / 2);
             }
+
+            overlay.render(g, getWidth(), getHeight());
+            if (!isRunning && replay.isAvailable()) {
+                g.setColor(Color.GRAY);
+                g.setFont(new Font("Arial", Font.PLAIN, 14));
+                g.drawString("Y: Wiederholung", 10, getHeight() - 10);
+            }
         }
     }
 
-    // ---------- Hilfsklasse für Ziegel ----------
-    private static class Brick {
-        private final Rectangle bounds;
-        private final Color color;
-        private boolean visible;
-
-        public Brick(int x, int y, int width, int height, Color color) {
-            this.bounds = new Rectangle(x, y, width, height);
-            this.color = color;
-            this.visible = true;
+    /**
+     * Zeichnet die Ziegel zeilenweise in Läufen: Benachbarte Ziegel mit gleicher Darstellung werden
+     * mit einem einzigen {@code fillRect} gefüllt, die Fugen danach als Linien gezogen.
+     * Mehrfach-Ziegel erscheinen dunkler, solange sie mehr als einen Treffer aushalten.
+     */
+    private void paintBricks(Graphics g) {
+        int rows = sim.getBrickRows();
+        int cols = sim.getBrickCols();
+        int w = sim.getBrickWidth();
+        int h = BreakoutSimulation.BRICK_HEIGHT;
+
+        for (int i = 0; i < rows; i++) {
+            int y = BreakoutSimulation.BRICK_OFFSET_Y + i * h;
+            int rowStart = i * cols;
+            int j = 0;
+            while (j < cols) {
+                int key = brickStyle(rowStart + j);
+                if (key < 0) {
+                    j++;
+                    continue;
+                }
+                int runStart = j;
+                while (j < cols && brickStyle(rowStart + j) == key) j++;
+
+                int x = runStart * w;
+                int runWidth = (j - runStart) * w;
+                g.setColor(styleColor(key));
+                g.fillRect(x, y, runWidth, h);
+                g.setColor(Color.DARK_GRAY);
+                g.drawRect(x, y, runWidth, h);
+                for (int k = runStart + 1; k < j; k++) {
+                    g.drawLine(k * w, y, k * w, y + h);
+                }
+            }
         }
+    }
+
+    /** Darstellungsschlüssel einer Zelle (Farbindex * 2 + "beschädigbar"), oder -1 für leer. */
+    private int brickStyle(int idx) {
+        int hp = sim.getBrickHp(idx);
+        if (hp <= 0) return -1;
+        boolean strong = hp > 1 && sim.getBrickType(idx) == BreakoutSimulation.TYPE_NORMAL;
+        return sim.getBrickColor(idx) * 2 + (strong ? 1 : 0);
+    }
 
-        public Rectangle getBounds() { return bounds; }
-        public Color getColor() { return color; }
-        public int getX() { return bounds.x; }
-        public int getY() { return bounds.y; }
-        public int getWidth() { return bounds.width; }
-        public int getHeight() { return bounds.height; }
-        public boolean isVisible() { return visible; }
-        public void setInvisible() { this.visible = false; }
+    static Color styleColor(int key) {
+        Color[] palette = (key & 1) != 0 ? STRONG_PALETTE : BreakoutSimulation.PALETTE;
+        return palette[(key >> 1) % palette.length];
     }
 
     // Optional Main
     public static void main(String[] args) {
-        new BreakoutGame().start();
+        // Fenster, Gamepad und Highscores parallel vorbereiten (siehe StartupPipeline)
+        StartupPipeline.launch(BreakoutGame.class);
     }
 }
\ No newline at end of file
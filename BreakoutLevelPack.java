@@ -0,0 +1,214 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binäres Level-Paket für Breakout.
+ * <p>
+ * Aufbau (Big Endian):
+ * <pre>
+ * Header      : int Magic "ABLP" | short Version | short reserviert | int Anzahl Level
+ * Indextabelle: je Level int Offset (ab Dateianfang) | int Länge in Bytes
+ * Level       : byte Zeilen | byte Spalten | Zeilen * Spalten Zellen à 1 Byte
+ * Zelle       : Bits 7-6 Typ | Bits 5-3 Farbindex | Bits 2-0 Trefferpunkte
+ * </pre>
+ * Ein Level darf höchstens {@link BreakoutSimulation#MAX_BRICK_ROWS} Zeilen und
+ * {@link BreakoutSimulation#MAX_BRICK_COLS} Spalten haben; Typ 3 ist nicht belegt, leere Zellen haben
+ * keine Trefferpunkte.
+ * Die Datei wird über einen {@link FileChannel} in den Speicher gemappt. Beim Öffnen wird nur
+ * der Header geprüft; ein Level wird erst dekodiert, wenn es gebraucht wird, und landet dann in
+ * einem kleinen LRU-Cache. Öffnen und Levelwechsel sind damit auch bei Paketen mit tausenden
+ * Leveln sofort erledigt.
+ */
+class BreakoutLevelPack {
+
+    private static final int MAGIC = 0x41424C50; // "ABLP"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int INDEX_ENTRY_SIZE = 8;
+    private static final int CACHE_SIZE = 8;
+
+    private final MappedByteBuffer data;
+    private final int levelCount;
+
+    private final Map<Integer, Level> cache = new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Level> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Ein dekodiertes Level: je Zelle Trefferpunkte, Farbindex und Typ (zeilenweise).
+     * Die Arrays werden von {@link BreakoutSimulation} als Vorlage verwendet und nicht verändert.
+     */
+    static class Level {
+        final int rows;
+        final int cols;
+        final byte[] hp;
+        final byte[] color;
+        final byte[] type;
+
+        Level(int rows, int cols, byte[] hp, byte[] color, byte[] type) {
+            this.rows = rows;
+            this.cols = cols;
+            this.hp = hp;
+            this.color = color;
+            this.type = type;
+        }
+    }
+
+    /**
+     * Öffnet ein Level-Paket und prüft Header und Indextabelle auf Plausibilität.
+     *
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein gültiges Paket ist.
+     */
+    BreakoutLevelPack(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Kein Breakout-Levelpaket: " + file);
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IOException("Nicht unterstützte Version " + data.getShort(4) + ": " + file);
+        }
+        levelCount = data.getInt(8);
+        if (levelCount < 0 || HEADER_SIZE + (long) levelCount * INDEX_ENTRY_SIZE > data.capacity()) {
+            throw new IOException("Beschädigte Indextabelle: " + file);
+        }
+    }
+
+    int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Liefert das Level mit dem gegebenen Index, bei Bedarf frisch dekodiert.
+     *
+     * @throws IllegalArgumentException wenn der Index ungültig oder der Leveleintrag beschädigt ist.
+     */
+    synchronized Level level(int index) {
+        Level level = cache.get(index);
+        if (level == null) {
+            level = decode(index);
+            cache.put(index, level);
+        }
+        return level;
+    }
+
+    private Level decode(int index) {
+        if (index < 0 || index >= levelCount) {
+            throw new IllegalArgumentException("Level " + index + " existiert nicht (" + levelCount + " Level)");
+        }
+        int entry = HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+        int offset = data.getInt(entry);
+        int length = data.getInt(entry + 4);
+        if (offset < 0 || length < 2 || (long) offset + length > data.capacity()) {
+            throw new IllegalArgumentException("Beschädigter Indexeintrag für Level " + index);
+        }
+
+        int rows = data.get(offset) & 0xFF;
+        int cols = data.get(offset + 1) & 0xFF;
+        int cells = rows * cols;
+        if (rows == 0 || cols == 0 || length != 2 + cells) {
+            throw new IllegalArgumentException("Beschädigte Leveldaten für Level " + index);
+        }
+        if (rows > BreakoutSimulation.MAX_BRICK_ROWS || cols > BreakoutSimulation.MAX_BRICK_COLS) {
+            throw new IllegalArgumentException("Level " + index + " ist mit " + rows + "x" + cols
+                    + " größer als das Spielfeld (" + BreakoutSimulation.MAX_BRICK_ROWS + "x"
+                    + BreakoutSimulation.MAX_BRICK_COLS + ")");
+        }
+
+        byte[] hp = new byte[cells];
+        byte[] color = new byte[cells];
+        byte[] type = new byte[cells];
+        for (int i = 0; i < cells; i++) {
+            int cell = data.get(offset + 2 + i) & 0xFF;
+            type[i] = (byte) (cell >>> 6);
+            color[i] = (byte) ((cell >>> 3) & 0x07);
+            hp[i] = (byte) (cell & 0x07);
+            if (type[i] > BreakoutSimulation.TYPE_INDESTRUCTIBLE
+                    || type[i] == BreakoutSimulation.TYPE_EMPTY && hp[i] > 0) {
+                throw new IllegalArgumentException("Ungültige Zelle " + i + " (Typ " + type[i] + ", Trefferpunkte "
+                        + hp[i] + ") in Level " + index);
+            }
+        }
+        return new Level(rows, cols, hp, color, type);
+    }
+
+    /**
+     * Schreibt die Level als neues Paket. Trefferpunkte werden auf 0..7, Farbindizes auf 0..7
+     * begrenzt; Zeilen und Spalten müssen zwischen 1 und 255 liegen.
+     */
+    static void write(Path file, List<Level> levels) throws IOException {
+        int size = HEADER_SIZE + levels.size() * INDEX_ENTRY_SIZE;
+        for (Level level : levels) {
+            size += 2 + level.rows * level.cols;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(levels.size());
+
+        int offset = HEADER_SIZE + levels.size() * INDEX_ENTRY_SIZE;
+        for (Level level : levels) {
+            int length = 2 + level.rows * level.cols;
+            out.putInt(offset).putInt(length);
+            offset += length;
+        }
+        for (Level level : levels) {
+            if (level.rows < 1 || level.rows > 255 || level.cols < 1 || level.cols > 255) {
+                throw new IllegalArgumentException("Ungültige Levelgröße " + level.rows + "x" + level.cols);
+            }
+            out.put((byte) level.rows).put((byte) level.cols);
+            for (int i = 0; i < level.rows * level.cols; i++) {
+                int hp = Math.max(0, Math.min(7, level.hp[i]));
+                int color = level.color[i] & 0x07;
+                out.put((byte) ((level.type[i] & 0x03) << 6 | color << 3 | hp));
+            }
+        }
+        Files.write(file, out.array());
+    }
+
+    /**
+     * Erzeugt ein Beispielpaket mit dem Standardlayout und weiteren, nach Schwierigkeit
+     * gestaffelten Leveln (Mehrfach- und unzerstörbare Ziegel).
+     * Aufruf: {@code java BreakoutLevelPack [datei] [anzahl]}
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Path.of(args.length > 0 ? args[0] : BreakoutGame.LEVEL_PACK_FILE);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        List<Level> levels = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            int rows = Math.min(5 + n / 2, 12);
+            int cols = 10;
+            byte[] hp = new byte[rows * cols];
+            byte[] color = new byte[rows * cols];
+            byte[] type = new byte[rows * cols];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    int idx = i * cols + j;
+                    color[idx] = (byte) Math.min(i, 4);
+                    type[idx] = BreakoutSimulation.TYPE_NORMAL;
+                    hp[idx] = (byte) (1 + Math.min(n / 3, Math.max(0, 2 - i / 2)));
+                    if (n >= 2 && i == rows - 1 && j % (cols / 2) == (n % 3)) {
+                        type[idx] = BreakoutSimulation.TYPE_INDESTRUCTIBLE;
+                        color[idx] = 7; // Grau
+                    }
+                }
+            }
+            levels.add(new Level(rows, cols, hp, color, type));
+        }
+        write(file, levels);
+        System.out.printf("BreakoutLevelPack: %d Level nach %s geschrieben.%n", levels.size(), file);
+    }
+}
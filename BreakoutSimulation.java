@@ -0,0 +1,413 @@
+import framework.*;
+import java.awt.*;
+
+/**
+ * Die Spiellogik von Breakout ohne Swing, Timer und Eingabegeräte.
+ * {@link BreakoutGame} zeichnet den Zustand und ruft {@link #tick()} im Spieltakt auf;
+ * {@link BreakoutBenchmark} treibt dieselbe Logik ohne Fenster an.
+ * <p>
+ * Die Bälle liegen als Struct-of-Arrays in primitiven Arrays (Position und Geschwindigkeit je
+ * ein {@code double[]}), damit die Update- und Kollisionsschleife auch mit hunderten Bällen
+ * (Multi-Ball) speicherfreundlich und ohne Allokationen läuft.
+ * <p>
+ * Auch die Ziegel sind keine Objekte: Trefferpunkte, Farbindex und Typ liegen je Zelle in einem
+ * {@code byte[]} (zeilenweise), die Position ergibt sich aus Zeile und Spalte. Ein Level-Neustart
+ * kopiert nur die Vorlage-Arrays zurück.
+ * <p>
+ * Die Logik ist deterministisch (kein Zufall, Eingaben nur über {@link #movePaddle} zwischen den Ticks),
+ * {@link #stateHash(StateHash)} macht das pro Tick prüfbar. Gleitkomma-Rechnung ist seit Java 17 überall
+ * strikt; die Winkel der Multi-Ball-Teilung kommen aus {@link StrictMath}, damit auch sie auf jedem
+ * Rechner bitgenau gleich sind.
+ */
+class BreakoutSimulation {
+
+    // Konstanten
+    static final int WIDTH = 600;
+    static final int HEIGHT = 450;
+    static final int PADDLE_WIDTH = 80;
+    static final int PADDLE_HEIGHT = 10;
+    static final int PADDLE_Y = HEIGHT - 30;
+    static final int BALL_SIZE = 8;
+    static final int BRICK_ROWS = 5;
+    static final int BRICK_COLS = 10;
+    static final int BRICK_HEIGHT = 20;
+    static final int BRICK_OFFSET_Y = 50; // Abstand des Ziegelgitters von oben
+    // Größtes Ziegelgitter: zwei Ziegelhöhen Platz über dem Schläger, Ziegel mindestens ballbreit
+    static final int MAX_BRICK_ROWS = (PADDLE_Y - BRICK_OFFSET_Y) / BRICK_HEIGHT - 2;
+    static final int MAX_BRICK_COLS = WIDTH / BALL_SIZE;
+    static final int MAX_BALLS = 512;
+    static final double BALL_START_SPEED = 2.0;
+
+    // Multi-Ball: jeder n-te zerstörte Ziegel teilt jeden Ball in drei
+    private static final int MULTIBALL_EVERY = 10;
+    private static final double SPLIT_COS = StrictMath.cos(StrictMath.toRadians(30));
+    private static final double SPLIT_SIN = StrictMath.sin(StrictMath.toRadians(30));
+
+    // Kennungen der Hindernisse für die Kollisionsauflösung (Ziegel: Zeile * Spalten + Spalte)
+    private static final int TARGET_WALL = -2;
+    private static final int TARGET_PADDLE = -3;
+
+    // Ziegeltypen
+    static final byte TYPE_EMPTY = 0;
+    static final byte TYPE_NORMAL = 1;         // verschwindet, sobald die Trefferpunkte aufgebraucht sind
+    static final byte TYPE_INDESTRUCTIBLE = 2; // prallt nur ab, zählt nicht für den Levelabschluss
+
+    /** Farbpalette der Ziegel; der Farbindex einer Zelle verweist hier hinein. */
+    static final Color[] PALETTE = {
+            Color.RED, Color.ORANGE, Color.YELLOW, Color.GREEN, Color.CYAN,
+            Color.MAGENTA, Color.BLUE, Color.GRAY
+    };
+
+    /** Ergebnis eines Spieltakts. */
+    enum Status { RUNNING, LOST, CLEARED }
+
+    // Bälle (Struct-of-Arrays)
+    private final double[] ballX = new double[MAX_BALLS];
+    private final double[] ballY = new double[MAX_BALLS];
+    private final double[] ballVX = new double[MAX_BALLS];
+    private final double[] ballVY = new double[MAX_BALLS];
+    private int ballCount = 0;
+
+    // Wiederverwendete Objekte für die Kollisionsauflösung
+    private final Collision.Body body = new Collision.Body(BALL_SIZE, BALL_SIZE);
+    private final Collision.Hit hit = new Collision.Hit();
+    private final Collision.Obstacles obstacles = new BreakoutObstacles();
+
+    // Ziegel (zeilenweise: Index = Zeile * Spalten + Spalte)
+    private int brickRows;
+    private int brickCols;
+    private int brickWidth;
+    private byte[] brickHp;
+    private byte[] brickColor;
+    private byte[] brickType;
+
+    // Vorlage des aktuellen Levels, aus der bei jedem Neustart kopiert wird
+    private byte[] levelHp;
+    private byte[] levelColor;
+    private byte[] levelType;
+    private int levelAlive;
+
+    // Spielobjekte
+    private int paddleX;
+    private int aliveBricks = 0; // Anzahl der noch zerstörbaren Ziegel (Gewinnprüfung in O(1))
+    private int destroyedBricks = 0;
+    private int pendingSplits = 0; // im Tick ausgelöste Multi-Balls, geteilt wird nach der Ballschleife
+    private int score = 0;
+    private int lives = 3;
+
+    // Optionales visuelles Feedback (null im Benchmark)
+    private ParticleSystem particles;
+
+    BreakoutSimulation() {
+        loadDefaultLevel();
+    }
+
+    /**
+     * Setzt Schläger, Ball, Punkte, Leben und Ziegel auf den Ausgangszustand zurück.
+     */
+    void reset() {
+        paddleX = WIDTH / 2 - PADDLE_WIDTH / 2;
+        resetBalls();
+
+        score = 0;
+        lives = 3;
+        destroyedBricks = 0;
+
+        resetBricks();
+    }
+
+    /**
+     * Das Standardlevel: fünf Reihen in Regenbogenfarben, jeder Ziegel hält einen Treffer aus.
+     */
+    void loadDefaultLevel() {
+        int cells = BRICK_ROWS * BRICK_COLS;
+        byte[] hp = new byte[cells];
+        byte[] color = new byte[cells];
+        byte[] type = new byte[cells];
+        for (int i = 0; i < BRICK_ROWS; i++) {
+            for (int j = 0; j < BRICK_COLS; j++) {
+                int idx = i * BRICK_COLS + j;
+                hp[idx] = 1;
+                color[idx] = (byte) Math.min(i, 4); // Rot, Orange, Gelb, Grün, danach Cyan
+                type[idx] = TYPE_NORMAL;
+            }
+        }
+        loadLevel(BRICK_ROWS, BRICK_COLS, hp, color, type);
+    }
+
+    /**
+     * Übernimmt ein Level als Vorlage (die Arrays werden nicht kopiert und dürfen danach nicht
+     * mehr verändert werden) und baut die Ziegel daraus auf.
+     *
+     * @param hp    Trefferpunkte je Zelle (1..127, bei unzerstörbaren Ziegeln beliebig > 0)
+     * @param color Index in {@link #PALETTE} je Zelle
+     * @param type  {@link #TYPE_EMPTY}, {@link #TYPE_NORMAL} oder {@link #TYPE_INDESTRUCTIBLE} je Zelle
+     */
+    void loadLevel(int rows, int cols, byte[] hp, byte[] color, byte[] type) {
+        int cells = rows * cols;
+        if (hp.length != cells || color.length != cells || type.length != cells) {
+            throw new IllegalArgumentException("Level-Arrays passen nicht zu " + rows + "x" + cols);
+        }
+        levelHp = hp;
+        levelColor = color;
+        levelType = type;
+        levelAlive = 0;
+        for (int i = 0; i < cells; i++) {
+            if (type[i] == TYPE_NORMAL && hp[i] > 0) levelAlive++;
+        }
+
+        if (brickHp == null || brickHp.length != cells) {
+            brickHp = new byte[cells];
+            brickColor = new byte[cells];
+            brickType = new byte[cells];
+        }
+        brickRows = rows;
+        brickCols = cols;
+        brickWidth = WIDTH / cols;
+        resetBricks();
+    }
+
+    /** Übernimmt ein Level aus einem {@link BreakoutLevelPack} als Vorlage. */
+    void loadLevel(BreakoutLevelPack.Level level) {
+        loadLevel(level.rows, level.cols, level.hp, level.color, level.type);
+    }
+
+    /** Entfernt alle Bälle und setzt einen neuen Ball über den Schläger. */
+    void resetBalls() {
+        ballCount = 0;
+        spawnBall(WIDTH / 2 - BALL_SIZE / 2, HEIGHT - 40, BALL_START_SPEED, -BALL_START_SPEED);
+    }
+
+    /**
+     * Fügt einen Ball hinzu.
+     *
+     * @return {@code false}, wenn bereits {@link #MAX_BALLS} Bälle im Spiel sind.
+     */
+    boolean spawnBall(double x, double y, double vx, double vy) {
+        if (ballCount >= MAX_BALLS) return false;
+        ballX[ballCount] = x;
+        ballY[ballCount] = y;
+        ballVX[ballCount] = vx;
+        ballVY[ballCount] = vy;
+        ballCount++;
+        return true;
+    }
+
+    /** Entfernt Ball {@code i}, indem der letzte Ball an seine Stelle kopiert wird (Swap-Remove). */
+    private void removeBall(int i) {
+        int last = --ballCount;
+        ballX[i] = ballX[last];
+        ballY[i] = ballY[last];
+        ballVX[i] = ballVX[last];
+        ballVY[i] = ballVY[last];
+    }
+
+    /**
+     * Multi-Ball Power-Up: Jeder Ball erhält zwei Kopien, deren Richtung um ±30° gedreht ist.
+     */
+    void splitBalls() {
+        int n = ballCount;
+        for (int i = 0; i < n; i++) {
+            double vx = ballVX[i], vy = ballVY[i];
+            spawnBall(ballX[i], ballY[i], vx * SPLIT_COS - vy * SPLIT_SIN, vx * SPLIT_SIN + vy * SPLIT_COS);
+            spawnBall(ballX[i], ballY[i], vx * SPLIT_COS + vy * SPLIT_SIN, -vx * SPLIT_SIN + vy * SPLIT_COS);
+        }
+    }
+
+    /**
+     * Verschiebt den Schläger, solange er innerhalb des Spielfelds bleibt.
+     */
+    void movePaddle(int dx) {
+        int newX = paddleX + dx;
+        // Begrenzung innerhalb des Spielfelds
+        if (newX >= 0 && newX <= WIDTH - PADDLE_WIDTH) {
+            paddleX = newX;
+        }
+    }
+
+    /**
+     * Führt einen Spieltakt aus: alle Bälle bewegen, Kollisionen auflösen, verlorene Bälle entfernen.
+     *
+     * @return {@link Status#LOST}, wenn das letzte Leben verloren wurde, {@link Status#CLEARED},
+     * wenn alle Ziegel zerstört sind, sonst {@link Status#RUNNING}.
+     */
+    Status tick() {
+        for (int i = 0; i < ballCount; i++) {
+            body.x = ballX[i];
+            body.y = ballY[i];
+            body.vx = ballVX[i];
+            body.vy = ballVY[i];
+
+            // 1. Schläger, der sich in den Ball geschoben hat: Ball nach oben abprallen lassen
+            if (Collision.overlaps(body.x, body.y, BALL_SIZE, BALL_SIZE,
+                    paddleX, PADDLE_Y, PADDLE_WIDTH, PADDLE_HEIGHT)) {
+                body.vy = -Math.abs(body.vy);
+            }
+
+            // 2. Ball bewegen, Kollisionen mit Wänden, Schläger und Ziegeln kontinuierlich auflösen
+            Collision.resolve(body, 1.0, obstacles, hit, Collision.DEFAULT_MAX_ITERATIONS);
+
+            // 3. Ball verloren?
+            if (body.y >= HEIGHT - BALL_SIZE) {
+                removeBall(i--);
+                continue;
+            }
+
+            ballX[i] = body.x;
+            ballY[i] = body.y;
+            ballVX[i] = body.vx;
+            ballVY[i] = body.vy;
+        }
+
+        // Multi-Ball erst jetzt: ein Split mitten in der Schleife hätte die neuen Bälle im selben Tick bewegt
+        for (; pendingSplits > 0; pendingSplits--) {
+            splitBalls();
+        }
+
+        // Letzter Ball verloren -> Leben abziehen
+        if (ballCount == 0) {
+            lives--;
+            if (lives <= 0) {
+                return Status.LOST;
+            }
+            resetBalls();
+        }
+
+        // Gewonnen?
+        return aliveBricks <= 0 ? Status.CLEARED : Status.RUNNING;
+    }
+
+    /**
+     * Hindernisse für {@link Collision#resolve}: Spielfeldränder, Schläger und Ziegel.
+     */
+    private class BreakoutObstacles implements Collision.Obstacles {
+
+        @Override
+        public void sweep(double x, double y, double w, double h, double dx, double dy, Collision.Hit hit) {
+            // Spielfeldränder (links, rechts, oben) als Boxen außerhalb des Felds
+            Collision.sweepBox(x, y, w, h, dx, dy, -WIDTH, -HEIGHT, WIDTH, 3 * HEIGHT, TARGET_WALL, hit);
+            Collision.sweepBox(x, y, w, h, dx, dy, WIDTH, -HEIGHT, WIDTH, 3 * HEIGHT, TARGET_WALL, hit);
+            Collision.sweepBox(x, y, w, h, dx, dy, -WIDTH, -HEIGHT, 3 * WIDTH, HEIGHT, TARGET_WALL, hit);
+
+            Collision.sweepBox(x, y, w, h, dx, dy,
+                    paddleX, PADDLE_Y, PADDLE_WIDTH, PADDLE_HEIGHT, TARGET_PADDLE, hit);
+
+            sweepBricks(x, y, w, h, dx, dy, hit);
+        }
+
+        @Override
+        public void onHit(Collision.Body body, Collision.Hit hit) {
+            if (hit.target == TARGET_PADDLE && hit.normalY < 0) {
+                // Ball prallt vom Schläger ab, Richtung nach Trefferpunkt
+                body.vy = -Math.abs(body.vy);
+                double centerPaddle = paddleX + PADDLE_WIDTH / 2.0;
+                double centerBall = body.x + BALL_SIZE / 2.0;
+                body.vx = (centerBall - centerPaddle) / 10.0;
+                return;
+            }
+            if (hit.target >= 0) {
+                hitBrick(hit.target);
+            }
+            Collision.reflect(body, hit);
+        }
+    }
+
+    /**
+     * Broadphase über das gleichmäßige Ziegelgitter: Aus der Bounding-Box der gesamten
+     * Bewegung (Start- und Endposition) werden direkt die Zeilen und Spalten der Zellen berechnet,
+     * die der Ball überstreicht. Geprüft werden nur diese Kandidaten, unabhängig davon, wie viele
+     * Ziegel das Level hat.
+     */
+    private void sweepBricks(double x, double y, double w, double h, double dx, double dy, Collision.Hit hit) {
+        double minX = Math.min(x, x + dx), maxX = Math.max(x, x + dx) + w;
+        double minY = Math.min(y, y + dy), maxY = Math.max(y, y + dy) + h;
+
+        int firstRow = Math.max(0, brickRowAt(minY));
+        int lastRow = Math.min(brickRows - 1, brickRowAt(maxY));
+        int firstCol = Math.max(0, brickColAt(minX));
+        int lastCol = Math.min(brickCols - 1, brickColAt(maxX));
+
+        for (int i = firstRow; i <= lastRow; i++) {
+            int idx = i * brickCols + firstCol;
+            for (int j = firstCol; j <= lastCol; j++, idx++) {
+                if (brickHp[idx] > 0) {
+                    Collision.sweepBox(x, y, w, h, dx, dy,
+                            j * brickWidth, BRICK_OFFSET_Y + i * BRICK_HEIGHT, brickWidth, BRICK_HEIGHT, idx, hit);
+                }
+            }
+        }
+    }
+
+    private void hitBrick(int idx) {
+        if (brickHp[idx] <= 0 || brickType[idx] == TYPE_INDESTRUCTIBLE) return;
+        boolean destroyed = --brickHp[idx] <= 0;
+
+        if (particles != null) {
+            float cx = (idx % brickCols) * brickWidth + brickWidth / 2f;
+            float cy = BRICK_OFFSET_Y + (idx / brickCols) * BRICK_HEIGHT + BRICK_HEIGHT / 2f;
+            particles.emit(cx, cy, destroyed ? 16 : 4, PALETTE[brickColor[idx] % PALETTE.length], 2.5f, 30);
+        }
+        if (!destroyed) return; // Mehrfach-Ziegel: nur beschädigt
+
+        aliveBricks--;
+        score += 10;
+
+        if (++destroyedBricks % MULTIBALL_EVERY == 0) {
+            pendingSplits++;
+        }
+    }
+
+    /** Zeile des Ziegelgitters, in der die Bildschirm-Y-Koordinate liegt (kann außerhalb liegen). */
+    private static int brickRowAt(double y) {
+        return (int) Math.floor((y - BRICK_OFFSET_Y) / BRICK_HEIGHT);
+    }
+
+    /** Spalte des Ziegelgitters, in der die Bildschirm-X-Koordinate liegt (kann außerhalb liegen). */
+    private int brickColAt(double x) {
+        return (int) Math.floor(x / brickWidth);
+    }
+
+    /**
+     * @param hash Wird zurückgesetzt und wiederverwendet.
+     * @return Hash des Spielzustands (Bälle bitgenau, Schläger, Punkte, Leben, Ziegel; ohne Partikel).
+     */
+    long stateHash(StateHash hash) {
+        hash.reset()
+                .add(ballCount)
+                .add(ballX, ballCount).add(ballY, ballCount)
+                .add(ballVX, ballCount).add(ballVY, ballCount)
+                .add(paddleX).add(score).add(lives)
+                .add(aliveBricks).add(destroyedBricks);
+        for (byte hp : brickHp) hash.add(hp);
+        return hash.value();
+    }
+
+    // ---------- Zustand für Rendering ----------
+    int getPaddleX() { return paddleX; }
+    int getBallCount() { return ballCount; }
+    double getBallX(int i) { return ballX[i]; }
+    double getBallY(int i) { return ballY[i]; }
+    int getBrickRows() { return brickRows; }
+    int getBrickCols() { return brickCols; }
+    int getBrickWidth() { return brickWidth; }
+    /** Trefferpunkte der Zelle; {@code 0} bedeutet leer bzw. zerstört. */
+    int getBrickHp(int idx) { return brickHp[idx]; }
+    int getBrickColor(int idx) { return brickColor[idx]; }
+    int getBrickType(int idx) { return brickType[idx]; }
+    int getAliveBricks() { return aliveBricks; }
+    int getScore() { return score; }
+    int getLives() { return lives; }
+
+    /** Partikelsystem, in das zerstörte Ziegel ihre Splitter emittieren ({@code null} = keine Effekte). */
+    void setParticles(ParticleSystem particles) {
+        this.particles = particles;
+    }
+
+    /** Baut die Ziegel aus der Level-Vorlage neu auf, ohne Punkte, Leben oder Bälle zu verändern. */
+    void resetBricks() {
+        System.arraycopy(levelHp, 0, brickHp, 0, brickHp.length);
+        System.arraycopy(levelColor, 0, brickColor, 0, brickColor.length);
+        System.arraycopy(levelType, 0, brickType, 0, brickType.length);
+        aliveBricks = levelAlive;
+    }
+}
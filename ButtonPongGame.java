@@ -2,79 +2,109 @@ import framework.*;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.Random;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
 
 /**
  * Multiplayer-Pong-Spiel zur Überprüfung der Button-Funktionalität von zwei HID-Gamepads.
  * Schläger werden über die Buttons X und B gesteuert.
+ * <p>
+ * Mit {@code -Darcade.net.peer=host:port} spielen zwei Automaten übers Netz gegeneinander (je ein Spieler mit
+ * X1/B1, siehe {@link RollbackSession}); nach einem Sieg beginnt die nächste Runde dann von selbst.
  */
 public class ButtonPongGame implements ArcadeGame {
 
     // --- Spielkonstanten ---
-    private static final int game_width = 600;
-    private static final int game_height = 400;
-    private static final int PADDLE_HEIGHT = 60;
-    private static final int PADDLE_WIDTH = 10;
-    private static final int BALL_SIZE = 10;
+    private static final int game_width = PongSimulation.WIDTH;
+    private static final int game_height = PongSimulation.HEIGHT;
+    private static final int PADDLE_HEIGHT = PongSimulation.PADDLE_HEIGHT;
+    private static final int PADDLE_WIDTH = PongSimulation.PADDLE_WIDTH;
+    private static final int BALL_SIZE = PongSimulation.BALL_SIZE;
     private static final int GAME_SPEED_MS = 20; // 50 FPS
+    private static final int PADDLE2_X = PongSimulation.PADDLE2_X;
+    private static final int NET_RESTART_TICKS = 150; // Pause nach einem Sieg im Netzwerkspiel (3 s)
+
+    // Aufbau der Szene für Zuschauer (siehe SpectatorViewer)
+    static final int SCENE_BALL_X = 0;
+    static final int SCENE_BALL_Y = 1;
+    static final int SCENE_PADDLE1 = 2;
+    static final int SCENE_PADDLE2 = 3;
+    static final int SCENE_SCORE1 = 4;
+    static final int SCENE_SCORE2 = 5;
+    static final int SCENE_GAME_OVER = 6;
+    private static final int SCENE_VALUES = 7;
 
     // --- Spielzustand ---
-    private int paddle1Y = game_height / 2 - PADDLE_HEIGHT / 2;
-    private int paddle2Y = game_height / 2 - PADDLE_HEIGHT / 2;
-    private final int PADDLE_SPEED = 8;
+    // Deterministische Spiellogik (Festkomma, Zufall aus dem Seed der Sitzung)
+    private final PongSimulation sim = new PongSimulation();
+    private final GameSession session = new GameSession("Pong");
+    private final StateHash stateHash = new StateHash();
+    private boolean isRunning = false;
 
-    private double ballX, ballY;
-    private double ballSpeedX;
-    private double ballSpeedY;
-    private final double INITIAL_BALL_SPEED = 5.0;
+    // Netzwerkspiel, nur mit -Darcade.net.peer (sonst null); zwischen start() und stop() gesetzt
+    private final NetMatch netMatch = new NetMatch();
+    private RollbackSession net;
 
-    private int score1 = 0;
-    private int score2 = 0;
-    private boolean isRunning = false;
+    // Game-Over-Anzeige, läuft in der Spielschleife weiter
+    private final GameOverOverlay overlay = new GameOverOverlay(null, this::initGame);
 
     // --- Framework Komponenten ---
-    private final Gamepad input = new UsbGamepad();
-    private InputWatcher watcher;
-    private Timer gameTimer;
+    private final Gamepad input;
+    private final InputListener inputListener;
+    private InputWatcher watcher; // nur eigenständig, im Launcher verteilt der InputHub
+    // Spielschleife; hält im Leerlauf (Game Over ohne Eingabe) ganz an
+    private final GameMetrics metrics = new GameMetrics("Pong"); // per JMX sichtbar, solange das Spiel läuft
+    private final GameLoop loop = new GameLoop("Pong-Loop", GAME_SPEED_MS, () -> {
+        updateGame();
+        publishScene();
+        requestRepaint(); // erst nach dem Festhalten, damit das Bild den fertigen Tick zeigt
+    }, metrics);
+    // Übertragung an Zuschauer, nur mit -Darcade.spectator.port bzw. .socket
+    private final SpectatorStream spectator = SpectatorStream.shared();
+    // Aufnahme als GIF/PNG, nur mit -Darcade.record=gif|png
+    private final FrameRecorder recorder = FrameRecorder.fromSystemProperties("Pong");
+    private final Scene scene = new Scene("Pong", SCENE_VALUES, 0, 0);
+    // Zustand nach dem letzten fertigen Tick für den EDT, geschützt durch "shown"; beim Rollback ist "sim"
+    // zwischendurch auf einem alten Stand
+    private final Scene shown = new Scene("Pong", SCENE_VALUES, 0, 0);
+    private final IdleController idle = new IdleController("Pong", loop);
     private JFrame frame;
     private JPanel panel;
 
     // --- Konstruktor und Initialisierung ---
 
     public ButtonPongGame() {
+        this(new UsbGamepad());
+    }
+
+    /**
+     * @param input Das Gamepad; im {@link ArcadeLauncher} das gemeinsame aller Spiele.
+     */
+    public ButtonPongGame(Gamepad input) {
+        this.input = input;
         initGame();
-        setupInputWatcher();
+        inputListener = metrics.meter(createInputListener());
     }
 
     private void initGame() {
-        // Starte den Ball in der Mitte und gib ihm eine zufällige Richtung
-        ballX = game_width / 2.0;
-        ballY = game_height / 2.0;
-
-        Random rand = new Random();
-        ballSpeedX = (rand.nextBoolean() ? 1.0 : -1.0) * INITIAL_BALL_SPEED;
-        ballSpeedY = (rand.nextDouble() * 2 - 1) * 3.0;
-
-        paddle1Y = game_height / 2 - PADDLE_HEIGHT / 2;
-        paddle2Y = game_height / 2 - PADDLE_HEIGHT / 2;
-        score1 = 0;
-        score2 = 0;
+        // Starte den Ball in der Mitte mit einer Richtung aus dem Zufall dieser Runde
+        sim.reset(session.newRound());
         isRunning = true;
+        publishScene();
     }
 
     // --- Steuerung über Buttons ---
-    private void setupInputWatcher() {
-        watcher = new InputWatcher(input, new InputListener() {
+    private InputListener createInputListener() {
+        return new InputListener() {
 
-            // Menü-Taste zum Neustart (Gamepad 1)
+            // Menü- oder A-Taste zum Neustart (beide Gamepads)
             @Override public void onButtonMenuPressed() {
-                if (!isRunning) {
-                    initGame();
-                    startTimer();
-                }
+                overlay.confirm();
+            }
+            @Override public void onButtonA1Pressed() {
+                overlay.confirm();
+            }
+            @Override public void onButtonA2Pressed() {
+                overlay.confirm();
             }
 
             // Ignoriere alle Joystick- und die meisten Button-Events
@@ -87,11 +117,9 @@ public class ButtonPongGame implements ArcadeGame {
             @Override public void onJoystick2Left() {}
             @Override public void onJoystick2Right() {}
 
-            @Override public void onButtonA1Pressed() {}
             @Override public void onButtonB1Pressed() {}
             @Override public void onButtonX1Pressed() {}
             @Override public void onButtonY1Pressed() {}
-            @Override public void onButtonA2Pressed() {}
             @Override public void onButtonB2Pressed() {}
             @Override public void onButtonX2Pressed() {}
             @Override public void onButtonY2Pressed() {}
@@ -105,110 +133,149 @@ public class ButtonPongGame implements ArcadeGame {
             @Override public void onButtonB2Released() {}
             @Override public void onButtonX2Released() {}
             @Override public void onButtonY2Released() {}
-        });
+        };
     }
 
     // --- Spiel-Logik ---
 
+    /** Fordert ein neues Bild an (gezählt für die {@link GameMetrics}). */
+    private void requestRepaint() {
+        metrics.frameRequested();
+        panel.repaint();
+    }
+
     private void updateGame() {
-        if (!isRunning) {
+        if (net != null) {
+            updateNetGame();
             return;
         }
-
-        // 1. Schlägerbewegung aktualisieren (Nutzung von isDown() für kontinuierliche Bewegung)
-
-        // Spieler 1 (Links)
-        if (input.buttonX1().isPressed()) { // Button X1 (Gamepad 1) = Hoch
-            paddle1Y -= PADDLE_SPEED;
-        }
-        if (input.buttonB1().isPressed()) { // Button B1 (Gamepad 1) = Runter
-            paddle1Y += PADDLE_SPEED;
-        }
-        // Spieler 2 (Rechts)
-        if (input.buttonX2().isPressed()) { // Button X2 (Gamepad 2) = Hoch
-            paddle2Y -= PADDLE_SPEED;
-        }
-        if (input.buttonB2().isPressed()) { // Button B2 (Gamepad 2) = Runter
-            paddle2Y += PADDLE_SPEED;
+        if (!isRunning) {
+            // Game Over: Anzeige weiter bedienen, bis die nächste Runde startet
+            loop.stage("Game-Over-Anzeige");
+            overlay.update();
+            idle.tick(overlay.isSettled());
+            return;
         }
 
-        // Schläger innerhalb der Grenzen halten
-        paddle1Y = Math.max(0, Math.min(paddle1Y, game_height - PADDLE_HEIGHT));
-        paddle2Y = Math.max(0, Math.min(paddle2Y, game_height - PADDLE_HEIGHT));
+        // Tasten einmal pro Tick lesen (Nutzung von isPressed() für kontinuierliche Bewegung);
+        // die Simulation sieht nur diese Bits, damit gleiche Eingaben gleiche Läufe ergeben
+        int buttons = 0;
+        if (input.buttonX1().isPressed()) buttons |= PongSimulation.P1_UP;   // Button X1 (Gamepad 1) = Hoch
+        if (input.buttonB1().isPressed()) buttons |= PongSimulation.P1_DOWN; // Button B1 (Gamepad 1) = Runter
+        if (input.buttonX2().isPressed()) buttons |= PongSimulation.P2_UP;   // Button X2 (Gamepad 2) = Hoch
+        if (input.buttonB2().isPressed()) buttons |= PongSimulation.P2_DOWN; // Button B2 (Gamepad 2) = Runter
 
-        // 2. Ballbewegung aktualisieren
-        ballX += ballSpeedX;
-        ballY += ballSpeedY;
+        // Schläger, Ball mit kontinuierlicher Kollision (kein Durchtunneln) und Torprüfung
+        loop.stage("Kollision");
+        int result = sim.tick(buttons);
+        session.tick(sim.stateHash(stateHash));
 
-        // 3. Kollisionen mit Wänden (oben/unten)
-        if (ballY <= 0 || ballY >= game_height - BALL_SIZE) {
-            ballSpeedY *= -1; // Richtung umkehren
+        // Spielende
+        if (result == PongSimulation.GAME_OVER) {
+            gameOver();
         }
+    }
 
-        // 4. Kollisionen mit Schlägern (Logik bleibt unverändert)
-
-        // Schläger 1 (Links)
-        if (ballX <= PADDLE_WIDTH &&
-                ballY >= paddle1Y &&
-                ballY <= paddle1Y + PADDLE_HEIGHT) {
-
-            ballSpeedX *= -1.05; // Richtung umkehren und Geschwindigkeit leicht erhöhen
-
-            // Vertikalen Einfluss basierend auf Treffpunkt
-            double relativeIntersectY = (paddle1Y + (PADDLE_HEIGHT / 2.0)) - (ballY + (BALL_SIZE / 2.0));
-            double normalizedRelativeIntersectY = relativeIntersectY / (PADDLE_HEIGHT / 2.0);
-            ballSpeedY = -normalizedRelativeIntersectY * 5.0;
+    /** Hält den Zustand nach dem Tick zum Zeichnen fest und überträgt ihn an die Zuschauer, falls jemand zuschaut. */
+    private void publishScene() {
+        scene.set(SCENE_BALL_X, sim.getBallX());
+        scene.set(SCENE_BALL_Y, sim.getBallY());
+        scene.set(SCENE_PADDLE1, sim.getPaddle1Y());
+        scene.set(SCENE_PADDLE2, sim.getPaddle2Y());
+        scene.set(SCENE_SCORE1, sim.getScore1());
+        scene.set(SCENE_SCORE2, sim.getScore2());
+        boolean over = net != null ? netMatch.isGameOver() : !isRunning;
+        scene.set(SCENE_GAME_OVER, over ? 1 : 0);
+        synchronized (shown) {
+            shown.copyFrom(scene);
         }
+        if (spectator.hasViewers()) spectator.publish(scene);
+    }
 
-        // Schläger 2 (Rechts)
-        if (ballX >= game_width - 2 * PADDLE_WIDTH - BALL_SIZE &&
-                ballY >= paddle2Y &&
-                ballY <= paddle2Y + PADDLE_HEIGHT) {
-
-            ballSpeedX *= -1.05; // Richtung umkehren und Geschwindigkeit leicht erhöhen
+    /**
+     * Ein Tick im Netzwerkspiel: Der eigene Spieler steuert mit X1/B1, der Schläger des Mitspielers kommt übers Netz.
+     * Kein Leerlauf, solange die Verbindung steht, weil der Mitspieler jeden Tick ein Paket erwartet.
+     */
+    private void updateNetGame() {
+        boolean up = input.buttonX1().isPressed();
+        boolean down = input.buttonB1().isPressed();
+        int buttons;
+        if (net.getLocalPlayer() == 1) {
+            buttons = (up ? PongSimulation.P1_UP : 0) | (down ? PongSimulation.P1_DOWN : 0);
+        } else {
+            buttons = (up ? PongSimulation.P2_UP : 0) | (down ? PongSimulation.P2_DOWN : 0);
+        }
+        loop.stage("Rollback");
+        net.tick(buttons);
+    }
 
-            // Vertikalen Einfluss basierend auf Treffpunkt
-            double relativeIntersectY = (paddle2Y + (PADDLE_HEIGHT / 2.0)) - (ballY + (BALL_SIZE / 2.0));
-            double normalizedRelativeIntersectY = relativeIntersectY / (PADDLE_HEIGHT / 2.0);
-            ballSpeedY = -normalizedRelativeIntersectY * 5.0;
+    /**
+     * Das Spiel für {@link RollbackSession}: die gemeinsame {@link PongSimulation} plus die Pause nach einem Sieg.
+     * Schnappschüsse sind vorab angelegte Kopien der Simulation, sodass Sichern und Zurückrollen nichts allokiert.
+     */
+    private class NetMatch implements RollbackSession.Game {
+        private final PongSimulation[] snapshots = new PongSimulation[RollbackSession.SNAPSHOTS];
+        private final int[] snapshotPause = new int[RollbackSession.SNAPSHOTS];
+        private final int[] snapshotRound = new int[RollbackSession.SNAPSHOTS];
+        private long seed;
+        private int round;
+        private volatile int pause; // Ticks bis zur nächsten Runde, > 0 nach einem Sieg
+
+        NetMatch() {
+            for (int i = 0; i < snapshots.length; i++) snapshots[i] = new PongSimulation();
         }
 
-        // 5. Torprüfung (Score)
-        // Wenn Ball den linken Rand passiert, erhält Spieler 2 einen Punkt.
-        if (ballX < 0) {
-            score2++;
-            resetBall(1); // Ball startet in Richtung des Gegners (Rechts, Spieler 2)
+        @Override
+        public void start(long seed) {
+            this.seed = seed;
+            round = 0;
+            pause = 0;
+            sim.reset(seed);
         }
-        // Wenn Ball den rechten Rand passiert, erhält Spieler 1 einen Punkt.
-        else if (ballX > game_width) {
-            score1++;
-            resetBall(-1); // Ball startet in Richtung des Gegners (Links, Spieler 1)
+
+        @Override
+        public void save(int slot) {
+            snapshots[slot].copyFrom(sim);
+            snapshotPause[slot] = pause;
+            snapshotRound[slot] = round;
         }
 
-        // Spielende
-        if (score1 >= 10 || score2 >= 10) {
-            gameOver();
-            return;
+        @Override
+        public void load(int slot) {
+            sim.copyFrom(snapshots[slot]);
+            pause = snapshotPause[slot];
+            round = snapshotRound[slot];
         }
 
-        panel.repaint(); // Neuzeichnen anstoßen
-    }
+        @Override
+        public void advance(int input1, int input2) {
+            if (pause > 0) {
+                if (--pause == 0) sim.reset(seed + ++round);
+                return;
+            }
+            int buttons = (input1 & (PongSimulation.P1_UP | PongSimulation.P1_DOWN))
+                    | (input2 & (PongSimulation.P2_UP | PongSimulation.P2_DOWN));
+            if (sim.tick(buttons) == PongSimulation.GAME_OVER) pause = NET_RESTART_TICKS;
+        }
 
-    // ... (restliche Methoden bleiben unverändert)
+        @Override
+        public long stateHash() {
+            sim.stateHash(stateHash);
+            return stateHash.add(pause).add(round).value();
+        }
 
-    private void resetBall(int direction) {
-        ballX = game_width / 2.0;
-        ballY = game_height / 2.0;
-        ballSpeedX = direction * INITIAL_BALL_SPEED; // Starte in Richtung des Verlierers
-        ballSpeedY = (new Random().nextDouble() * 2 - 1) * 3.0;
+        boolean isGameOver() {
+            return pause > 0;
+        }
     }
 
     private void gameOver() {
+        loop.stage("gameOver");
         isRunning = false;
-        gameTimer.cancel();
+        session.endRound();
+        int score1 = sim.getScore1(), score2 = sim.getScore2();
         String winner = (score1 > score2) ? "Spieler 1" : "Spieler 2";
-        JOptionPane.showMessageDialog(frame, "Spielende! " + winner + " gewinnt!\n" +
-                "Drücken Sie [Menu] zum Neustart.", "Game Over", JOptionPane.INFORMATION_MESSAGE);
+        overlay.showSummary("GAME OVER", winner + " gewinnt!", score1 + " : " + score2);
     }
 
 
@@ -225,40 +292,81 @@ public class ButtonPongGame implements ArcadeGame {
         frame.add(panel);
         frame.setVisible(true);
 
+        IdleGamepad idleInput = new IdleGamepad(input); // legt den Watcher im Leerlauf schlafen
+        watcher = new InputWatcher(idleInput, inputListener);
+        idle.setGamepad(idleInput);
         watcher.startWatching();
-        startTimer();
+        net = RollbackSession.fromSystemProperties(netMatch, session.getSeed());
+        metrics.register();
+        recorder.start();
+        loop.start();
 
         return frame;
     }
 
-    private void startTimer() {
-        gameTimer = new Timer();
-        gameTimer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                updateGame();
-            }
-        }, 0, GAME_SPEED_MS);
+    @Override
+    public JComponent startHosted(ArcadeHost host) {
+        if (panel == null) {
+            panel = new GamePanel();
+            panel.setPreferredSize(new Dimension(game_width, game_height));
+        }
+        initGame();
+        host.getInputHub().setListener(inputListener);
+        idle.setGamepad(host.getIdleGamepad());
+        net = RollbackSession.fromSystemProperties(netMatch, session.getSeed());
+        metrics.register();
+        recorder.start();
+        loop.start();
+        return panel;
+    }
+
+    /**
+     * Lässt eine eigene Simulation einige tausend Schritte mit wechselnden Eingaben laufen, damit Simulation
+     * und Kollisionsauflösung schon übersetzt sind, wenn das Spiel im Launcher angezeigt wird.
+     */
+    @Override
+    public void warmUp() {
+        PongSimulation scratch = new PongSimulation();
+        StateHash scratchHash = new StateHash();
+        scratch.reset(0L);
+        for (int i = 0; i < 20_000; i++) {
+            int buttons = (i / 25 % 2 == 0 ? PongSimulation.P1_UP : PongSimulation.P1_DOWN)
+                    | (i / 40 % 2 == 0 ? PongSimulation.P2_DOWN : PongSimulation.P2_UP);
+            if (scratch.tick(buttons) == PongSimulation.GAME_OVER) scratch.reset(i);
+            scratch.stateHash(scratchHash);
+        }
+    }
+
+    @Override
+    public String getTitle() {
+        return "Button Pong";
     }
 
     @Override
     public void stop() {
-        if (gameTimer != null) {
-            gameTimer.cancel();
+        idle.wake();
+        loop.stop();
+        session.endRound();
+        if (net != null) {
+            net.close();
+            net = null;
         }
+        metrics.unregister();
+        recorder.close();
         if (watcher != null) {
             watcher.stopWatching();
         }
     }
 
     @Override
-    public ArrayList<HighScore> getHighScores() {
-        return new ArrayList<>(); // Kein Highscore-System in Pong
+    public List<HighScore> getHighScores() {
+        return List.of(); // Kein Highscore-System in Pong
     }
 
     // --- Panel für die Spielanzeige ---
 
     private class GamePanel extends JPanel {
+        private final Scene painted = new Scene("Pong", SCENE_VALUES, 0, 0); // nur im EDT
 
         public GamePanel() {
             setFocusable(true);
@@ -267,36 +375,71 @@ public class ButtonPongGame implements ArcadeGame {
 
         @Override
         protected void paintComponent(Graphics g) {
+            ArcadeEvents.PaintEvent paint = metrics.beginPaint();
+            recorder.paint(g, getWidth(), getHeight(), this::paintGame);
+            metrics.endPaint(paint);
+        }
+
+        /**
+         * Zeichnet das Spiel, auf den Bildschirm oder in ein Bild der Aufnahme. Gezeichnet wird der Stand nach dem
+         * letzten fertigen Tick ({@link #publishScene()}), nie die Simulation selbst, die beim Rollback mitten im
+         * Nachrechnen stecken kann.
+         */
+        private void paintGame(Graphics g) {
             super.paintComponent(g);
+            synchronized (shown) {
+                painted.copyFrom(shown);
+            }
+            int score1 = painted.get(SCENE_SCORE1), score2 = painted.get(SCENE_SCORE2);
 
             // Mittellinie
             g.setColor(Color.WHITE);
             g.drawLine(game_width / 2, 0, game_width / 2, game_height);
 
             // Ball zeichnen
-            g.fillOval((int) ballX, (int) ballY, BALL_SIZE, BALL_SIZE);
+            g.fillOval(painted.get(SCENE_BALL_X), painted.get(SCENE_BALL_Y), BALL_SIZE, BALL_SIZE);
 
             // Schläger 1 (Links)
-            g.fillRect(0, paddle1Y, PADDLE_WIDTH, PADDLE_HEIGHT);
+            g.fillRect(0, painted.get(SCENE_PADDLE1), PADDLE_WIDTH, PADDLE_HEIGHT);
 
             // Schläger 2 (Rechts)
-            g.fillRect(game_width - 3*PADDLE_WIDTH, paddle2Y, PADDLE_WIDTH, PADDLE_HEIGHT);
+            g.fillRect(PADDLE2_X, painted.get(SCENE_PADDLE2), PADDLE_WIDTH, PADDLE_HEIGHT);
 
             // Score anzeigen
             g.setFont(new Font("Monospaced", Font.BOLD, 30));
             g.drawString(String.valueOf(score1), game_height / 2 - 50, 30);
             g.drawString(String.valueOf(score2), game_width / 2 + 30, 30);
 
-            if (!isRunning) {
-                g.setColor(Color.RED);
-                g.setFont(new Font("Monospaced", Font.BOLD, 40));
-                g.drawString("GAME OVER", game_width / 2 - 120, game_height / 2);
+            RollbackSession net = ButtonPongGame.this.net;
+            if (net != null) {
+                paintNetStatus(g, net);
+            } else {
+                overlay.render(g, getWidth(), getHeight());
+            }
+        }
+
+        private void paintNetStatus(Graphics g, RollbackSession net) {
+            g.setFont(new Font("Monospaced", Font.PLAIN, 12));
+            g.drawString("Spieler " + net.getLocalPlayer() + " | Ping " + Math.max(0, net.getPingMillis())
+                    + " ms | Rollbacks " + net.getRollbacks(), 10, game_height - 10);
+
+            String message = null;
+            if (!net.isStarted()) {
+                message = "Warte auf Mitspieler ...";
+            } else if (painted.get(SCENE_GAME_OVER) != 0) {
+                message = (painted.get(SCENE_SCORE1) > painted.get(SCENE_SCORE2) ? "Spieler 1" : "Spieler 2") + " gewinnt!";
+            }
+            if (message != null) {
+                g.setFont(new Font("Monospaced", Font.BOLD, 24));
+                FontMetrics fm = g.getFontMetrics();
+                g.drawString(message, (game_width - fm.stringWidth(message)) / 2, game_height / 2 - 30);
             }
         }
     }
 
     // --- Main Methode zum Starten ---
     public static void main(String[] args) {
-        new ButtonPongGame().start();
+        // Fenster, Gamepad und Highscores parallel vorbereiten (siehe StartupPipeline)
+        StartupPipeline.launch(ButtonPongGame.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,269 @@
+import framework.Collision;
+import framework.FixedPoint;
+import framework.StateHash;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministische Spiellogik von {@link ButtonPongGame}: Ball in Festkomma ({@link FixedPoint}, Q16.16),
+ * Schläger in ganzen Pixeln, Zufall nur aus dem Seed der Runde.
+ * <p>
+ * Gleicher Seed und gleiche Eingaben pro Tick ergeben auf jedem Rechner bitgenau denselben Verlauf (für
+ * Wiederholungen und Netzwerkspiel); {@link #stateHash(StateHash)} macht das pro Tick prüfbar. Die Kollision
+ * ist dieselbe kontinuierliche Auflösung wie {@link Collision#resolve}, nur mit ganzzahligen Zeiten.
+ * <p>
+ * Der gesamte Zustand besteht aus einfachen Feldern, sodass ihn {@link #copyFrom(PongSimulation)} vollständig
+ * kopiert. Nicht threadsicher: {@link #tick(int)} läuft in der Spielschleife, gezeichnet wird aus den Gettern.
+ */
+public final class PongSimulation {
+
+    // --- Spielfeld ---
+    static final int WIDTH = 600;
+    static final int HEIGHT = 400;
+    static final int PADDLE_HEIGHT = 60;
+    static final int PADDLE_WIDTH = 10;
+    static final int BALL_SIZE = 10;
+    static final int PADDLE2_X = WIDTH - 3 * PADDLE_WIDTH;
+    static final int PADDLE_SPEED = 8;
+    static final int WINNING_SCORE = 10;
+
+    // --- Eingabe-Bits für tick() ---
+    static final int P1_UP = 1;
+    static final int P1_DOWN = 1 << 1;
+    static final int P2_UP = 1 << 2;
+    static final int P2_DOWN = 1 << 3;
+
+    // --- Ergebnis von tick() ---
+    static final int PLAYING = 0;
+    static final int POINT = 1;
+    static final int GAME_OVER = 2;
+
+    private static final int INITIAL_BALL_SPEED = FixedPoint.of(5);
+    private static final int MAX_BALL_SPEED = FixedPoint.of(24); // Obergrenze für die Beschleunigung bei Schlägertreffern
+    private static final int SPEED_UP = FixedPoint.of(105, 100);
+    private static final int MAX_SERVE_VY = FixedPoint.of(3);
+    private static final int BALL = FixedPoint.of(BALL_SIZE);
+
+    // Kennungen der Hindernisse für die Kollisionsauflösung
+    private static final int TARGET_WALL = 0;
+    private static final int TARGET_PADDLE1 = 1;
+    private static final int TARGET_PADDLE2 = 2;
+
+    // --- Zustand ---
+    private int ballX, ballY, ballVX, ballVY; // Festkomma
+    private int paddle1Y, paddle2Y;
+    private int score1, score2;
+    private long seed;
+    private int serves;
+    private long tick;
+
+    // Treffer des laufenden Swept-Tests (kein Zustand, nur Zwischenergebnis)
+    private long hitTime;
+    private int hitNormalX, hitNormalY, hitTarget;
+
+    /**
+     * Beginnt eine neue Runde.
+     *
+     * @param rng Zufallsgenerator der Runde (siehe {@link framework.GameSession#newRound()}); es wird nur der Seed
+     *            daraus gezogen, damit der Zustand kopierbar bleibt.
+     */
+    public void reset(SplittableRandom rng) {
+        reset(rng.nextLong());
+    }
+
+    /** Beginnt eine neue Runde mit festem Seed. */
+    public void reset(long seed) {
+        this.seed = seed;
+        serves = 0;
+        tick = 0;
+        paddle1Y = HEIGHT / 2 - PADDLE_HEIGHT / 2;
+        paddle2Y = HEIGHT / 2 - PADDLE_HEIGHT / 2;
+        score1 = 0;
+        score2 = 0;
+        serve(0);
+    }
+
+    /** Übernimmt den vollständigen Zustand einer anderen Simulation. */
+    public void copyFrom(PongSimulation other) {
+        ballX = other.ballX;
+        ballY = other.ballY;
+        ballVX = other.ballVX;
+        ballVY = other.ballVY;
+        paddle1Y = other.paddle1Y;
+        paddle2Y = other.paddle2Y;
+        score1 = other.score1;
+        score2 = other.score2;
+        seed = other.seed;
+        serves = other.serves;
+        tick = other.tick;
+    }
+
+    /**
+     * Ball in die Mitte. Jeder Aufschlag zieht seinen Zufall aus Seed und Nummer des Aufschlags.
+     *
+     * @param direction {@code 1} nach rechts, {@code -1} nach links, {@code 0} zufällig.
+     */
+    private void serve(int direction) {
+        SplittableRandom rng = new SplittableRandom(seed + serves++);
+        if (direction == 0) direction = rng.nextBoolean() ? 1 : -1;
+        ballX = FixedPoint.of(WIDTH / 2);
+        ballY = FixedPoint.of(HEIGHT / 2);
+        ballVX = direction * INITIAL_BALL_SPEED;
+        ballVY = rng.nextInt(-MAX_SERVE_VY, MAX_SERVE_VY + 1);
+    }
+
+    /**
+     * Ein Schritt der Simulation.
+     *
+     * @param input Gedrückte Tasten, Kombination aus {@link #P1_UP}, {@link #P1_DOWN}, {@link #P2_UP}, {@link #P2_DOWN}.
+     * @return {@link #PLAYING}, {@link #POINT} oder {@link #GAME_OVER}.
+     */
+    public int tick(int input) {
+        tick++;
+
+        // 1. Schläger
+        if ((input & P1_UP) != 0) paddle1Y -= PADDLE_SPEED;
+        if ((input & P1_DOWN) != 0) paddle1Y += PADDLE_SPEED;
+        if ((input & P2_UP) != 0) paddle2Y -= PADDLE_SPEED;
+        if ((input & P2_DOWN) != 0) paddle2Y += PADDLE_SPEED;
+        paddle1Y = Math.max(0, Math.min(paddle1Y, HEIGHT - PADDLE_HEIGHT));
+        paddle2Y = Math.max(0, Math.min(paddle2Y, HEIGHT - PADDLE_HEIGHT));
+
+        // 2. Ball, Kollisionen mit Wänden und Schlägern kontinuierlich auflösen
+        moveBall();
+
+        // 3. Torprüfung: Der Ball startet in Richtung dessen, der den Punkt bekommen hat
+        if (ballX < 0) {
+            score2++;
+            serve(1);
+        } else if (ballX > FixedPoint.of(WIDTH)) {
+            score1++;
+            serve(-1);
+        } else {
+            return PLAYING;
+        }
+        return score1 >= WINNING_SCORE || score2 >= WINNING_SCORE ? GAME_OVER : POINT;
+    }
+
+    // ---------- Kollision (wie Collision.resolve, Zeiten in Q16.16 als long) ----------
+
+    private void moveBall() {
+        long remaining = FixedPoint.ONE;
+        int hits = 0;
+        while (remaining > 0) {
+            int dx = (int) (ballVX * remaining / FixedPoint.ONE);
+            int dy = (int) (ballVY * remaining / FixedPoint.ONE);
+
+            hitTime = FixedPoint.ONE;
+            hitNormalX = 0;
+            hitNormalY = 0;
+            hitTarget = -1;
+            if (hits < Collision.DEFAULT_MAX_ITERATIONS) sweep(dx, dy);
+            if (hitNormalX == 0 && hitNormalY == 0) {
+                ballX += dx;
+                ballY += dy;
+                return;
+            }
+
+            // Abschneiden statt abrunden, damit der Ball nie in das Hindernis hinein geschoben wird
+            ballX += (int) (dx * hitTime / FixedPoint.ONE);
+            ballY += (int) (dy * hitTime / FixedPoint.ONE);
+            remaining = remaining * (FixedPoint.ONE - hitTime) / FixedPoint.ONE;
+            hits++;
+            onHit();
+        }
+    }
+
+    private void sweep(int dx, int dy) {
+        int w = FixedPoint.of(WIDTH), h = FixedPoint.of(HEIGHT);
+        sweepBox(dx, dy, -w, -h, 3 * (long) w, h, TARGET_WALL);
+        sweepBox(dx, dy, -w, h, 3 * (long) w, h, TARGET_WALL);
+        sweepBox(dx, dy, 0, FixedPoint.of(paddle1Y), FixedPoint.of(PADDLE_WIDTH), FixedPoint.of(PADDLE_HEIGHT), TARGET_PADDLE1);
+        sweepBox(dx, dy, FixedPoint.of(PADDLE2_X), FixedPoint.of(paddle2Y), FixedPoint.of(PADDLE_WIDTH), FixedPoint.of(PADDLE_HEIGHT), TARGET_PADDLE2);
+    }
+
+    /** {@link Collision#sweepBox} für den Ball, ganzzahlig. */
+    private void sweepBox(int dx, int dy, long bx, long by, long bw, long bh, int target) {
+        long minX = bx - BALL, maxX = bx + bw;
+        long minY = by - BALL, maxY = by + bh;
+
+        long enterX, exitX, enterY, exitY;
+        if (dx == 0) {
+            if (ballX <= minX || ballX >= maxX) return;
+            enterX = Long.MIN_VALUE;
+            exitX = Long.MAX_VALUE;
+        } else {
+            long t1 = Math.floorDiv((minX - ballX) << FixedPoint.SHIFT, dx);
+            long t2 = Math.floorDiv((maxX - ballX) << FixedPoint.SHIFT, dx);
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+        if (dy == 0) {
+            if (ballY <= minY || ballY >= maxY) return;
+            enterY = Long.MIN_VALUE;
+            exitY = Long.MAX_VALUE;
+        } else {
+            long t1 = Math.floorDiv((minY - ballY) << FixedPoint.SHIFT, dy);
+            long t2 = Math.floorDiv((maxY - ballY) << FixedPoint.SHIFT, dy);
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+
+        long enter = Math.max(enterX, enterY);
+        long exit = Math.min(exitX, exitY);
+        if (enter >= exit || enter < 0 || enter >= hitTime) return;
+
+        hitTime = enter;
+        hitTarget = target;
+        if (enterX > enterY) {
+            hitNormalX = dx > 0 ? -1 : 1;
+            hitNormalY = 0;
+        } else {
+            hitNormalX = 0;
+            hitNormalY = dy > 0 ? -1 : 1;
+        }
+    }
+
+    private void onHit() {
+        if (hitTarget == TARGET_WALL || hitNormalX == 0) {
+            // Wand oder Ober-/Unterkante eines Schlägers: spiegeln, falls er sich nicht schon entfernt
+            if (hitNormalX != 0 && ballVX * hitNormalX < 0) ballVX = -ballVX;
+            if (hitNormalY != 0 && ballVY * hitNormalY < 0) ballVY = -ballVY;
+            return;
+        }
+
+        int paddleY = hitTarget == TARGET_PADDLE1 ? paddle1Y : paddle2Y;
+
+        // Richtung umkehren und Geschwindigkeit leicht erhöhen (begrenzt)
+        int speedX = Math.min(FixedPoint.mul(Math.abs(ballVX), SPEED_UP), MAX_BALL_SPEED);
+        ballVX = hitNormalX * speedX;
+
+        // Vertikalen Einfluss basierend auf Treffpunkt (-5..5 Pixel pro Tick)
+        int relativeIntersectY = FixedPoint.of(paddleY + PADDLE_HEIGHT / 2) - (ballY + BALL / 2);
+        ballVY = (int) (-5L * relativeIntersectY / (PADDLE_HEIGHT / 2));
+    }
+
+    // ---------- Zustand ----------
+
+    /**
+     * @param hash Wird zurückgesetzt und wiederverwendet.
+     * @return Hash des vollständigen Zustands.
+     */
+    public long stateHash(StateHash hash) {
+        return hash.reset()
+                .add(tick).add(ballX).add(ballY).add(ballVX).add(ballVY)
+                .add(paddle1Y).add(paddle2Y).add(score1).add(score2)
+                .add(seed).add(serves)
+                .value();
+    }
+
+    /** Linke Kante des Balls in ganzen Pixeln. */
+    public int getBallX() { return FixedPoint.toInt(ballX); }
+    /** Obere Kante des Balls in ganzen Pixeln. */
+    public int getBallY() { return FixedPoint.toInt(ballY); }
+    public int getPaddle1Y() { return paddle1Y; }
+    public int getPaddle2Y() { return paddle2Y; }
+    public int getScore1() { return score1; }
+    public int getScore2() { return score2; }
+    public long getTick() { return tick; }
+}
@@ -0,0 +1,132 @@
+import framework.ReplayPlayer;
+import framework.Scene;
+
+import java.awt.*;
+
+/**
+ * Zeichnet eine {@link Scene} je nach Spiel wie das Original (ohne Partikel und Overlays). Gemeinsam genutzt vom
+ * {@link SpectatorViewer} und der Sofort-Wiederholung in den Spielen.
+ */
+final class ScenePainter {
+
+    private ScenePainter() {}
+
+    /** @return Größe des Spielfelds der Szene in Pixeln. */
+    static Dimension preferredSize(Scene s) {
+        switch (s.getGame()) {
+            case "Pong": return new Dimension(PongSimulation.WIDTH, PongSimulation.HEIGHT);
+            case "Breakout": return new Dimension(BreakoutSimulation.WIDTH, BreakoutSimulation.HEIGHT);
+            case "Snake": return new Dimension(s.getGridWidth() * SnakeGame.SCENE_TILE_SIZE,
+                    s.getGridHeight() * SnakeGame.SCENE_TILE_SIZE);
+            default: return new Dimension(600, 400);
+        }
+    }
+
+    /**
+     * Zeichnet das aktuelle Bild einer Sofort-Wiederholung samt Hinweis und Fortschrittsbalken über das ganze
+     * Spielfeld.
+     */
+    static void paintReplay(Graphics g, ReplayPlayer replay, int width, int height) {
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+        replay.paint(scene -> paint(g, scene));
+
+        g.setColor(Color.ORANGE);
+        g.setFont(new Font("Arial", Font.BOLD, 16));
+        String text = "WIEDERHOLUNG - Links/Rechts spulen, Y beendet";
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(text, (width - fm.stringWidth(text)) / 2, height - 20);
+        g.fillRect(0, height - 6, (int) (width * replay.getProgress()), 6);
+    }
+
+    static void paint(Graphics g, Scene s) {
+        switch (s.getGame()) {
+            case "Pong" -> paintPong(g, s);
+            case "Snake" -> paintSnake(g, s);
+            case "Breakout" -> paintBreakout(g, s);
+            default -> {}
+        }
+    }
+
+    private static void paintPong(Graphics g, Scene s) {
+        int w = PongSimulation.WIDTH, h = PongSimulation.HEIGHT;
+        g.setColor(Color.WHITE);
+        g.drawLine(w / 2, 0, w / 2, h);
+        g.fillOval(s.get(ButtonPongGame.SCENE_BALL_X), s.get(ButtonPongGame.SCENE_BALL_Y),
+                PongSimulation.BALL_SIZE, PongSimulation.BALL_SIZE);
+        g.fillRect(0, s.get(ButtonPongGame.SCENE_PADDLE1), PongSimulation.PADDLE_WIDTH, PongSimulation.PADDLE_HEIGHT);
+        g.fillRect(PongSimulation.PADDLE2_X, s.get(ButtonPongGame.SCENE_PADDLE2), PongSimulation.PADDLE_WIDTH, PongSimulation.PADDLE_HEIGHT);
+        g.setFont(new Font("Monospaced", Font.BOLD, 30));
+        g.drawString(String.valueOf(s.get(ButtonPongGame.SCENE_SCORE1)), h / 2 - 50, 30);
+        g.drawString(String.valueOf(s.get(ButtonPongGame.SCENE_SCORE2)), w / 2 + 30, 30);
+        if (s.get(ButtonPongGame.SCENE_GAME_OVER) != 0) paintBanner(g, w, h, "GAME OVER");
+    }
+
+    private static void paintSnake(Graphics g, Scene s) {
+        int tile = SnakeGame.SCENE_TILE_SIZE;
+        for (int y = 0; y < s.getGridHeight(); y++) {
+            for (int x = 0; x < s.getGridWidth(); x++) {
+                switch (s.getCell(x, y)) {
+                    case SnakeGame.CELL_BODY, SnakeGame.CELL_HEAD -> {
+                        g.setColor(Color.GREEN);
+                        g.fillRect(x * tile, y * tile, tile, tile);
+                    }
+                    case SnakeGame.CELL_FOOD -> {
+                        g.setColor(Color.RED);
+                        g.fillOval(x * tile, y * tile, tile, tile);
+                    }
+                    default -> {}
+                }
+            }
+        }
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 20));
+        g.drawString("Score: " + s.get(SnakeGame.SCENE_SCORE), 10, 20);
+        if (s.get(SnakeGame.SCENE_GAME_OVER) != 0) {
+            paintBanner(g, s.getGridWidth() * tile, s.getGridHeight() * tile, "GAME OVER");
+        }
+    }
+
+    private static void paintBreakout(Graphics g, Scene s) {
+        int cols = s.getGridWidth();
+        int w = cols == 0 ? 0 : BreakoutSimulation.WIDTH / cols;
+        int h = BreakoutSimulation.BRICK_HEIGHT;
+        for (int row = 0; row < s.getGridHeight(); row++) {
+            for (int col = 0; col < cols; col++) {
+                int cell = s.getCell(col, row);
+                if (cell == 0) continue;
+                int x = col * w, y = BreakoutSimulation.BRICK_OFFSET_Y + row * h;
+                g.setColor(BreakoutGame.styleColor(cell - 1));
+                g.fillRect(x, y, w, h);
+                g.setColor(Color.DARK_GRAY);
+                g.drawRect(x, y, w, h);
+            }
+        }
+
+        g.setColor(Color.WHITE);
+        g.fillRect(s.get(BreakoutGame.SCENE_PADDLE_X), BreakoutSimulation.PADDLE_Y,
+                BreakoutSimulation.PADDLE_WIDTH, BreakoutSimulation.PADDLE_HEIGHT);
+        g.setColor(Color.YELLOW);
+        for (int i = BreakoutGame.SCENE_BALLS; i + 1 < s.getValueCount(); i += 2) {
+            g.fillOval(s.get(i), s.get(i + 1), BreakoutSimulation.BALL_SIZE, BreakoutSimulation.BALL_SIZE);
+        }
+
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 20));
+        g.drawString("Score: " + s.get(BreakoutGame.SCENE_SCORE), 10, 20);
+        g.drawString("Leben: " + s.get(BreakoutGame.SCENE_LIVES), BreakoutSimulation.WIDTH - 100, 20);
+        int level = s.get(BreakoutGame.SCENE_LEVEL);
+        if (level > 0) g.drawString("Level " + level, BreakoutSimulation.WIDTH / 2 - 35, 20);
+        int state = s.get(BreakoutGame.SCENE_STATE);
+        if (state != 0) {
+            paintBanner(g, BreakoutSimulation.WIDTH, BreakoutSimulation.HEIGHT, state == 1 ? "PAUSE" : "GAME OVER");
+        }
+    }
+
+    static void paintBanner(Graphics g, int width, int height, String text) {
+        g.setColor(Color.WHITE);
+        g.setFont(new Font("Arial", Font.BOLD, 40));
+        FontMetrics fm = g.getFontMetrics();
+        g.drawString(text, (width - fm.stringWidth(text)) / 2, height / 2);
+    }
+}
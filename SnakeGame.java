@@ -2,13 +2,14 @@ import framework.*;
 import javax.swing.*;
 import java.awt.*;
 import java.util.*;
-import java.io.*;
-import java.util.Timer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Snake-Spiel für das Arcade-Framework.
  * Steuerung: Joystick 1 (Up/Down/Left/Right)
- * Neustart: Button MENU
+ * Neustart: beliebige Taste nach dem Game Over
+ * Wiederholung der letzten Sekunden: Y1 nach dem Game Over (Joystick links/rechts spult)
  */
 public class SnakeGame implements ArcadeGame {
 
@@ -16,6 +17,15 @@ public class SnakeGame implements ArcadeGame {
     private static final int GRID_WIDTH = 30;
     private static final int GRID_HEIGHT = 25;
     private static final int GAME_SPEED_MS = 120;
+    private static final int REPLAY_SECONDS = 10;
+
+    // Aufbau der Szene für Zuschauer (siehe SpectatorViewer): Zellen des Spielfelds, dazu Score und Game Over
+    static final int SCENE_TILE_SIZE = TILE_SIZE;
+    static final int SCENE_SCORE = 0;
+    static final int SCENE_GAME_OVER = 1;
+    static final int CELL_BODY = 1;
+    static final int CELL_HEAD = 2;
+    static final int CELL_FOOD = 3;
 
     // Spielfeld
     private LinkedList<Point> snake = new LinkedList<>();
@@ -23,25 +33,72 @@ public class SnakeGame implements ArcadeGame {
 
     // Richtung
     private enum Dir {UP, DOWN, LEFT, RIGHT}
-    private Dir direction = Dir.RIGHT;
+    private volatile Dir direction = Dir.RIGHT; // geschrieben nur im Tick, gelesen auch von der Eingabe
+    // Erste gültige Richtungsänderung seit dem letzten Tick; wird erst im Tick übernommen, damit die Simulation
+    // nur Eingaben pro Tick sieht (gleiche Eingaben, gleicher Lauf)
+    private final AtomicReference<Dir> requestedTurn = new AtomicReference<>();
 
     private boolean isRunning = false;
-    private boolean allowTurn = true;
+
+    // Zufall und Zustands-Hash der Runde (wiederholbar mit -Darcade.seed)
+    private final GameSession session = new GameSession("Snake");
+    private final StateHash stateHash = new StateHash();
+    private SplittableRandom rng;
+
+    // Visuelles Feedback beim Essen
+    private final ParticleSystem particles = new ParticleSystem(512, 64);
 
     // Framework Komponenten
-    private final Gamepad input = new UsbGamepad();
-    private InputWatcher watcher;
-    private Timer timer;
+    private final Gamepad input;
+    private final InputListener inputListener;
+    private InputWatcher watcher; // nur eigenständig, im Launcher verteilt der InputHub
+    // Spielschleife; hält im Leerlauf (Game Over ohne Eingabe) ganz an
+    private final GameMetrics metrics = new GameMetrics("Snake"); // per JMX sichtbar, solange das Spiel läuft
+    private final GameLoop loop = new GameLoop("Snake-Loop", GAME_SPEED_MS, () -> {
+        updateGame();
+        publishScene();
+    }, metrics);
+    // Übertragung an Zuschauer, nur mit -Darcade.spectator.port bzw. .socket
+    private final SpectatorStream spectator = SpectatorStream.shared();
+    // Aufnahme als GIF/PNG, nur mit -Darcade.record=gif|png
+    private final FrameRecorder recorder = FrameRecorder.fromSystemProperties("Snake");
+    private final Scene scene = new Scene("Snake", 2, GRID_WIDTH, GRID_HEIGHT);
+    // Sofort-Wiederholung nach dem Game Over; jeder Spiel-Tick wird als Szene aufgenommen
+    private final ReplayPlayer replay = new ReplayPlayer(REPLAY_SECONDS, GAME_SPEED_MS);
+    private boolean stepped = false; // nur in der Spielschleife
+    private final IdleController idle = new IdleController("Snake", loop);
     private JFrame frame;
     private JPanel panel;
 
     // Highscores
-    private final String HIGHSCORE_FILE = "snake_highscores.txt";
-    private ArrayList<HighScore> highscores = new ArrayList<>();
+    private final String HIGHSCORE_FILE = "snake_highscores.bin";
+    private final String LEGACY_HIGHSCORE_FILE = "snake_highscores.txt"; // altes CSV-Format, wird beim Laden migriert
+    private final HighScoreStore highscoreStore = new HighScoreStore(HIGHSCORE_FILE, LEGACY_HIGHSCORE_FILE);
+    private static final int HIGHSCORE_PLACES = 10;
+    private final Leaderboard highscores = new Leaderboard(HIGHSCORE_PLACES);
+    private final ScoreHistory history = new ScoreHistory(); // alle Runden, für Platzierung/Perzentil
+    // Abgleich mit anderen Automaten, nur wenn -Darcade.leaderboard=host:port gesetzt ist (sonst null)
+    private final LeaderboardSync sync = LeaderboardSync.fromSystemProperties("snake", "snake_sync.queue", this::onRemoteScore);
+
+    // Game Over und Initialen-Eingabe, läuft in der Spielschleife weiter
+    private final GameOverOverlay overlay = new GameOverOverlay(this::onNameEntered, this::initGame);
+    private int lastScore = 0;
 
     public SnakeGame() {
-        loadHighScores();
-        setupInputWatcher();
+        this(new UsbGamepad());
+    }
+
+    /**
+     * @param input Das Gamepad; im {@link ArcadeLauncher} das gemeinsame aller Spiele.
+     */
+    public SnakeGame(Gamepad input) {
+        this.input = input;
+        for (HighScore hs : highscoreStore.load()) {
+            highscores.offer(hs);
+            history.record(hs);
+        }
+        inputListener = metrics.meter(createInputListener());
+        metrics.setHighScoreStore(highscoreStore);
         initGame();
     }
 
@@ -52,56 +109,82 @@ public class SnakeGame implements ArcadeGame {
         snake.add(new Point(3, 5));
 
         direction = Dir.RIGHT;
+        requestedTurn.set(null);
+        rng = session.newRound();
+        replay.clear();
+        particles.clear();
         spawnFood();
         isRunning = true;
     }
 
-    private void spawnFood() {
-        Random rand = new Random();
-        while (true) {
-            int x = rand.nextInt(GRID_WIDTH);
-            int y = rand.nextInt(GRID_HEIGHT);
-
-            Point p = new Point(x, y);
+    /**
+     * Legt das Essen auf ein freies Feld. Erst einige Zufallsversuche; ist das Feld fast voll, wird unter
+     * den freien Feldern gewählt, damit die Suche nicht endlos läuft.
+     *
+     * @return {@code false}, wenn kein Feld mehr frei ist.
+     */
+    private boolean spawnFood() {
+        loop.stage("spawnFood");
+        for (int attempt = 0; attempt < 64; attempt++) {
+            Point p = new Point(rng.nextInt(GRID_WIDTH), rng.nextInt(GRID_HEIGHT));
             if (!snake.contains(p)) {
                 food = p;
-                return;
+                return true;
+            }
+        }
+
+        Set<Point> occupied = new HashSet<>(snake);
+        List<Point> free = new ArrayList<>();
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                Point p = new Point(x, y);
+                if (!occupied.contains(p)) free.add(p);
             }
         }
+        food = free.isEmpty() ? null : free.get(rng.nextInt(free.size()));
+        return food != null;
     }
 
     // ---------- Input ----------
-    private void setupInputWatcher() {
-        watcher = new InputWatcher(input, new InputListener() {
+    private InputListener createInputListener() {
+        return new InputListener() {
 
             @Override public void onJoystick1Up() {
-                if (allowTurn && direction != Dir.DOWN) direction = Dir.UP;
-                allowTurn = false;
-
-                if (!isRunning) {
-                    initGame();
-                    startTimer();
-                    panel.repaint();
-                }
+                if (replay.isPlaying()) return; // die Wiederholung kennt nur vor/zurück
+                if (overlay.isVisible()) { overlay.up(); return; }
+                requestTurn(Dir.UP);
             }
 
             @Override public void onJoystick1Down() {
-                if (allowTurn && direction != Dir.UP) direction = Dir.DOWN;
-                allowTurn = false;
+                if (replay.isPlaying()) return;
+                if (overlay.isVisible()) { overlay.down(); return; }
+                requestTurn(Dir.DOWN);
             }
 
             @Override public void onJoystick1Left() {
-                if (allowTurn && direction != Dir.RIGHT) direction = Dir.LEFT;
-                allowTurn = false;
+                if (replay.isPlaying()) { replay.scrub(-1); return; }
+                if (overlay.isVisible()) { overlay.left(); return; }
+                requestTurn(Dir.LEFT);
             }
 
             @Override public void onJoystick1Right() {
-                if (allowTurn && direction != Dir.LEFT) direction = Dir.RIGHT;
-                allowTurn = false;
+                if (replay.isPlaying()) { replay.scrub(1); return; }
+                if (overlay.isVisible()) { overlay.right(); return; }
+                requestTurn(Dir.RIGHT);
             }
 
             @Override public void onButtonMenuPressed() {
+                if (replay.isPlaying()) { replay.toggle(); return; }
+                overlay.confirm();
+            }
+
+            @Override public void onButtonA1Pressed() {
+                if (replay.isPlaying()) { replay.toggle(); return; }
+                overlay.confirm();
+            }
 
+            @Override public void onButtonY1Pressed() {
+                if (!isRunning) replay.toggle();
             }
 
             // Rest ignorieren
@@ -109,10 +192,8 @@ public class SnakeGame implements ArcadeGame {
             @Override public void onJoystick2Down() {}
             @Override public void onJoystick2Left() {}
             @Override public void onJoystick2Right() {}
-            @Override public void onButtonA1Pressed() {}
             @Override public void onButtonB1Pressed() {}
             @Override public void onButtonX1Pressed() {}
-            @Override public void onButtonY1Pressed() {}
             @Override public void onButtonA2Pressed() {}
             @Override public void onButtonB2Pressed() {}
             @Override public void onButtonX2Pressed() {}
@@ -126,16 +207,55 @@ public class SnakeGame implements ArcadeGame {
             @Override public void onButtonB2Released() {}
             @Override public void onButtonX2Released() {}
             @Override public void onButtonY2Released() {}
-        });
+        };
+    }
+
+    /**
+     * Merkt eine Richtungsänderung für den nächsten Schritt vor. Nur Abbiegen zählt: Die aktuelle Richtung und
+     * die Umkehr werden gar nicht erst vorgemerkt, sonst würden sie eine spätere gültige Eingabe im selben Tick
+     * verdrängen und dann im Tick verworfen.
+     */
+    private void requestTurn(Dir turn) {
+        Dir current = direction;
+        if (turn != current && turn != opposite(current)) requestedTurn.compareAndSet(null, turn);
     }
 
     // ---------- Game Loop ----------
+    /** Fordert ein neues Bild an (gezählt für die {@link GameMetrics}). */
+    private void requestRepaint() {
+        metrics.frameRequested();
+        panel.repaint();
+    }
+
     private void updateGame() {
-        if (!isRunning) return;
+        if (!isRunning) {
+            // Game Over: Anzeige weiter bedienen, bis die nächste Runde startet
+            loop.stage("Game-Over-Anzeige");
+            boolean replaying = replay.update();
+            overlay.update();
+            particles.update();
+            requestRepaint();
+            idle.tick(!replaying && overlay.isSettled() && particles.size() == 0);
+            return;
+        }
 
+        step();
+        stepped = true;
+        session.tick(stateHash());
+        if (!isRunning) session.endRound();
+    }
+
+    /** Ein Schritt der Schlange. */
+    private void step() {
         Point head = snake.getFirst();
         Point newHead = new Point(head);
 
+        particles.update();
+
+        // Umkehren in die eigene Richtung ist nicht erlaubt
+        Dir turn = requestedTurn.getAndSet(null);
+        if (turn != null && turn != opposite(direction)) direction = turn;
+
         switch (direction) {
             case UP -> newHead.y--;
             case DOWN -> newHead.y++;
@@ -143,8 +263,6 @@ public class SnakeGame implements ArcadeGame {
             case RIGHT -> newHead.x++;
         }
 
-        allowTurn = true;
-
         // Kollision Wand → Game Over
         if (newHead.x < 0 || newHead.x >= GRID_WIDTH ||
                 newHead.y < 0 || newHead.y >= GRID_HEIGHT) {
@@ -162,65 +280,99 @@ public class SnakeGame implements ArcadeGame {
 
         // Essen?
         if (newHead.equals(food)) {
-            spawnFood();
+            particles.emit(food.x * TILE_SIZE + TILE_SIZE / 2f, food.y * TILE_SIZE + TILE_SIZE / 2f,
+                    24, Color.RED, 4f, 8);
+            if (!spawnFood()) {
+                // Spielfeld voll
+                gameOver();
+                return;
+            }
         } else {
             snake.removeLast();
         }
 
-        panel.repaint();
+        requestRepaint();
     }
 
-    // ---------- Highscores ----------
-    private void loadHighScores() {
-        File f = new File(HIGHSCORE_FILE);
-        if (!f.exists()) return;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-            highscores.clear();
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                highscores.add(new HighScore(parts[0], Integer.parseInt(parts[1])));
-            }
-        } catch (Exception ignored) {}
+    /**
+     * Nimmt das Spielfeld nach einem Spiel-Tick für die Wiederholung auf und überträgt es an die Zuschauer, falls
+     * jemand zuschaut. Pro Tick ändern sich nur Kopf, Schwanzende und ggf. das Essen, also nur wenige Zellen.
+     */
+    private void publishScene() {
+        if (!stepped && !spectator.hasViewers()) return;
+        scene.clearCells();
+        for (Point p : snake) scene.setCell(p.x, p.y, CELL_BODY);
+        Point head = snake.getFirst();
+        scene.setCell(head.x, head.y, CELL_HEAD);
+        if (food != null) scene.setCell(food.x, food.y, CELL_FOOD);
+        scene.set(SCENE_SCORE, snake.size() - 3);
+        scene.set(SCENE_GAME_OVER, isRunning ? 0 : 1);
+        if (stepped) replay.record(scene);
+        stepped = false;
+        spectator.publish(scene);
     }
 
-    private void saveHighScores() {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(HIGHSCORE_FILE))) {
-            for (HighScore hs : highscores) {
-                pw.println(hs.getName() + "," + hs.getScore());
-            }
-        } catch (Exception ignored) {}
+    private static Dir opposite(Dir dir) {
+        return switch (dir) {
+            case UP -> Dir.DOWN;
+            case DOWN -> Dir.UP;
+            case LEFT -> Dir.RIGHT;
+            case RIGHT -> Dir.LEFT;
+        };
     }
 
-    private void addHighScore(int score) {
-        String name = JOptionPane.showInputDialog(frame,
-                "Name eingeben für Highscore (" + score + "):",
-                "Highscore",
-                JOptionPane.PLAIN_MESSAGE);
+    /** Hash des Spielzustands nach einem Tick (Schlange, Richtung, Essen; ohne Partikel). */
+    private long stateHash() {
+        stateHash.reset().add(direction.ordinal()).add(isRunning).add(snake.size());
+        for (Point p : snake) stateHash.add(p.x).add(p.y);
+        if (food != null) stateHash.add(food.x).add(food.y);
+        else stateHash.add(-1);
+        return stateHash.value();
+    }
 
-        if (name == null || name.isBlank()) name = "Player";
+    // ---------- Highscores ----------
+    private void onNameEntered(String name) {
+        addHighScore(name, lastScore);
+        overlay.showSummary("GAME OVER", "Score: " + lastScore, name + " - " + placementText(lastScore));
+    }
 
-        highscores.add(new HighScore(name, score));
+    private void addHighScore(String name, int score) {
+        // Jede Runde wird gespeichert, damit die Historie auch nach einem Neustart vollständig ist
+        HighScore play = new HighScore(name, score);
+        highscores.offer(play);
+        history.record(play);
+        highscoreStore.append(play);
+        if (sync != null) sync.submit(play);
+    }
 
-        // Sortieren (höchster Score zuerst)
-        highscores.sort((a, b) -> b.getScore() - a.getScore());
+    /**
+     * Runde von einem anderen Automaten (aus dem Sync-Thread): nur im Speicher übernehmen, nicht zurückschicken.
+     * Dauerhaft liegt sie im Eingang des {@link LeaderboardSync}, der sie beim nächsten Start wieder liefert.
+     */
+    private void onRemoteScore(HighScore play) {
+        highscores.offer(play);
+        history.record(play);
+    }
 
-        saveHighScores();
+    /** Text wie "Platz 4.213 von 180.000" für die Game-Over-Anzeige. */
+    private String placementText(int score) {
+        return String.format("Platz %,d von %,d", history.rank(score), history.size());
     }
 
     // ---------- Game Over ----------
     private void gameOver() {
+        loop.stage("gameOver");
         isRunning = false;
-        timer.cancel();
-
-        int score = snake.size() - 3;
-        addHighScore(score);
+        lastScore = snake.size() - 3;
 
-        JOptionPane.showMessageDialog(frame,
-                "GAME OVER\nScore: " + score + "\nDrücke MENU zum Neustart",
-                "Snake",
-                JOptionPane.INFORMATION_MESSAGE);
+        // Nach den Initialen wird nur gefragt, wenn der Score in die Bestenliste kommt
+        if (highscores.qualifies(lastScore)) {
+            overlay.showNameEntry("GAME OVER", "Score: " + lastScore, "Neuer Highscore! Initialen eingeben:");
+        } else {
+            addHighScore("Player", lastScore);
+            overlay.showSummary("GAME OVER", "Score: " + lastScore, placementText(lastScore));
+        }
+        requestRepaint();
     }
 
     // ---------- Framework ----------
@@ -236,30 +388,53 @@ public class SnakeGame implements ArcadeGame {
 
         frame.setVisible(true);
 
+        IdleGamepad idleInput = new IdleGamepad(input); // legt den Watcher im Leerlauf schlafen
+        watcher = new InputWatcher(idleInput, inputListener);
+        idle.setGamepad(idleInput);
         watcher.startWatching();
-        startTimer();
+        if (sync != null) sync.start();
+        metrics.register();
+        recorder.start();
+        loop.start();
 
         return frame;
     }
 
-    private void startTimer() {
-        timer = new Timer();
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override public void run() {
-                updateGame();
-            }
-        }, 0, GAME_SPEED_MS);
+    @Override
+    public JComponent startHosted(ArcadeHost host) {
+        if (panel == null) {
+            panel = new GamePanel();
+            panel.setPreferredSize(new Dimension(GRID_WIDTH * TILE_SIZE, GRID_HEIGHT * TILE_SIZE));
+        }
+        initGame();
+        host.getInputHub().setListener(inputListener);
+        idle.setGamepad(host.getIdleGamepad());
+        if (sync != null) sync.start();
+        metrics.register();
+        recorder.start();
+        loop.start();
+        return panel;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Snake";
     }
 
     @Override
     public void stop() {
-        if (timer != null) timer.cancel();
+        idle.wake();
+        loop.stop();
+        session.endRound();
+        metrics.unregister();
+        recorder.close();
         if (watcher != null) watcher.stopWatching();
+        if (sync != null) sync.close();
     }
 
     @Override
-    public ArrayList<HighScore> getHighScores() {
-        return highscores;
+    public List<HighScore> getHighScores() {
+        return highscores.snapshot();
     }
 
     // ---------- Rendering ----------
@@ -270,11 +445,24 @@ public class SnakeGame implements ArcadeGame {
 
         @Override
         protected void paintComponent(Graphics g) {
+            ArcadeEvents.PaintEvent paint = metrics.beginPaint();
+            recorder.paint(g, getWidth(), getHeight(), this::paintGame);
+            metrics.endPaint(paint);
+        }
+
+        /** Zeichnet das Spiel, auf den Bildschirm oder in ein Bild der Aufnahme. */
+        private void paintGame(Graphics g) {
             super.paintComponent(g);
+            if (replay.isPlaying()) {
+                ScenePainter.paintReplay(g, replay, getWidth(), getHeight());
+                return;
+            }
 
             // Essen
-            g.setColor(Color.RED);
-            g.fillOval(food.x * TILE_SIZE, food.y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+            if (food != null) {
+                g.setColor(Color.RED);
+                g.fillOval(food.x * TILE_SIZE, food.y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+            }
 
             // Snake
             g.setColor(Color.GREEN);
@@ -282,15 +470,26 @@ public class SnakeGame implements ArcadeGame {
                 g.fillRect(p.x * TILE_SIZE, p.y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
             }
 
+            // Partikel
+            particles.render(g);
+
             // Score oben links
             g.setColor(Color.WHITE);
             g.setFont(new Font("Arial", Font.BOLD, 20));
             g.drawString("Score: " + (snake.size() - 3), 10, 20);
+
+            overlay.render(g, getWidth(), getHeight());
+            if (!isRunning && replay.isAvailable()) {
+                g.setColor(Color.GRAY);
+                g.setFont(new Font("Arial", Font.PLAIN, 14));
+                g.drawString("Y: Wiederholung", 10, getHeight() - 10);
+            }
         }
     }
 
     // Optional Main
     public static void main(String[] args) {
-        new SnakeGame().start();
+        // Fenster, Gamepad und Highscores parallel vorbereiten (siehe StartupPipeline)
+        StartupPipeline.launch(SnakeGame.class);
     }
 }
@@ -0,0 +1,161 @@
+import framework.*;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Zeigt das Spiel eines Automaten live an, z.B. auf einem Bildschirm in der Lobby. Empfängt den Strom von
+ * {@link SpectatorStream} und zeichnet die {@link Scene} mit dem {@link ScenePainter}.
+ * <p>
+ * Start: {@code java SpectatorViewer automat:7470} bzw. {@code java SpectatorViewer unix:/pfad/zum/socket}.
+ * Bricht die Verbindung ab, wird alle zwei Sekunden neu verbunden.
+ */
+public class SpectatorViewer {
+
+    private static final long RECONNECT_MS = 2000;
+
+    private final SocketAddress address;
+    private final boolean unix;
+    private final Scene shown = new Scene("", 0, 0, 0); // Kopie für den EDT, geschützt durch "shown"
+    private volatile String status = "Verbinde ...";
+    private JFrame frame;
+    private ViewerPanel panel;
+
+    public SpectatorViewer(String target) {
+        if (target.startsWith("unix:")) {
+            address = UnixDomainSocketAddress.of(Path.of(target.substring(5)));
+            unix = true;
+        } else {
+            int colon = target.lastIndexOf(':');
+            String host = colon < 0 ? target : target.substring(0, colon);
+            int port = colon < 0 ? 7470 : Integer.parseInt(target.substring(colon + 1));
+            address = new InetSocketAddress(host, port);
+            unix = false;
+        }
+    }
+
+    public void start() {
+        SwingUtilities.invokeLater(() -> {
+            frame = new JFrame("Zuschauer – " + address);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            panel = new ViewerPanel();
+            frame.add(panel);
+            frame.pack();
+            frame.setVisible(true);
+        });
+        Thread reader = new Thread(this::readLoop, "SpectatorViewer-Read");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    // ---------- Empfang ----------
+
+    private void readLoop() {
+        while (true) {
+            try (SocketChannel channel = unix ? SocketChannel.open(StandardProtocolFamily.UNIX) : SocketChannel.open()) {
+                channel.connect(address);
+                status = null;
+                receive(Channels.newInputStream(channel));
+            } catch (IOException e) {
+                status = "Keine Verbindung (" + e.getMessage() + ")";
+                repaint();
+            }
+            try {
+                Thread.sleep(RECONNECT_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void receive(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        SceneCodec.Decoder decoder = new SceneCodec.Decoder();
+        byte[] frameBytes = new byte[4096];
+        while (true) {
+            int length = readVarInt(in);
+            if (length <= 0 || length > SpectatorStream.MAX_FRAME) throw new IOException("Ungültige Bildlänge " + length);
+            if (length > frameBytes.length) frameBytes = new byte[Math.max(length, frameBytes.length * 2)];
+            in.readFully(frameBytes, 0, length);
+            try {
+                if (!decoder.apply(ByteBuffer.wrap(frameBytes, 0, length))) continue; // wartet auf Schlüsselbild
+            } catch (IllegalArgumentException e) {
+                System.out.println("SpectatorViewer: " + e.getMessage());
+                continue;
+            }
+            boolean resized;
+            synchronized (shown) {
+                resized = shown.getGridWidth() != decoder.scene().getGridWidth()
+                        || shown.getGridHeight() != decoder.scene().getGridHeight()
+                        || !shown.getGame().equals(decoder.scene().getGame());
+                shown.copyFrom(decoder.scene());
+            }
+            if (resized) SwingUtilities.invokeLater(() -> {
+                panel.revalidate();
+                frame.pack();
+            });
+            repaint();
+        }
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Verbindung beendet");
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Varint zu lang");
+    }
+
+    private void repaint() {
+        if (panel != null) panel.repaint();
+    }
+
+    // ---------- Anzeige ----------
+
+    private class ViewerPanel extends JPanel {
+
+        ViewerPanel() {
+            setBackground(Color.BLACK);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            synchronized (shown) {
+                return ScenePainter.preferredSize(shown);
+            }
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            synchronized (shown) {
+                ScenePainter.paint(g, shown);
+            }
+            String text = status;
+            if (text != null) {
+                g.setColor(Color.WHITE);
+                g.setFont(new Font("Arial", Font.BOLD, 16));
+                g.drawString(text, 10, getHeight() - 10);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        new SpectatorViewer(args.length > 0 ? args[0] : "localhost:7470").start();
+    }
+}
@@ -0,0 +1,104 @@
+package framework;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Ereignisse für Java Flight Recorder, damit Ruckler im Spiel in derselben Aufzeichnung neben GC, JIT und
+ * Datei-I/O zu sehen sind:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=arcade.jfr,settings=profile ... framework.ArcadeLauncher
+ * </pre>
+ * Jedes Ereignis hat eine Dauer und das Spiel, zu dem es gehört. Jede Art liegt in einer eigenen Kategorie unter
+ * "ArcadeBuddy" und lässt sich in den Aufzeichnungs-Einstellungen (z.B. JDK Mission Control oder eine eigene
+ * {@code .jfc}-Datei mit {@code arcade.Tick#enabled=false}) einzeln abschalten. Ohne laufende Aufzeichnung
+ * kostet ein Ereignis fast nichts: {@code begin()} und {@code commit()} prüfen nur, ob es eingeschaltet ist,
+ * und die Felder werden erst nach {@code shouldCommit()} gesetzt. Stacktraces werden nicht aufgezeichnet.
+ * <p>
+ * Erzeugt werden die Ereignisse von {@link GameLoop}, {@link GameMetrics}, {@link MeteredInputListener},
+ * {@link UsbGamepad} und {@link HighScoreStore}.
+ */
+public final class ArcadeEvents {
+
+    private ArcadeEvents() {}
+
+    /** Gemeinsame Felder aller Ereignisse. */
+    @StackTrace(false)
+    abstract static class GameEvent extends Event {
+        @Label("Spiel")
+        String game;
+    }
+
+    @Name("arcade.Tick")
+    @Label("Spiel-Tick")
+    @Category({"ArcadeBuddy", "Spielschleife"})
+    @Description("Ein Aufruf von updateGame() in der GameLoop")
+    public static final class TickEvent extends GameEvent {
+        @Label("Verspätung")
+        @Description("Wie viel später als geplant der Tick begonnen hat")
+        @Timespan(Timespan.NANOSECONDS)
+        long lateness;
+
+        @Label("Verspätet")
+        @Description("Nicht innerhalb des eigenen Taktes fertig geworden")
+        boolean late;
+    }
+
+    @Name("arcade.Paint")
+    @Label("Bild gezeichnet")
+    @Category({"ArcadeBuddy", "Zeichnen"})
+    @Description("Ein paintComponent-Aufruf der Zeichenfläche")
+    public static final class PaintEvent extends GameEvent {
+    }
+
+    @Name("arcade.InputDispatch")
+    @Label("Eingabe verteilt")
+    @Category({"ArcadeBuddy", "Eingabe"})
+    @Description("Ein Ereignis an den InputListener des Spiels")
+    public static final class InputDispatchEvent extends GameEvent {
+        @Label("Ereignis")
+        String action;
+    }
+
+    @Name("arcade.HidReport")
+    @Label("HID-Report")
+    @Category({"ArcadeBuddy", "Eingabe", "HID"})
+    @Description("Ein Report eines USB-Gamepads (im Thread der HID-Bibliothek)")
+    public static final class HidReportEvent extends GameEvent {
+        @Label("Joystick")
+        int joystick;
+
+        @Label("Länge")
+        @DataAmount
+        int length;
+
+        @Label("Zustandswechsel")
+        @Description("false: ohne Änderung, verworfen")
+        boolean changed;
+    }
+
+    @Name("arcade.HighScoreSave")
+    @Label("Highscores gespeichert")
+    @Category({"ArcadeBuddy", "Highscores"})
+    @Description("Schreiben ins Highscore-Journal (mit fsync) oder ein neuer Snapshot beim Kompaktieren")
+    public static final class HighScoreSaveEvent extends GameEvent {
+        @Label("Datei")
+        String file;
+
+        @Label("Runden")
+        int records;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Kompaktierung")
+        boolean compaction;
+    }
+}
@@ -1,7 +1,7 @@
 package framework;
 
 import javax.swing.*;
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Die zentrale Schnittstelle für ein Spiel, das im Arcade-Framework ausgeführt werden soll.
@@ -12,10 +12,12 @@ public interface ArcadeGame {
     /**
      * Gibt die aktuelle Bestenliste (High Scores) des Spiels zurück.
      * Das Framework kann diese Liste zur Anzeige speichern oder persistieren.
+     * Die Liste ist eine unveränderliche Momentaufnahme (bester Eintrag zuerst) und ändert sich
+     * nicht, wenn das Spiel danach neue Einträge aufnimmt.
      *
-     * @return Eine {@code ArrayList} von {@link HighScore}-Objekten.
+     * @return Eine unveränderliche {@code List} von {@link HighScore}-Objekten.
      */
-    ArrayList<HighScore> getHighScores();
+    List<HighScore> getHighScores();
 
     /**
      * Startet das Spiel und gibt den Haupt-{@code JFrame} zurück, in dem das Spiel gezeichnet wird.
@@ -31,4 +33,27 @@ public interface ArcadeGame {
      * um Ressourcen freizugeben.
      */
     void stop();
+
+    /**
+     * Startet das Spiel im {@link ArcadeLauncher}: Statt ein eigenes Fenster zu öffnen, gibt das Spiel
+     * seine Zeichenfläche zurück und meldet seinen {@link InputListener} beim {@link InputHub} des Hosts an.
+     * Nach {@link #stop()} kann das Spiel auf diese Weise erneut gestartet werden.
+     *
+     * @return Die Zeichenfläche des Spiels (mit gesetzter bevorzugter Größe).
+     */
+    JComponent startHosted(ArcadeHost host);
+
+    /**
+     * Wärmt die Spiel-Logik im Hintergrund auf (z.B. einige Simulationsschritte ohne Anzeige),
+     * damit der JIT-Compiler sie übersetzt hat, bevor das Spiel angezeigt wird. Darf den Spielzustand
+     * nicht verändern. Wird vom {@link ArcadeLauncher} in einem Hintergrund-Thread aufgerufen.
+     */
+    default void warmUp() {}
+
+    /**
+     * @return Der Name des Spiels für den Launcher.
+     */
+    default String getTitle() {
+        return getClass().getSimpleName();
+    }
 }
\ No newline at end of file
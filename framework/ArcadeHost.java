@@ -0,0 +1,23 @@
+package framework;
+
+/**
+ * Umgebung, in der ein {@link ArcadeGame} ohne eigenes Fenster und ohne eigenes Gamepad läuft
+ * (siehe {@link ArcadeGame#startHosted(ArcadeHost)}).
+ */
+public interface ArcadeHost {
+
+    /**
+     * @return Das gemeinsame Gamepad aller Spiele (für direkte Abfragen wie {@code isPressed()}).
+     */
+    Gamepad getGamepad();
+
+    /**
+     * @return Der Verteiler, bei dem sich das laufende Spiel mit seinem {@link InputListener} anmeldet.
+     */
+    InputHub getInputHub();
+
+    /**
+     * @return Das Gamepad, an dem der {@link InputWatcher} des Hosts hängt; für den {@link IdleController} des Spiels.
+     */
+    IdleGamepad getIdleGamepad();
+}
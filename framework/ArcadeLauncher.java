@@ -0,0 +1,263 @@
+package framework;
+
+import javax.swing.*;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Startet alle Spiele in einer JVM mit einem Fenster und einem Gamepad und wechselt zwischen ihnen,
+ * ohne neu zu starten (HID-Geräte bleiben offen, der JIT-Compiler bleibt warm).
+ * <p>
+ * Die Spiele werden per {@link ServiceLoader} gefunden: In {@code META-INF/services/framework.ArcadeGame}
+ * steht pro Zeile eine Spielklasse. Jede Klasse braucht einen öffentlichen Konstruktor mit einem
+ * {@link Gamepad}-Parameter, über den sie sich das gemeinsame Gamepad teilt.
+ * <p>
+ * Während ein Spiel läuft, wird das nächste in einem Hintergrund-Thread erzeugt und mit
+ * {@link ArcadeGame#warmUp()} aufgewärmt. Ein Wechsel ("Y1 halten + MENU") muss dann nur noch das
+ * laufende Spiel stoppen und die Zeichenfläche austauschen; die Dauer wird protokolliert (Ziel: unter 200 ms).
+ * Ist das Spiel noch nicht fertig, wird gewechselt, sobald es fertig ist, ohne den EDT zu blockieren. Ein Spiel,
+ * das sich nicht erzeugen ließ, wird protokolliert und beim nächsten Wechsel neu versucht.
+ * <p>
+ * Gestartet wird über die {@link StartupPipeline}, die Fenster, Gamepad und erstes Spiel parallel vorbereitet.
+ * Angezeigt werden die Spiele über eine {@link GameDisplay} (Fenster, randlos oder Vollbild, siehe dort).
+ */
+public class ArcadeLauncher implements ArcadeHost {
+
+    private final Gamepad gamepad;
+    private final InputHub hub = new InputHub();
+    private final IdleGamepad idleGamepad;
+    private final InputWatcher watcher;
+    private final List<Class<? extends ArcadeGame>> gameTypes;
+    private final List<CompletableFuture<ArcadeGame>> games = new ArrayList<>();
+    private final ExecutorService preparer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ArcadeLauncher-Preparer");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final CompletableFuture<Void> firstGameShown = new CompletableFuture<>();
+
+    private JFrame frame;
+    // Zeichnet das Spiel in seiner logischen Auflösung und skaliert es auf Fenster/Bildschirm
+    private final GameDisplay display = GameDisplay.fromSystemProperties();
+    private int currentIndex = -1;
+    private int pendingIndex = -1; // Spiel, zu dem gewechselt wird, sobald es fertig ist
+    private ArcadeGame current;
+    private JComponent currentView;
+
+    /**
+     * @param gamepad   Das gemeinsame Gamepad aller Spiele.
+     * @param gameTypes Die Spiele in Wechselreihenfolge.
+     */
+    public ArcadeLauncher(Gamepad gamepad, List<Class<? extends ArcadeGame>> gameTypes) {
+        if (gameTypes.isEmpty()) throw new IllegalArgumentException("Keine Spiele angegeben");
+        this.gamepad = gamepad;
+        this.gameTypes = List.copyOf(gameTypes);
+        for (int i = 0; i < gameTypes.size(); i++) games.add(null);
+
+        if (gameTypes.size() > 1) {
+            hub.setSwitchHandler(() -> SwingUtilities.invokeLater(this::switchToNext));
+        }
+        idleGamepad = new IdleGamepad(gamepad);
+        watcher = new InputWatcher(idleGamepad, hub);
+    }
+
+    /**
+     * Sucht alle Spiele über {@code META-INF/services/framework.ArcadeGame}, ohne sie zu erzeugen.
+     */
+    public static List<Class<? extends ArcadeGame>> discoverGames() {
+        List<Class<? extends ArcadeGame>> types = new ArrayList<>();
+        ServiceLoader.load(ArcadeGame.class).stream().forEach(provider -> types.add(provider.type()));
+        return types;
+    }
+
+    @Override
+    public Gamepad getGamepad() {
+        return gamepad;
+    }
+
+    @Override
+    public InputHub getInputHub() {
+        return hub;
+    }
+
+    @Override
+    public IdleGamepad getIdleGamepad() {
+        return idleGamepad;
+    }
+
+    /**
+     * Öffnet das Fenster sofort mit einer Ladeanzeige und startet das erste Spiel, sobald es erzeugt ist.
+     * Muss im Event-Dispatch-Thread aufgerufen werden.
+     */
+    public void start() {
+        StartupTimeline.Phase phase = StartupTimeline.begin("Fenster erzeugen");
+        try {
+            frame = new JFrame("ArcadeBuddy");
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            frame.setResizable(false);
+            frame.getContentPane().setLayout(new BorderLayout());
+
+            currentView = createLoadingView();
+            display.setView(currentView);
+            display.showIn(frame);
+        } finally {
+            phase.end();
+        }
+        StartupTimeline.mark("Ladeanzeige sichtbar");
+        watcher.startWatching();
+
+        prepare(0).whenComplete((game, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.out.println("ArcadeLauncher: Erstes Spiel konnte nicht gestartet werden: " + error.getMessage());
+                firstGameShown.completeExceptionally(error);
+                return;
+            }
+            switchTo(0);
+            StartupTimeline.mark("Erstes Spielbild");
+            firstGameShown.complete(null);
+        }));
+    }
+
+    private static JComponent createLoadingView() {
+        JLabel label = new JLabel("ArcadeBuddy lädt …", SwingConstants.CENTER);
+        label.setOpaque(true);
+        label.setBackground(Color.BLACK);
+        label.setForeground(Color.WHITE);
+        label.setFont(new Font("Monospaced", Font.BOLD, 28));
+        label.setPreferredSize(new Dimension(600, 450));
+        return label;
+    }
+
+    /** Wird fertig, sobald das erste Spiel im Fenster läuft. */
+    public CompletableFuture<Void> firstGameShown() {
+        return firstGameShown;
+    }
+
+    /**
+     * Beginnt sofort, das erste Spiel im Hintergrund zu erzeugen (noch vor {@link #start()}).
+     */
+    public void prepareFirstGame() {
+        prepare(0);
+    }
+
+    /**
+     * Erzeugt und wärmt alle Spiele auf, z.B. für einen Trainingslauf des AppCDS-Archivs.
+     */
+    public CompletableFuture<Void> prepareAll() {
+        CompletableFuture<?>[] all = new CompletableFuture<?>[gameTypes.size()];
+        for (int i = 0; i < all.length; i++) all[i] = prepare(i);
+        return CompletableFuture.allOf(all);
+    }
+
+    private void switchToNext() {
+        switchTo((currentIndex + 1) % gameTypes.size());
+    }
+
+    /**
+     * Stoppt das laufende Spiel und startet das Spiel mit dem gegebenen Index im selben Fenster.
+     * Ist es noch nicht fertig erzeugt, wird erst danach gewechselt; weitere Wechsel bis dahin werden ignoriert.
+     */
+    private void switchTo(int index) {
+        CompletableFuture<ArcadeGame> prepared = prepare(index);
+        if (!prepared.isDone()) {
+            if (pendingIndex < 0) {
+                pendingIndex = index;
+                prepared.whenComplete((game, error) -> SwingUtilities.invokeLater(() -> {
+                    pendingIndex = -1;
+                    switchTo(index);
+                }));
+            }
+            return;
+        }
+        ArcadeGame next;
+        try {
+            next = prepared.join(); // meist schon im Hintergrund fertig
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            System.out.println("ArcadeLauncher: " + gameTypes.get(index).getSimpleName()
+                    + " konnte nicht gestartet werden: " + cause.getMessage());
+            return;
+        }
+        long start = System.nanoTime();
+
+        hub.setListener(null);
+        if (current != null) current.stop();
+
+        current = next;
+        currentIndex = index;
+        currentView = next.startHosted(this);
+        frame.setTitle(gameTypes.size() > 1
+                ? "ArcadeBuddy – " + next.getTitle() + "   (Y1 halten + MENU: nächstes Spiel)"
+                : "ArcadeBuddy – " + next.getTitle());
+        display.setView(currentView); // passt im Fenstermodus die Fenstergröße an
+        currentView.requestFocusInWindow();
+
+        System.out.printf("ArcadeLauncher: Wechsel zu %s in %.1f ms%n", next.getTitle(), (System.nanoTime() - start) / 1e6);
+
+        // Das nächste Spiel schon jetzt erzeugen und aufwärmen
+        if (gameTypes.size() > 1) prepare((index + 1) % gameTypes.size());
+    }
+
+    /**
+     * Liefert das Spiel mit dem Index; beim ersten Mal wird es im Hintergrund erzeugt und aufgewärmt.
+     * Spiele werden wiederverwendet, wenn man zu ihnen zurückwechselt. Schlägt das Erzeugen fehl, wird das
+     * Ergebnis verworfen, damit der nächste Aufruf es erneut versucht.
+     */
+    private synchronized CompletableFuture<ArcadeGame> prepare(int index) {
+        CompletableFuture<ArcadeGame> game = games.get(index);
+        if (game == null) {
+            Class<? extends ArcadeGame> type = gameTypes.get(index);
+            CompletableFuture<ArcadeGame> created = CompletableFuture.supplyAsync(() -> {
+                try {
+                    ArcadeGame instance;
+                    StartupTimeline.Phase creating = StartupTimeline.begin(type.getSimpleName() + " erzeugen");
+                    try {
+                        instance = type.getConstructor(Gamepad.class).newInstance(gamepad);
+                    } finally {
+                        creating.end();
+                    }
+                    StartupTimeline.Phase warming = StartupTimeline.begin(type.getSimpleName() + " aufwärmen");
+                    try {
+                        instance.warmUp();
+                    } finally {
+                        warming.end();
+                    }
+                    return instance;
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(type.getName() + " braucht einen öffentlichen Konstruktor (Gamepad)", e);
+                }
+            }, preparer);
+            games.set(index, created);
+            created.whenComplete((instance, error) -> {
+                if (error != null) evict(index, created);
+            });
+            game = created;
+        }
+        return game;
+    }
+
+    private synchronized void evict(int index, CompletableFuture<ArcadeGame> failed) {
+        if (games.get(index) == failed) games.set(index, null);
+    }
+
+    public static void main(String[] args) {
+        List<Class<? extends ArcadeGame>> types = discoverGames();
+        if (types.isEmpty()) {
+            System.out.println("ArcadeLauncher: Keine Spiele in META-INF/services/framework.ArcadeGame gefunden.");
+            return;
+        }
+        System.out.println("ArcadeLauncher: " + types.size() + " Spiel(e) gefunden.");
+        StartupPipeline.launch(types);
+    }
+}
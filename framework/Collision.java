@@ -0,0 +1,272 @@
+package framework;
+
+/**
+ * Kontinuierliche (swept) Kollisionserkennung für Ballspiele.
+ * <p>
+ * Statt den Ball um einen ganzen Schritt zu verschieben und danach auf Überlappung zu prüfen,
+ * wird die Bewegung als Strecke betrachtet und der früheste Aufprallzeitpunkt (Time of Impact)
+ * innerhalb des Schritts berechnet. Dadurch kann ein schneller Ball nicht mehr durch Schläger
+ * oder Ziegel "tunneln", egal wie hoch die Geschwindigkeit ist.
+ * <p>
+ * Alle Methoden sind statisch und allokationsfrei: Ergebnisse werden in wiederverwendbare
+ * {@link Hit}- und {@link Body}-Objekte geschrieben, die das Spiel einmalig anlegt.
+ */
+public final class Collision {
+
+    /** Maximale Anzahl an Aufprallen, die {@link #resolve} innerhalb eines Schritts auflöst. */
+    public static final int DEFAULT_MAX_ITERATIONS = 4;
+
+    private Collision() {}
+
+    /**
+     * Ergebnis eines Swept-Tests: der früheste gefundene Aufprall.
+     * Wird pro Spiel einmal angelegt und vor jedem Test mit {@link #reset()} zurückgesetzt.
+     */
+    public static final class Hit {
+        /** Anteil der Verschiebung (0..1), nach dem der Aufprall stattfindet. */
+        public double time;
+        /** Oberflächennormale am Aufprallpunkt (zeigt vom Hindernis weg). */
+        public double normalX, normalY;
+        /** Vom Spiel vergebene Kennung des getroffenen Hindernisses. */
+        public int target;
+
+        /** Setzt den Treffer zurück ("kein Aufprall innerhalb des Schritts"). */
+        public void reset() {
+            time = 1.0;
+            normalX = 0;
+            normalY = 0;
+            target = -1;
+        }
+
+        /** @return {@code true}, wenn seit dem letzten {@link #reset()} ein Aufprall gefunden wurde. */
+        public boolean isHit() {
+            return normalX != 0 || normalY != 0;
+        }
+
+        private void set(double time, double normalX, double normalY, int target) {
+            this.time = time;
+            this.normalX = normalX;
+            this.normalY = normalY;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Ein bewegter, achsenparalleler Körper (z.B. ein Ball) mit Position, Größe und
+     * Geschwindigkeit in Pixeln pro Tick.
+     */
+    public static final class Body {
+        public double x, y;
+        public double width, height;
+        public double vx, vy;
+
+        public Body(double width, double height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Die Hindernisse eines Spiels. Das Spiel prüft in {@link #sweep} nur die Kandidaten,
+     * die von der Bewegung überhaupt erreicht werden können (Broadphase), und reagiert in
+     * {@link #onHit} auf den Aufprall (z.B. Ziegel entfernen, Geschwindigkeit anpassen).
+     */
+    public interface Obstacles {
+        /**
+         * Testet die Verschiebung {@code (dx, dy)} der Box gegen alle relevanten Hindernisse und
+         * trägt den frühesten Aufprall über {@link Collision#sweepBox} o.ä. in {@code hit} ein.
+         */
+        void sweep(double x, double y, double width, double height, double dx, double dy, Hit hit);
+
+        /**
+         * Wird aufgerufen, nachdem der Körper an den Aufprallpunkt bewegt wurde.
+         * Die Implementierung setzt die neue Geschwindigkeit, typischerweise über {@link Collision#reflect}.
+         */
+        void onHit(Body body, Hit hit);
+    }
+
+    /**
+     * Swept-Test einer bewegten Box gegen eine statische Box (Minkowski-Summe + Slab-Verfahren).
+     * Ein Treffer wird nur eingetragen, wenn er früher liegt als der bisher beste in {@code hit}.
+     * Boxen, die sich bereits zu Beginn überlappen, werden ignoriert (siehe {@link #overlaps}).
+     *
+     * @return {@code true}, wenn {@code hit} aktualisiert wurde.
+     */
+    public static boolean sweepBox(double x, double y, double width, double height, double dx, double dy,
+                                   double bx, double by, double bw, double bh, int target, Hit hit) {
+        // Statische Box um die Größe der bewegten Box erweitern -> Strahltest vom Eckpunkt (x, y)
+        double minX = bx - width, maxX = bx + bw;
+        double minY = by - height, maxY = by + bh;
+
+        double enterX, exitX, enterY, exitY;
+        if (dx == 0) {
+            if (x <= minX || x >= maxX) return false;
+            enterX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - x) / dx;
+            double t2 = (maxX - x) / dx;
+            enterX = Math.min(t1, t2);
+            exitX = Math.max(t1, t2);
+        }
+        if (dy == 0) {
+            if (y <= minY || y >= maxY) return false;
+            enterY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - y) / dy;
+            double t2 = (maxY - y) / dy;
+            enterY = Math.min(t1, t2);
+            exitY = Math.max(t1, t2);
+        }
+
+        double enter = Math.max(enterX, enterY);
+        double exit = Math.min(exitX, exitY);
+        if (enter >= exit || enter < 0 || enter >= hit.time) return false;
+
+        if (enterX > enterY) {
+            hit.set(enter, dx > 0 ? -1 : 1, 0, target);
+        } else {
+            hit.set(enter, 0, dy > 0 ? -1 : 1, target);
+        }
+        return true;
+    }
+
+    /**
+     * Swept-Test eines bewegten Kreises gegen eine statische Box. Die Box wird um den Radius
+     * erweitert; trifft der Mittelpunkt einen Eckbereich, wird exakt gegen den Eckkreis getestet,
+     * sodass Abpraller an Ecken die richtige (schräge) Normale erhalten.
+     *
+     * @return {@code true}, wenn {@code hit} aktualisiert wurde.
+     */
+    public static boolean sweepCircle(double cx, double cy, double radius, double dx, double dy,
+                                      double bx, double by, double bw, double bh, int target, Hit hit) {
+        double best = hit.time;
+        // 1. Grobtest gegen die um den Radius erweiterte Box
+        double minX = bx - radius, maxX = bx + bw + radius;
+        double minY = by - radius, maxY = by + bh + radius;
+
+        double enter = Double.NEGATIVE_INFINITY, exit = Double.POSITIVE_INFINITY;
+        double nx = 0, ny = 0;
+        if (dx == 0) {
+            if (cx <= minX || cx >= maxX) return false;
+        } else {
+            double t1 = (minX - cx) / dx;
+            double t2 = (maxX - cx) / dx;
+            enter = Math.min(t1, t2);
+            exit = Math.max(t1, t2);
+            nx = dx > 0 ? -1 : 1;
+        }
+        if (dy == 0) {
+            if (cy <= minY || cy >= maxY) return false;
+            ny = 0;
+            if (enter == Double.NEGATIVE_INFINITY) return false;
+        } else {
+            double t1 = (minY - cy) / dy;
+            double t2 = (maxY - cy) / dy;
+            double enterY = Math.min(t1, t2);
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (enterY > enter) {
+                enter = enterY;
+                nx = 0;
+                ny = dy > 0 ? -1 : 1;
+            } else {
+                ny = 0;
+            }
+        }
+        if (enter >= exit || enter < 0 || enter >= best) return false;
+
+        // 2. Liegt der Kontaktpunkt in einem Eckbereich, gegen den Eckkreis testen
+        double px = cx + dx * enter;
+        double py = cy + dy * enter;
+        double cornerX = px < bx ? bx : (px > bx + bw ? bx + bw : Double.NaN);
+        double cornerY = py < by ? by : (py > by + bh ? by + bh : Double.NaN);
+        if (Double.isNaN(cornerX) || Double.isNaN(cornerY)) {
+            hit.set(enter, nx, ny, target);
+            return true;
+        }
+
+        double t = rayCircle(cx - cornerX, cy - cornerY, dx, dy, radius);
+        if (t < 0 || t >= best) return false;
+        double hx = cx + dx * t - cornerX;
+        double hy = cy + dy * t - cornerY;
+        double len = Math.sqrt(hx * hx + hy * hy);
+        hit.set(t, hx / len, hy / len, target);
+        return true;
+    }
+
+    /**
+     * Kleinste Lösung {@code t >= 0} von |o + d*t| = r, oder -1 wenn der Strahl den Kreis verfehlt.
+     */
+    private static double rayCircle(double ox, double oy, double dx, double dy, double r) {
+        double a = dx * dx + dy * dy;
+        double b = ox * dx + oy * dy;
+        double c = ox * ox + oy * oy - r * r;
+        if (a == 0 || c < 0) return -1; // kein Bewegungsanteil oder bereits im Kreis
+        double disc = b * b - a * c;
+        if (disc < 0) return -1;
+        double t = (-b - Math.sqrt(disc)) / a;
+        return t >= 0 ? t : -1;
+    }
+
+    /**
+     * Diskreter Überlappungstest (echte Überlappung, Berührung zählt nicht).
+     */
+    public static boolean overlaps(double x, double y, double width, double height,
+                                   double bx, double by, double bw, double bh) {
+        return x < bx + bw && x + width > bx && y < by + bh && y + height > by;
+    }
+
+    /**
+     * Spiegelt die Geschwindigkeit des Körpers an der Normalen des Treffers.
+     */
+    public static void reflect(Body body, Hit hit) {
+        double dot = body.vx * hit.normalX + body.vy * hit.normalY;
+        if (dot >= 0) return; // bewegt sich bereits vom Hindernis weg
+        body.vx -= 2 * dot * hit.normalX;
+        body.vy -= 2 * dot * hit.normalY;
+    }
+
+    /**
+     * Bewegt den Körper um seine Geschwindigkeit mal {@code dt} und löst dabei bis zu
+     * {@code maxIterations} Aufpralle nacheinander auf: Körper an den Aufprallpunkt setzen,
+     * {@link Obstacles#onHit} aufrufen und die Restzeit mit der neuen Geschwindigkeit weiterlaufen lassen.
+     *
+     * @return Die Anzahl der aufgelösten Aufpralle.
+     */
+    public static int resolve(Body body, double dt, Obstacles obstacles, Hit hit, int maxIterations) {
+        double remaining = dt;
+        int hits = 0;
+        while (remaining > 0) {
+            double dx = body.vx * remaining;
+            double dy = body.vy * remaining;
+
+            hit.reset();
+            if (hits < maxIterations) {
+                obstacles.sweep(body.x, body.y, body.width, body.height, dx, dy, hit);
+            }
+            if (!hit.isHit()) {
+                body.x += dx;
+                body.y += dy;
+                return hits;
+            }
+
+            body.x += dx * hit.time;
+            body.y += dy * hit.time;
+            remaining *= 1.0 - hit.time;
+            hits++;
+            obstacles.onHit(body, hit);
+        }
+        return hits;
+    }
+
+    /**
+     * Anzahl der Teilschritte, damit sich etwas mit der gegebenen Geschwindigkeit pro Teilschritt
+     * höchstens {@code maxTravel} Pixel bewegt. Nur nötig für Bewegungen, die selbst nicht swept
+     * getestet werden (z.B. ein Schläger, der sich in denselben Tick in den Ball schiebt).
+     */
+    public static int substeps(double speed, double maxTravel) {
+        if (maxTravel <= 0) return 1;
+        return Math.max(1, (int) Math.ceil(Math.abs(speed) / maxTravel));
+    }
+}
@@ -0,0 +1,95 @@
+package framework;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gamepad, das sofort benutzbar ist, während das echte Gerät noch im Hintergrund gesucht wird.
+ * <p>
+ * Bis {@link #attach(Gamepad)} aufgerufen wurde, ist nichts gedrückt; danach werden alle Abfragen an
+ * das echte Gamepad weitergereicht. Buttons und Joysticks dieses Objekts bleiben dabei dieselben,
+ * sodass Spiele und {@link InputWatcher} sie schon vorher abfragen können.
+ */
+public class DeferredGamepad implements Gamepad {
+
+    private static final Joystick IDLE_JOYSTICK = new Joystick() {
+        @Override public boolean up() { return false; }
+        @Override public boolean down() { return false; }
+        @Override public boolean left() { return false; }
+        @Override public boolean right() { return false; }
+    };
+
+    private volatile Gamepad delegate;
+
+    private final Joystick joystick1 = new DelegatingJoystick(Gamepad::joystick1);
+    private final Joystick joystick2 = new DelegatingJoystick(Gamepad::joystick2);
+    private final Button buttonA1 = delegatingButton(Gamepad::buttonA1);
+    private final Button buttonB1 = delegatingButton(Gamepad::buttonB1);
+    private final Button buttonX1 = delegatingButton(Gamepad::buttonX1);
+    private final Button buttonY1 = delegatingButton(Gamepad::buttonY1);
+    private final Button buttonA2 = delegatingButton(Gamepad::buttonA2);
+    private final Button buttonB2 = delegatingButton(Gamepad::buttonB2);
+    private final Button buttonX2 = delegatingButton(Gamepad::buttonX2);
+    private final Button buttonY2 = delegatingButton(Gamepad::buttonY2);
+    private final Button buttonMenu = delegatingButton(Gamepad::buttonMenu);
+
+    /**
+     * Verbindet das echte Gamepad. Ab jetzt kommen alle Abfragen von dort.
+     */
+    public void attach(Gamepad gamepad) {
+        this.delegate = gamepad;
+    }
+
+    /** @return {@code true}, sobald ein echtes Gamepad verbunden ist. */
+    public boolean isAttached() {
+        return delegate != null;
+    }
+
+    /**
+     * Wartet am echten Gamepad; solange keines verbunden ist, in kurzen Abständen (ohne Änderung).
+     */
+    @Override
+    public boolean awaitActivity(long timeout, TimeUnit unit) throws InterruptedException {
+        Gamepad d = delegate;
+        if (d != null) return d.awaitActivity(timeout, unit);
+        Thread.sleep(Math.min(unit.toMillis(timeout), 100));
+        return false;
+    }
+
+    private Button delegatingButton(Function<Gamepad, Button> button) {
+        return new Button(() -> {
+            Gamepad d = delegate;
+            return d != null && button.apply(d).isPressed();
+        });
+    }
+
+    private class DelegatingJoystick implements Joystick {
+        private final Function<Gamepad, Joystick> joystick;
+
+        DelegatingJoystick(Function<Gamepad, Joystick> joystick) {
+            this.joystick = joystick;
+        }
+
+        private Joystick current() {
+            Gamepad d = delegate;
+            return d == null ? IDLE_JOYSTICK : joystick.apply(d);
+        }
+
+        @Override public boolean up() { return current().up(); }
+        @Override public boolean down() { return current().down(); }
+        @Override public boolean left() { return current().left(); }
+        @Override public boolean right() { return current().right(); }
+    }
+
+    @Override public Joystick joystick1() { return joystick1; }
+    @Override public Joystick joystick2() { return joystick2; }
+    @Override public Button buttonA1() { return buttonA1; }
+    @Override public Button buttonB1() { return buttonB1; }
+    @Override public Button buttonX1() { return buttonX1; }
+    @Override public Button buttonY1() { return buttonY1; }
+    @Override public Button buttonA2() { return buttonA2; }
+    @Override public Button buttonB2() { return buttonB2; }
+    @Override public Button buttonX2() { return buttonX2; }
+    @Override public Button buttonY2() { return buttonY2; }
+    @Override public Button buttonMenu() { return buttonMenu; }
+}
@@ -0,0 +1,51 @@
+package framework;
+
+/**
+ * Festkomma-Arithmetik im Format Q16.16 (16 Bit vor, 16 Bit nach dem Komma in einem {@code int}).
+ * <p>
+ * Für Simulationen, die auf jedem Rechner bitgenau gleich laufen müssen (Wiederholung, Netzwerkspiel):
+ * Ganzzahl-Rechnung hängt weder von der Hardware noch vom JIT-Compiler ab. Wertebereich etwa ±32768,
+ * Auflösung 1/65536 Pixel. Alle Operationen runden zur kleineren Zahl hin (arithmetischer Shift bzw. floorDiv),
+ * damit links und rechts des Nullpunkts gleich gerundet wird.
+ */
+public final class FixedPoint {
+
+    /** Anzahl der Nachkommabits. */
+    public static final int SHIFT = 16;
+    /** Die Zahl 1. */
+    public static final int ONE = 1 << SHIFT;
+    /** Die Zahl 0,5. */
+    public static final int HALF = ONE >> 1;
+
+    private FixedPoint() {}
+
+    /** Ganze Zahl nach Festkomma. */
+    public static int of(int value) {
+        return value << SHIFT;
+    }
+
+    /** Bruch {@code numerator / denominator} als Festkomma (für Konstanten wie 1,05 = {@code of(105, 100)}). */
+    public static int of(int numerator, int denominator) {
+        return (int) Math.floorDiv((long) numerator << SHIFT, denominator);
+    }
+
+    /** Produkt zweier Festkommazahlen. */
+    public static int mul(int a, int b) {
+        return (int) ((long) a * b >> SHIFT);
+    }
+
+    /** Quotient zweier Festkommazahlen. */
+    public static int div(int a, int b) {
+        return (int) Math.floorDiv((long) a << SHIFT, b);
+    }
+
+    /** Ganzzahliger Anteil (abgerundet), z.B. für die Pixelposition beim Zeichnen. */
+    public static int toInt(int value) {
+        return value >> SHIFT;
+    }
+
+    /** Nur für Anzeige und Ausgabe, nie zurück in die Simulation. */
+    public static double toDouble(int value) {
+        return value / (double) ONE;
+    }
+}
@@ -0,0 +1,347 @@
+package framework;
+
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Nimmt das Spielgeschehen als animiertes GIF oder als Folge von PNG-Bildern auf.
+ * <p>
+ * Einschalten mit {@code -Darcade.record=gif} bzw. {@code png}; weitere Properties: {@code arcade.record.dir}
+ * (Zielordner, Standard {@code .}), {@code arcade.record.fps} (Standard {@value #DEFAULT_FPS}) und
+ * {@code arcade.record.seconds} (Höchstlänge eines Clips, Standard {@value #DEFAULT_SECONDS}). Jeder Start des
+ * Spiels ({@link #start()} bis {@link #close()}) ergibt einen Clip {@code <Spiel>-<Zeit>.gif} bzw. einen Ordner
+ * {@code <Spiel>-<Zeit>/} mit PNGs.
+ * <p>
+ * Das Spiel zeichnet über {@link #paint}: Ist ein Bild fällig, wird direkt in ein Bild aus einem beim ersten Bild
+ * (und bei jeder neuen Größe der Zeichenfläche) angelegten Vorrat gezeichnet (das ist der Hintergrundpuffer) und
+ * dieses dann mit einem {@code drawImage} auf den Bildschirm gebracht; ein eigener Thread kodiert es und gibt es
+ * zurück in den Vorrat. Ist der Vorrat leer, weil das Kodieren nicht hinterherkommt, wird das Bild normal
+ * gezeichnet und nicht aufgenommen. Der EDT wartet also nie auf den Kodierer. Beim Beenden der JVM (z.B. Schließen
+ * des Fensters) schließt ein Shutdown-Hook den Clip ab und wartet auf den Kodierer, damit die Datei vollständig
+ * ist.
+ */
+public final class FrameRecorder implements AutoCloseable {
+
+    /** System-Property: {@code gif} oder {@code png}, sonst ist die Aufnahme aus. */
+    public static final String PROPERTY_FORMAT = "arcade.record";
+    public static final String PROPERTY_DIR = "arcade.record.dir";
+    public static final String PROPERTY_FPS = "arcade.record.fps";
+    public static final String PROPERTY_SECONDS = "arcade.record.seconds";
+    public static final int DEFAULT_FPS = 20;
+    public static final int DEFAULT_SECONDS = 60;
+    /** Bilder im Vorrat; so viele darf der Kodierer im Rückstand sein. */
+    public static final int POOL_SIZE = 8;
+    /** So lange wartet der Shutdown-Hook höchstens auf den Kodierer. */
+    private static final long SHUTDOWN_WAIT_MS = 5000;
+
+    private static final DateTimeFormatter CLIP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final String game;
+    private final String format; // null = aus
+    private final Path directory;
+    private final long frameIntervalNanos;
+    private final int maxFrames;
+
+    private volatile Clip clip;
+    private final Set<Thread> encoders = ConcurrentHashMap.newKeySet(); // auch von schon beendeten Clips
+
+    /** Ein Bild aus dem Vorrat. */
+    private static final class Frame {
+        final BufferedImage image;
+        long nanos;
+
+        Frame(int width, int height) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+    }
+
+    /** Eine laufende Aufnahme mit Vorrat, Warteschlange und Kodier-Thread. */
+    private final class Clip {
+        final Path target;
+        final ArrayBlockingQueue<Frame> free = new ArrayBlockingQueue<>(POOL_SIZE);
+        final ArrayBlockingQueue<Frame> filled = new ArrayBlockingQueue<>(POOL_SIZE);
+        volatile boolean open = true;
+        final Thread encoder;
+
+        // nur im EDT
+        int width = -1;
+        int height = -1;
+        long lastCapture = 0;
+        int frames = 0;
+
+        // Statistik
+        volatile long skipped = 0;
+        volatile long captureNanos = 0;
+
+        Clip(Path target) {
+            this.target = target;
+            encoder = new Thread(this::encode, "FrameRecorder-" + game);
+            encoder.setDaemon(true);
+            encoders.add(encoder);
+            encoder.start();
+        }
+
+        /**
+         * Legt beim ersten Bild den Vorrat in der Größe der Zeichenfläche an. Nach einer Größenänderung werden
+         * die Bilder in alter Größe nach und nach in {@link #paint} ersetzt, der Vorrat bleibt gleich groß.
+         */
+        boolean allocate(int w, int h) {
+            if (w <= 0 || h <= 0) return false;
+            if (w != width || h != height) {
+                if (width >= 0) {
+                    System.out.println("FrameRecorder: Zeichenfläche jetzt " + w + "x" + h + " statt " + width + "x"
+                            + height + ", ersetze den Vorrat");
+                }
+                if (width < 0) {
+                    for (int i = 0; i < POOL_SIZE; i++) free.add(new Frame(w, h));
+                }
+                width = w;
+                height = h;
+            }
+            return true;
+        }
+
+        private void encode() {
+            int written = 0;
+            try (Output out = "gif".equals(format) ? new GifOutput(target) : new PngOutput(target)) {
+                long previous = 0;
+                while (open || !filled.isEmpty()) {
+                    Frame frame = filled.poll(200, TimeUnit.MILLISECONDS);
+                    if (frame == null) continue;
+                    // Anzeigedauer ungefähr: Abstand zum vorherigen Bild (inkl. ausgelassener)
+                    long delay = previous == 0 ? frameIntervalNanos : frame.nanos - previous;
+                    previous = frame.nanos;
+                    out.write(frame.image, delay);
+                    written++;
+                    free.add(frame);
+                }
+            } catch (IOException e) {
+                System.out.println("FrameRecorder: Schreiben von " + target + " fehlgeschlagen: " + e.getMessage());
+            } catch (InterruptedException e) {
+                // abgebrochen
+            }
+            System.out.println("FrameRecorder: " + target + " (" + written + " Bilder, " + skipped
+                    + " ausgelassen, Aufnahme im Schnitt " + String.format("%.2f", captureNanos / 1e6 / Math.max(1, frames))
+                    + " ms)");
+            encoders.remove(Thread.currentThread());
+        }
+    }
+
+    private FrameRecorder(String game, String format, Path directory, int fps, int seconds) {
+        this.game = game;
+        this.format = format;
+        this.directory = directory;
+        this.frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, fps);
+        this.maxFrames = Math.max(1, fps * seconds);
+        if (format != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::finishOnExit, "FrameRecorder-Shutdown"));
+        }
+    }
+
+    /**
+     * Erzeugt die Aufnahme aus den System-Properties; ohne {@link #PROPERTY_FORMAT} eine abgeschaltete, bei der
+     * {@link #paint} nur durchreicht.
+     */
+    public static FrameRecorder fromSystemProperties(String game) {
+        String format = System.getProperty(PROPERTY_FORMAT);
+        if (format != null) format = format.trim().toLowerCase();
+        if (format != null && !format.equals("gif") && !format.equals("png")) {
+            System.out.println("FrameRecorder: Unbekanntes Format " + PROPERTY_FORMAT + "=" + format + " (gif oder png)");
+            format = null;
+        }
+        Path dir = Path.of(System.getProperty(PROPERTY_DIR, "."));
+        int fps = Integer.getInteger(PROPERTY_FPS, DEFAULT_FPS);
+        int seconds = Integer.getInteger(PROPERTY_SECONDS, DEFAULT_SECONDS);
+        return new FrameRecorder(game, format == null || format.isEmpty() ? null : format, dir, fps, seconds);
+    }
+
+    /** @return {@code true}, wenn aufgenommen werden soll (Format gesetzt). */
+    public boolean isEnabled() {
+        return format != null;
+    }
+
+    /** Beginnt einen neuen Clip (beim Start des Spiels); ohne Format wirkungslos. */
+    public synchronized void start() {
+        if (format == null || clip != null) return;
+        String name = game + "-" + LocalDateTime.now().format(CLIP_TIME) + ("gif".equals(format) ? ".gif" : "");
+        clip = new Clip(directory.resolve(name));
+        System.out.println("FrameRecorder: Nehme auf nach " + clip.target);
+    }
+
+    /** Beendet den Clip; der Kodierer schreibt die restlichen Bilder noch im Hintergrund. */
+    @Override
+    public synchronized void close() {
+        Clip c = clip;
+        clip = null;
+        if (c != null) c.open = false;
+    }
+
+    /**
+     * Zeichnet ein Bild und nimmt es auf, wenn eins fällig ist. Aus {@code paintComponent} aufrufen.
+     *
+     * @param screen  Grafik der Zeichenfläche.
+     * @param width   Breite der Zeichenfläche.
+     * @param height  Höhe der Zeichenfläche.
+     * @param painter Zeichnet das Spiel (in den Bildschirm oder in das aufgenommene Bild).
+     */
+    public void paint(Graphics screen, int width, int height, Consumer<Graphics> painter) {
+        Clip c = clip;
+        if (c == null) {
+            painter.accept(screen);
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - c.lastCapture < frameIntervalNanos || !c.allocate(width, height)) {
+            painter.accept(screen);
+            return;
+        }
+        Frame frame = c.free.poll();
+        if (frame == null) {
+            // Kodierer im Rückstand: dieses Bild auslassen
+            c.skipped++;
+            c.lastCapture = now;
+            painter.accept(screen);
+            return;
+        }
+        if (frame.image.getWidth() != c.width || frame.image.getHeight() != c.height) {
+            frame = new Frame(c.width, c.height); // Bild aus der Zeit vor der Größenänderung
+        }
+
+        Graphics2D g = frame.image.createGraphics();
+        try {
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+        screen.drawImage(frame.image, 0, 0, null);
+        frame.nanos = now;
+        c.lastCapture = now;
+        c.filled.add(frame);
+        c.frames++;
+        c.captureNanos += System.nanoTime() - now;
+        if (c.frames >= maxFrames) close();
+    }
+
+    /** Shutdown-Hook: Clip beenden und warten, bis alle Kodierer ihre Dateien geschrieben haben. */
+    private void finishOnExit() {
+        close();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_WAIT_MS);
+        for (Thread encoder : encoders) {
+            long wait = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (wait <= 0) break;
+            try {
+                encoder.join(wait);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // ---------- Ausgabe ----------
+
+    private interface Output extends AutoCloseable {
+        void write(BufferedImage image, long delayNanos) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /** Animiertes GIF, Endlosschleife; die Farben reduziert der GIF-Writer von ImageIO. */
+    private static final class GifOutput implements Output {
+        private final ImageWriter writer;
+        private final ImageOutputStream out;
+        private boolean first = true;
+
+        GifOutput(Path file) throws IOException {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = ImageIO.getImageWritersByFormatName("gif").next();
+            out = ImageIO.createImageOutputStream(file.toFile());
+            if (out == null) throw new IOException("Kann " + file + " nicht öffnen");
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+        }
+
+        @Override
+        public void write(BufferedImage image, long delayNanos) throws IOException {
+            IIOMetadata meta = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+            String formatName = meta.getNativeMetadataFormatName();
+            IIOMetadataNode root = (IIOMetadataNode) meta.getAsTree(formatName);
+
+            IIOMetadataNode control = child(root, "GraphicControlExtension");
+            control.setAttribute("disposalMethod", "none");
+            control.setAttribute("userInputFlag", "FALSE");
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("transparentColorIndex", "0");
+            control.setAttribute("delayTime", String.valueOf(Math.max(2, delayNanos / 10_000_000))); // Hundertstel
+
+            if (first) {
+                IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+                loop.setAttribute("applicationID", "NETSCAPE");
+                loop.setAttribute("authenticationCode", "2.0");
+                loop.setUserObject(new byte[]{1, 0, 0}); // unendlich wiederholen
+                child(root, "ApplicationExtensions").appendChild(loop);
+                first = false;
+            }
+            meta.setFromTree(formatName, root);
+            writer.writeToSequence(new IIOImage(image, null, meta), null);
+        }
+
+        private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+            for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+                if (n.getNodeName().equals(name)) return (IIOMetadataNode) n;
+            }
+            IIOMetadataNode node = new IIOMetadataNode(name);
+            parent.appendChild(node);
+            return node;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (!first) writer.endWriteSequence();
+            } finally {
+                writer.dispose();
+                out.close();
+            }
+        }
+    }
+
+    /** Ordner mit {@code frame-00001.png}, ... (Bildrate über {@code arcade.record.fps}). */
+    private static final class PngOutput implements Output {
+        private final Path directory;
+        private int index = 0;
+
+        PngOutput(Path directory) throws IOException {
+            this.directory = Files.createDirectories(directory);
+        }
+
+        @Override
+        public void write(BufferedImage image, long delayNanos) throws IOException {
+            index++;
+            ImageIO.write(image, "png", directory.resolve(String.format("frame-%05d.png", index)).toFile());
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,207 @@
+package framework;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * Anzeige für die Zeichenfläche eines Spiels: Das Spiel zeichnet in seiner eigenen (logischen) Auflösung,
+ * z.B. 600×450, in ein beschleunigtes {@link VolatileImage}; dieses wird mit einem einzigen {@code drawImage}
+ * auf die tatsächliche Fenster- bzw. Bildschirmgröße gebracht. Auf einem 1080p-Monitor bleibt der Zeichenaufwand
+ * so der einer 600×450-Fläche.
+ * <p>
+ * Konfiguration über System-Properties:
+ * <ul>
+ *     <li>{@code arcade.display}: {@code window} (Standard), {@code borderless} (randloses Fenster über den ganzen
+ *     Bildschirm) oder {@code fullscreen} (exklusiver Vollbildmodus, sonst randlos)</li>
+ *     <li>{@code arcade.display.scale}: Vergrößerung im Fenstermodus (Standard 1)</li>
+ *     <li>{@code arcade.display.integerScale}: nur ganzzahlig vergrößern, scharfe Pixel mit schwarzem Rand
+ *     (Standard {@code true}); sonst bildschirmfüllend mit bilinearer Interpolation</li>
+ * </ul>
+ * Die Spiele rufen weiter {@code repaint()} auf ihrer Zeichenfläche auf; ein eigener {@link RepaintManager} leitet
+ * das an die Anzeige weiter, die das ganze Bild neu zusammensetzt.
+ */
+public class GameDisplay extends JComponent {
+
+    public static final String PROPERTY_MODE = "arcade.display";
+    public static final String PROPERTY_SCALE = "arcade.display.scale";
+    public static final String PROPERTY_INTEGER_SCALE = "arcade.display.integerScale";
+
+    /** Art der Ausgabe. */
+    public enum Mode { WINDOW, BORDERLESS, FULLSCREEN }
+
+    private final Mode mode;
+    private final int windowScale;
+    private final boolean integerScale;
+
+    private JComponent view;
+    private VolatileImage buffer;
+
+    /**
+     * @param mode         Art der Ausgabe.
+     * @param windowScale  Vergrößerung im Fenstermodus.
+     * @param integerScale Nur ganzzahlig vergrößern.
+     */
+    public GameDisplay(Mode mode, int windowScale, boolean integerScale) {
+        this.mode = mode;
+        this.windowScale = Math.max(1, windowScale);
+        this.integerScale = integerScale;
+        setOpaque(true);
+        setBackground(Color.BLACK);
+        setLayout(null);
+        RedirectingRepaintManager.install();
+    }
+
+    /** Erzeugt die Anzeige aus den System-Properties. */
+    public static GameDisplay fromSystemProperties() {
+        String value = System.getProperty(PROPERTY_MODE, "window").trim();
+        Mode mode;
+        try {
+            mode = Mode.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("GameDisplay: Unbekannter Modus " + PROPERTY_MODE + "=" + value + ", nehme window");
+            mode = Mode.WINDOW;
+        }
+        String integer = System.getProperty(PROPERTY_INTEGER_SCALE);
+        return new GameDisplay(mode, Integer.getInteger(PROPERTY_SCALE, 1),
+                integer == null || Boolean.parseBoolean(integer));
+    }
+
+    /**
+     * Zeigt das Fenster mit dieser Anzeige als Inhalt an (je nach {@link Mode} als Fenster, randlos oder im
+     * Vollbild). Muss vor dem ersten {@code setVisible} aufgerufen werden.
+     */
+    public void showIn(JFrame frame) {
+        frame.getContentPane().add(this, BorderLayout.CENTER);
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        switch (mode) {
+            case WINDOW -> {
+                frame.pack();
+                frame.setLocationRelativeTo(null);
+                frame.setVisible(true);
+            }
+            case BORDERLESS -> showBorderless(frame, device);
+            case FULLSCREEN -> {
+                if (device.isFullScreenSupported()) {
+                    frame.setUndecorated(true);
+                    device.setFullScreenWindow(frame);
+                    System.out.println("GameDisplay: Vollbild " + device.getDisplayMode().getWidth() + "x"
+                            + device.getDisplayMode().getHeight());
+                } else {
+                    System.out.println("GameDisplay: Exklusives Vollbild nicht unterstützt, nehme randloses Fenster");
+                    showBorderless(frame, device);
+                }
+            }
+        }
+    }
+
+    private static void showBorderless(JFrame frame, GraphicsDevice device) {
+        frame.setUndecorated(true);
+        frame.setBounds(device.getDefaultConfiguration().getBounds());
+        frame.setVisible(true);
+    }
+
+    /**
+     * Tauscht die Zeichenfläche aus. Ihre logische Auflösung ist ihre {@code getPreferredSize()}.
+     * Im Fenstermodus passt sich das Fenster an.
+     */
+    public void setView(JComponent next) {
+        if (view != null) remove(view);
+        view = next;
+        if (next != null) {
+            next.setDoubleBuffered(false); // zeichnet ohnehin in den Puffer der Anzeige
+            add(next);
+        }
+        revalidate();
+        doLayout();
+        if (mode == Mode.WINDOW) {
+            Window window = SwingUtilities.getWindowAncestor(this);
+            if (window != null) window.pack();
+        }
+        repaint();
+    }
+
+    private Dimension logicalSize() {
+        Dimension size = view != null ? view.getPreferredSize() : null;
+        return size == null || size.width <= 0 || size.height <= 0 ? new Dimension(600, 450) : size;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Dimension logical = logicalSize();
+        return new Dimension(logical.width * windowScale, logical.height * windowScale);
+    }
+
+    @Override
+    public void doLayout() {
+        if (view != null) {
+            Dimension logical = logicalSize();
+            view.setBounds(0, 0, logical.width, logical.height);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, getWidth(), getHeight());
+        if (view == null) return;
+
+        Dimension logical = logicalSize();
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) return;
+
+        // Skalierung: ganzzahlig (mind. 1, bei zu kleiner Fläche doch verkleinern) oder füllend
+        double scale = Math.min((double) getWidth() / logical.width, (double) getHeight() / logical.height);
+        if (integerScale && scale >= 1) scale = Math.floor(scale);
+        int width = (int) Math.round(logical.width * scale);
+        int height = (int) Math.round(logical.height * scale);
+        int x = (getWidth() - width) / 2;
+        int y = (getHeight() - height) / 2;
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, scale == Math.rint(scale)
+                ? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+                : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        do {
+            if (buffer == null || buffer.getWidth() != logical.width || buffer.getHeight() != logical.height
+                    || buffer.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (buffer != null) buffer.flush();
+                buffer = gc.createCompatibleVolatileImage(logical.width, logical.height);
+            }
+            Graphics2D vg = buffer.createGraphics();
+            try {
+                view.paint(vg);
+            } finally {
+                vg.dispose();
+            }
+            g2.drawImage(buffer, x, y, width, height, null);
+        } while (buffer.contentsLost());
+    }
+
+    /** Kinder werden nur in den Puffer gezeichnet (siehe {@link #paintComponent}). */
+    @Override
+    protected void paintChildren(Graphics g) {}
+
+    /**
+     * Leitet {@code repaint()} von Komponenten innerhalb einer {@link GameDisplay} an die Anzeige weiter; direkt
+     * gezeichnet landeten sie unskaliert oben links.
+     */
+    private static final class RedirectingRepaintManager extends RepaintManager {
+
+        static void install() {
+            if (!(RepaintManager.currentManager((JComponent) null) instanceof RedirectingRepaintManager)) {
+                RepaintManager.setCurrentManager(new RedirectingRepaintManager());
+            }
+        }
+
+        @Override
+        public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+            GameDisplay display = (GameDisplay) SwingUtilities.getAncestorOfClass(GameDisplay.class, c);
+            if (display != null) {
+                super.addDirtyRegion(display, 0, 0, display.getWidth(), display.getHeight());
+            } else {
+                super.addDirtyRegion(c, x, y, w, h);
+            }
+        }
+    }
+}
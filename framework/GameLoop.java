@@ -0,0 +1,231 @@
+package framework;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spielschleife mit festem Takt in einem eigenen Thread (ersetzt {@code java.util.Timer}).
+ * <p>
+ * Anders als ein Timer kann die Schleife mit {@link #park()} ganz angehalten werden: Der Thread parkt dann,
+ * bis {@link #unpark()} ihn weckt, und wacht dazwischen nicht auf. Nach dem Aufwachen läuft der nächste Tick
+ * sofort; verpasste Ticks werden nicht nachgeholt.
+ * <p>
+ * Solange die Schleife läuft, überwacht der {@link LoopWatchdog} ihren Herzschlag. Mit {@link #stage(String)}
+ * kann der Tick melden, in welchem Abschnitt er gerade ist; das steht dann im Bericht, falls er hängt.
+ */
+public class GameLoop {
+
+    // Liegt die Schleife weiter zurück, wird der Takt neu angesetzt statt Ticks nachzuholen
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    // So lange warten stop() und start() höchstens auf einen Tick, der noch läuft
+    private static final long STOP_TIMEOUT_MS = 2_000;
+
+    private final String name;
+    private final long periodNanos;
+    private final Runnable tick;
+    private final GameMetrics metrics; // darf null sein
+
+    private volatile Thread thread;
+    private volatile boolean parkRequested = false;
+    // Gestoppter Thread, dessen letzter Tick noch läuft; solange startet kein neuer (beide unter this)
+    private Thread stopping;
+    private boolean startPending = false;
+
+    // Herzschlag für den LoopWatchdog: Beginn des laufenden Ticks (0 = kein Tick) und aktueller Abschnitt
+    private volatile long tickStartedNanos = 0;
+    private volatile String stage = STAGE_TICK;
+    private static final String STAGE_TICK = "updateGame";
+
+    /**
+     * @param name     Name des Threads.
+     * @param periodMs Abstand der Ticks in Millisekunden.
+     * @param tick     Wird jeden Tick im Schleifen-Thread aufgerufen.
+     */
+    public GameLoop(String name, long periodMs, Runnable tick) {
+        this(name, periodMs, tick, null);
+    }
+
+    /**
+     * @param metrics Zählt Ticks, verspätete Ticks und Tick-Dauer (darf {@code null} sein).
+     */
+    public GameLoop(String name, long periodMs, Runnable tick, GameMetrics metrics) {
+        this.name = name;
+        this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        this.tick = tick;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Startet die Schleife (falls sie nicht schon läuft). Ein vorher angefordertes {@link #park()} wird aufgehoben.
+     * <p>
+     * Steckt der Thread eines vorigen {@link #stop()} noch in seinem Tick, wird erst auf ihn gewartet. Ist er dann
+     * immer noch nicht fertig, startet die Schleife erst, wenn er sich beendet hat; zwei Threads ticken nie zugleich.
+     */
+    public void start() {
+        Thread old;
+        synchronized (this) {
+            if (thread != null) return;
+            old = stopping;
+        }
+        if (old != null && old != Thread.currentThread()) awaitEnd(old);
+        synchronized (this) {
+            if (thread != null) return;
+            parkRequested = false;
+            if (stopping != null) {
+                startPending = true;
+                System.out.println("GameLoop: " + name + " startet, sobald der alte Tick fertig ist.");
+                return;
+            }
+            startThread();
+        }
+    }
+
+    private void startThread() {
+        Thread t = new Thread(this::run, name);
+        t.setDaemon(true);
+        thread = t;
+        t.start();
+        LoopWatchdog.shared().watch(this);
+    }
+
+    /**
+     * Stoppt die Schleife und wartet, bis der laufende Tick fertig ist (höchstens {@value #STOP_TIMEOUT_MS} ms).
+     */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            startPending = false;
+            t = thread;
+            thread = null;
+            if (t != null) stopping = t;
+        }
+        if (t == null) return;
+        LoopWatchdog.shared().unwatch(this);
+        LockSupport.unpark(t);
+        if (t != Thread.currentThread()) awaitEnd(t);
+    }
+
+    private void awaitEnd(Thread t) {
+        try {
+            t.join(STOP_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (t.isAlive()) {
+            System.out.println("GameLoop: " + name + " hat seinen Tick nach " + STOP_TIMEOUT_MS
+                    + " ms noch nicht beendet.");
+        }
+    }
+
+    /**
+     * Hält die Schleife nach dem laufenden Tick an, bis {@link #unpark()} aufgerufen wird.
+     * Darf auch aus dem Tick selbst aufgerufen werden.
+     */
+    public void park() {
+        parkRequested = true;
+    }
+
+    /**
+     * Setzt eine angehaltene Schleife sofort fort.
+     */
+    public void unpark() {
+        parkRequested = false;
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+            LoopWatchdog.shared().wake();
+        }
+    }
+
+    /**
+     * Meldet den Abschnitt, in dem der laufende Tick gerade ist (z.B. {@code "spawnFood"}). Kostet nur einen
+     * Schreibzugriff; zu Beginn jedes Ticks gilt wieder {@code "updateGame"}.
+     */
+    public void stage(String stage) {
+        this.stage = stage;
+    }
+
+    /** @return Name der Schleife (Thread-Name). */
+    public String getName() {
+        return name;
+    }
+
+    /** Beginn des laufenden Ticks ({@link System#nanoTime()}), oder 0 wenn gerade kein Tick läuft. */
+    long tickStartedNanos() {
+        return tickStartedNanos;
+    }
+
+    String currentStage() {
+        return stage;
+    }
+
+    Thread thread() {
+        return thread;
+    }
+
+    GameMetrics metrics() {
+        return metrics;
+    }
+
+    /** @return {@code true}, wenn die Schleife angehalten ist oder nach dem laufenden Tick anhält. */
+    public boolean isParked() {
+        return parkRequested;
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        try {
+            loop(self);
+        } finally {
+            synchronized (this) {
+                if (stopping == self) stopping = null;
+                if (startPending && stopping == null) {
+                    startPending = false;
+                    startThread();
+                }
+            }
+        }
+    }
+
+    private void loop(Thread self) {
+        long next = System.nanoTime();
+
+        while (thread == self) {
+            if (parkRequested) {
+                while (parkRequested && thread == self) LockSupport.park(this);
+                next = System.nanoTime();
+                continue;
+            }
+
+            ArcadeEvents.TickEvent event = new ArcadeEvents.TickEvent();
+            event.begin();
+            long started = System.nanoTime();
+            stage = STAGE_TICK;
+            tickStartedNanos = started;
+            try {
+                tick.run();
+            } catch (RuntimeException e) {
+                System.out.println("GameLoop: Fehler im Tick von " + name + ": " + e);
+                e.printStackTrace();
+            } finally {
+                tickStartedNanos = 0;
+            }
+            long duration = System.nanoTime() - started;
+            event.end();
+            if (metrics != null) metrics.tickCompleted(started - next, duration, periodNanos);
+            if (event.shouldCommit()) {
+                event.game = metrics != null ? metrics.getGame() : name;
+                event.lateness = started - next;
+                event.late = started - next + duration > periodNanos;
+                event.commit();
+            }
+
+            next += periodNanos;
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0 && thread == self && !parkRequested) {
+                LockSupport.parkNanos(this, wait);
+            }
+            if (-wait > MAX_CATCH_UP_TICKS * periodNanos) next = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package framework;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Zählt Kennzahlen eines Spiels und stellt sie als MBean bereit, damit ein laufender Automat ohne Profiler
+ * beobachtet werden kann (z.B. {@code jconsole} per Remote-JMX).
+ * <p>
+ * Alle Zähler sind {@link LongAdder} bzw. {@link LatencyStats}: Die Spielschleife, der Input-Thread und der
+ * Event-Dispatch-Thread zählen ohne Sperre und ohne sich gegenseitig auszubremsen; gerechnet wird erst beim
+ * Abruf über JMX. Die Quellen:
+ * <ul>
+ *     <li>Ticks: {@link GameLoop} (mit diesem Objekt erzeugt)</li>
+ *     <li>Bilder: {@link #frameRequested()} beim {@code repaint()}, {@link #beginPaint()} in {@code paintComponent}</li>
+ *     <li>Eingaben: der mit {@link #meter(InputListener)} umhüllte Listener</li>
+ *     <li>HID-Reports: {@link UsbGamepad} (gilt für alle Spiele gemeinsam)</li>
+ *     <li>Highscores: der mit {@link #setHighScoreStore(HighScoreStore)} gesetzte Speicher</li>
+ * </ul>
+ * Angemeldet wird beim Start des Spiels mit {@link #register()}, abgemeldet in {@code stop()}.
+ * <p>
+ * Für Tiefenanalysen erzeugen dieselben Stellen zusätzlich Flight-Recorder-Ereignisse ({@link ArcadeEvents}).
+ */
+public class GameMetrics implements GameMetricsMXBean {
+
+    // HID-Reports kommen aus den Threads der HID-Bibliothek, unabhängig vom gerade laufenden Spiel
+    private static final LongAdder HID_RECEIVED = new LongAdder();
+    private static final LongAdder HID_FILTERED = new LongAdder();
+    // Zuletzt angemeldetes Spiel, für Ereignisse ohne eigenes Spiel (HID-Reports)
+    private static volatile String activeGame = "";
+
+    private final String game;
+
+    private final ObjectName objectName;
+
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder lateTicks = new LongAdder();
+    private final LatencyStats tickDuration = new LatencyStats();
+    private final LongAdder framesRequested = new LongAdder();
+    private final LongAdder framesPainted = new LongAdder();
+    private final LongAdder inputEvents = new LongAdder();
+    private final Rate tickRate = new Rate();
+    private final Rate inputRate = new Rate();
+
+    private volatile HighScoreStore highScoreStore;
+
+    /**
+     * @param game Name des Spiels, Teil des MBean-Namens ({@code framework:type=GameMetrics,name=<game>}).
+     */
+    public GameMetrics(String game) {
+        this.game = game;
+        try {
+            this.objectName = new ObjectName("framework:type=GameMetrics,name=" + ObjectName.quote(game));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Ungültiger Spielname: " + game, e);
+        }
+    }
+
+    /**
+     * Meldet die MBean beim Plattform-MBean-Server an. Eine gleichnamige ältere Anmeldung wird ersetzt.
+     */
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            try {
+                server.registerMBean(this, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(this, objectName);
+            }
+            activeGame = game;
+        } catch (JMException e) {
+            System.out.println("GameMetrics: " + objectName + " konnte nicht angemeldet werden: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Meldet die MBean wieder ab (die Zähler bleiben erhalten).
+     */
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // war nicht angemeldet
+        } catch (JMException e) {
+            System.out.println("GameMetrics: " + objectName + " konnte nicht abgemeldet werden: " + e.getMessage());
+        }
+    }
+
+    /** @return Der Name des Spiels. */
+    public String getGame() {
+        return game;
+    }
+
+    /** @return Das zuletzt angemeldete Spiel (leer, solange keines läuft). */
+    static String activeGame() {
+        return activeGame;
+    }
+
+    // ---------- Zählen (heiße Pfade) ----------
+
+    /**
+     * Ein Tick der {@link GameLoop}.
+     *
+     * @param lateNanos     Wie viel später als geplant der Tick begonnen hat.
+     * @param durationNanos Laufzeit des Ticks.
+     * @param periodNanos   Takt der Schleife.
+     */
+    void tickCompleted(long lateNanos, long durationNanos, long periodNanos) {
+        ticks.increment();
+        tickDuration.record(durationNanos);
+        if (lateNanos + durationNanos > periodNanos) lateTicks.increment();
+    }
+
+    /** Vor jedem {@code repaint()} aufrufen. */
+    public void frameRequested() {
+        framesRequested.increment();
+    }
+
+    /**
+     * Am Anfang von {@code paintComponent} aufrufen; das Ergebnis am Ende an {@link #endPaint} übergeben.
+     */
+    public ArcadeEvents.PaintEvent beginPaint() {
+        framesPainted.increment();
+        ArcadeEvents.PaintEvent event = new ArcadeEvents.PaintEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Am Ende von {@code paintComponent} aufrufen. */
+    public void endPaint(ArcadeEvents.PaintEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = game;
+            event.commit();
+        }
+    }
+
+    /** Vor einem Ereignis an den InputListener; das Ergebnis danach an {@link #endInput} übergeben. */
+    ArcadeEvents.InputDispatchEvent beginInput() {
+        inputEvents.increment();
+        ArcadeEvents.InputDispatchEvent event = new ArcadeEvents.InputDispatchEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Nach einem Ereignis an den InputListener. */
+    void endInput(ArcadeEvents.InputDispatchEvent event, String action) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = game;
+            event.action = action;
+            event.commit();
+        }
+    }
+
+    /**
+     * Ein HID-Report eines USB-Gamepads.
+     *
+     * @param changed {@code false}, wenn der Report keinen Zustandswechsel enthielt und verworfen wurde.
+     */
+    static void hidReport(boolean changed) {
+        HID_RECEIVED.increment();
+        if (!changed) HID_FILTERED.increment();
+    }
+
+    /**
+     * Umhüllt den Listener des Spiels, sodass jedes Ereignis gezählt wird.
+     */
+    public InputListener meter(InputListener listener) {
+        return new MeteredInputListener(listener, this);
+    }
+
+    /**
+     * Setzt den Highscore-Speicher, dessen Schreibzeiten angezeigt werden.
+     */
+    public void setHighScoreStore(HighScoreStore store) {
+        this.highScoreStore = store;
+        store.setGame(game);
+    }
+
+    // ---------- MXBean ----------
+
+    @Override public long getTicks() { return ticks.sum(); }
+    @Override public double getTicksPerSecond() { return tickRate.perSecond(ticks.sum()); }
+    @Override public long getLateTicks() { return lateTicks.sum(); }
+    @Override public double getMeanTickMillis() { return tickDuration.getMeanMillis(); }
+    @Override public double getMaxTickMillis() { return tickDuration.getMaxMillis(); }
+
+    @Override public long getFramesRequested() { return framesRequested.sum(); }
+    @Override public long getFramesPainted() { return framesPainted.sum(); }
+
+    @Override
+    public long getFramesDropped() {
+        // Gezeichnet zuerst lesen, damit eine gerade laufende Anforderung nicht als verworfen zählt
+        long painted = framesPainted.sum();
+        return Math.max(0, framesRequested.sum() - painted);
+    }
+
+    @Override public long getInputEvents() { return inputEvents.sum(); }
+    @Override public double getInputEventsPerSecond() { return inputRate.perSecond(inputEvents.sum()); }
+    @Override public long getHidReportsReceived() { return HID_RECEIVED.sum(); }
+    @Override public long getHidReportsFiltered() { return HID_FILTERED.sum(); }
+
+    @Override
+    public long getHighScoreWrites() {
+        HighScoreStore store = highScoreStore;
+        return store == null ? 0 : store.getWriteLatency().getCount();
+    }
+
+    @Override
+    public double getMeanHighScoreWriteMillis() {
+        HighScoreStore store = highScoreStore;
+        return store == null ? 0 : store.getWriteLatency().getMeanMillis();
+    }
+
+    @Override
+    public double getMaxHighScoreWriteMillis() {
+        HighScoreStore store = highScoreStore;
+        return store == null ? 0 : store.getWriteLatency().getMaxMillis();
+    }
+
+    @Override
+    public double getHighScoreWriteAmplification() {
+        HighScoreStore store = highScoreStore;
+        return store == null ? 1.0 : store.getWriteAmplification();
+    }
+
+    @Override
+    public void resetPeaks() {
+        tickDuration.resetMax();
+        HighScoreStore store = highScoreStore;
+        if (store != null) store.getWriteLatency().resetMax();
+    }
+
+    /**
+     * Rate eines Zählers zwischen zwei Abrufen; wird öfter als einmal pro Sekunde abgefragt,
+     * bleibt es beim letzten Wert.
+     */
+    private static final class Rate {
+        private long lastCount = 0;
+        private long lastNanos = System.nanoTime();
+        private double lastRate = 0;
+
+        synchronized double perSecond(long count) {
+            long now = System.nanoTime();
+            long elapsed = now - lastNanos;
+            if (elapsed >= 1_000_000_000L) {
+                lastRate = (count - lastCount) * 1e9 / elapsed;
+                lastCount = count;
+                lastNanos = now;
+            }
+            return lastRate;
+        }
+    }
+}
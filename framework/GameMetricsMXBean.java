@@ -0,0 +1,69 @@
+package framework;
+
+/**
+ * Kennzahlen eines laufenden Spiels über JMX (z.B. mit JConsole oder VisualVM unter
+ * {@code framework:type=GameMetrics}). Siehe {@link GameMetrics}.
+ * <p>
+ * Raten ("pro Sekunde") beziehen sich auf die Zeit seit dem letzten Abruf derselben Rate, mindestens eine Sekunde.
+ */
+public interface GameMetricsMXBean {
+
+    // --- Spielschleife ---
+
+    /** @return Ausgeführte Ticks seit dem Start. */
+    long getTicks();
+
+    /** @return Ticks pro Sekunde. */
+    double getTicksPerSecond();
+
+    /** @return Ticks, die nicht innerhalb ihres Taktes fertig wurden (später Start oder zu lange Laufzeit). */
+    long getLateTicks();
+
+    /** @return Mittlere Laufzeit eines Ticks in Millisekunden. */
+    double getMeanTickMillis();
+
+    /** @return Längste Laufzeit eines Ticks in Millisekunden (seit dem Start bzw. {@link #resetPeaks()}). */
+    double getMaxTickMillis();
+
+    // --- Zeichnen ---
+
+    /** @return Angeforderte Bilder ({@code repaint()}). */
+    long getFramesRequested();
+
+    /** @return Tatsächlich gezeichnete Bilder ({@code paintComponent}). */
+    long getFramesPainted();
+
+    /** @return Angeforderte, aber von Swing zusammengelegte und nie gezeichnete Bilder. */
+    long getFramesDropped();
+
+    // --- Eingaben ---
+
+    /** @return Ereignisse an den InputListener des Spiels seit dem Start. */
+    long getInputEvents();
+
+    /** @return Ereignisse an den InputListener pro Sekunde. */
+    double getInputEventsPerSecond();
+
+    /** @return Empfangene HID-Reports aller USB-Gamepads (für den ganzen Automaten). */
+    long getHidReportsReceived();
+
+    /** @return HID-Reports ohne Zustandswechsel (Rauschen in der Deadzone, Wiederholungen), die verworfen wurden. */
+    long getHidReportsFiltered();
+
+    // --- Highscores ---
+
+    /** @return Schreibvorgänge ins Highscore-Journal (einschließlich fsync). */
+    long getHighScoreWrites();
+
+    /** @return Mittlere Dauer eines Schreibvorgangs in Millisekunden. */
+    double getMeanHighScoreWriteMillis();
+
+    /** @return Längste Dauer eines Schreibvorgangs in Millisekunden. */
+    double getMaxHighScoreWriteMillis();
+
+    /** @return Geschriebene Bytes pro gespeichertem Byte (siehe {@link HighScoreStore#getWriteAmplification()}). */
+    double getHighScoreWriteAmplification();
+
+    /** Setzt die Maxima (Tick-Dauer, Schreibdauer) zurück. */
+    void resetPeaks();
+}
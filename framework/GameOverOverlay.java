@@ -0,0 +1,242 @@
+package framework;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Game-Over-Anzeige mit Initialen-Eingabe, die vom Spiel selbst gezeichnet und nur mit dem Gamepad bedient wird.
+ * <p>
+ * Ersetzt die blockierenden {@code JOptionPane}-Dialoge: Die Eingabe-Methoden ({@link #up()}, {@link #confirm()}, ...)
+ * werden aus dem InputListener aufgerufen und merken sich das Ereignis nur. Ausgewertet wird es in
+ * {@link #update()}, das die Spielschleife jeden Tick aufruft, solange die Anzeige sichtbar ist. Die Schleife
+ * läuft also weiter, und die Rückrufe ({@code onNameEntered}, {@code onRestart}) kommen im Spiel-Thread an.
+ * <p>
+ * Bedienung bei der Namenseingabe: Joystick hoch/runter wählt den Buchstaben, links/rechts die Stelle,
+ * A bzw. MENU bestätigt. Wird nach {@link #ENTRY_TIMEOUT_SECONDS} Sekunden nichts bestätigt, gelten die aktuellen
+ * Initialen. In der Zusammenfassung startet jede Eingabe die nächste Runde – nach einer kurzen Sperre,
+ * damit der beim Verlieren noch gedrückte Joystick nicht sofort neu startet.
+ */
+public class GameOverOverlay {
+
+    /** Anzahl der Initialen. */
+    public static final int NAME_LENGTH = 3;
+    /** Nach so vielen Sekunden ohne Bestätigung wird die Namenseingabe automatisch abgeschlossen. */
+    public static final int ENTRY_TIMEOUT_SECONDS = 30;
+
+    private static final long RESTART_LOCK_NANOS = TimeUnit.MILLISECONDS.toNanos(600);
+    private static final long ENTRY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(ENTRY_TIMEOUT_SECONDS);
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-";
+    private static final String[] LETTERS = new String[ALPHABET.length()];
+    static {
+        for (int i = 0; i < LETTERS.length; i++) LETTERS[i] = String.valueOf(ALPHABET.charAt(i));
+    }
+
+    private static final Color SHADE = new Color(0, 0, 0, 190);
+    private static final Color TITLE_COLOR = new Color(255, 70, 70);
+    private static final Color HINT_COLOR = new Color(170, 170, 170);
+    private static final Font TITLE_FONT = new Font("Monospaced", Font.BOLD, 40);
+    private static final Font TEXT_FONT = new Font("Monospaced", Font.BOLD, 18);
+    private static final Font LETTER_FONT = new Font("Monospaced", Font.BOLD, 44);
+    private static final Font HINT_FONT = new Font("Monospaced", Font.PLAIN, 14);
+
+    // Eingabe-Ereignisse, vom Input-Thread eingestellt und im Spiel-Thread abgearbeitet
+    private static final int IN_UP = 0, IN_DOWN = 1, IN_LEFT = 2, IN_RIGHT = 3, IN_CONFIRM = 4;
+    private final int[] inputs = new int[16];
+    private int inputHead = 0;
+    private int inputCount = 0;
+
+    private enum State {HIDDEN, NAME_ENTRY, SUMMARY}
+
+    private final Consumer<String> onNameEntered;
+    private final Runnable onRestart;
+
+    // Geschützt durch "this"
+    private volatile State state = State.HIDDEN;
+    private String title = "";
+    private String[] lines = new String[0];
+    private final int[] letters = new int[NAME_LENGTH]; // bleibt für die nächste Eingabe erhalten
+    private int cursor = 0;
+    private long shownAt = 0;
+
+    /**
+     * @param onNameEntered Erhält die bestätigten Initialen (im Spiel-Thread); darf {@code null} sein.
+     * @param onRestart     Startet die nächste Runde (im Spiel-Thread).
+     */
+    public GameOverOverlay(Consumer<String> onNameEntered, Runnable onRestart) {
+        this.onNameEntered = onNameEntered;
+        this.onRestart = onRestart;
+    }
+
+    /**
+     * Zeigt die Initialen-Eingabe an. Nach der Bestätigung geht es mit denselben Zeilen in die
+     * Zusammenfassung über, solange {@code onNameEntered} nicht {@link #showSummary} mit neuen Zeilen aufruft.
+     */
+    public synchronized void showNameEntry(String title, String... lines) {
+        show(State.NAME_ENTRY, title, lines);
+        cursor = 0;
+    }
+
+    /**
+     * Zeigt die Zusammenfassung an; jede Eingabe startet danach die nächste Runde.
+     */
+    public synchronized void showSummary(String title, String... lines) {
+        show(State.SUMMARY, title, lines);
+    }
+
+    private void show(State newState, String title, String[] lines) {
+        this.title = title;
+        this.lines = lines.clone();
+        this.shownAt = System.nanoTime();
+        this.inputCount = 0;
+        this.state = newState;
+    }
+
+    /** @return {@code true}, solange die Anzeige die Eingaben des Spiels übernimmt. */
+    public boolean isVisible() {
+        return state != State.HIDDEN;
+    }
+
+    /**
+     * @return {@code true}, wenn die Zusammenfassung steht und nur noch auf eine Eingabe wartet
+     *         (kein Countdown, keine Sperre, nichts in der Warteschlange) – dann darf das Spiel in den Leerlauf.
+     */
+    public synchronized boolean isSettled() {
+        return state == State.SUMMARY && inputCount == 0 && System.nanoTime() - shownAt >= RESTART_LOCK_NANOS;
+    }
+
+    // ---------- Eingaben (aus dem InputListener) ----------
+
+    public void up() { push(IN_UP); }
+    public void down() { push(IN_DOWN); }
+    public void left() { push(IN_LEFT); }
+    public void right() { push(IN_RIGHT); }
+    public void confirm() { push(IN_CONFIRM); }
+
+    private synchronized void push(int input) {
+        if (state == State.HIDDEN || inputCount == inputs.length) return; // volle Warteschlange: Ereignis verwerfen
+        inputs[(inputHead + inputCount) % inputs.length] = input;
+        inputCount++;
+    }
+
+    // ---------- Spielschleife ----------
+
+    /**
+     * Wertet die gesammelten Eingaben aus. Aus der Spielschleife aufrufen, solange {@link #isVisible()} gilt.
+     */
+    public void update() {
+        String enteredName = null;
+        boolean restart = false;
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (state == State.NAME_ENTRY && now - shownAt >= ENTRY_TIMEOUT_NANOS) {
+                enteredName = finishEntry(now);
+            }
+
+            while (inputCount > 0 && enteredName == null && !restart) {
+                int input = inputs[inputHead];
+                inputHead = (inputHead + 1) % inputs.length;
+                inputCount--;
+
+                if (state == State.NAME_ENTRY) {
+                    switch (input) {
+                        case IN_UP -> letters[cursor] = (letters[cursor] + 1) % ALPHABET.length();
+                        case IN_DOWN -> letters[cursor] = (letters[cursor] + ALPHABET.length() - 1) % ALPHABET.length();
+                        case IN_LEFT -> cursor = Math.max(0, cursor - 1);
+                        case IN_RIGHT -> cursor = Math.min(NAME_LENGTH - 1, cursor + 1);
+                        case IN_CONFIRM -> {
+                            if (cursor < NAME_LENGTH - 1) cursor++;
+                            else enteredName = finishEntry(now);
+                        }
+                        default -> {}
+                    }
+                } else if (state == State.SUMMARY && now - shownAt >= RESTART_LOCK_NANOS) {
+                    state = State.HIDDEN;
+                    restart = true;
+                }
+            }
+        }
+
+        // Rückrufe außerhalb der Sperre, damit das Zeichnen nicht auf das Spiel warten muss
+        if (enteredName != null && onNameEntered != null) onNameEntered.accept(enteredName);
+        if (restart) onRestart.run();
+    }
+
+    private String finishEntry(long now) {
+        StringBuilder name = new StringBuilder(NAME_LENGTH);
+        for (int letter : letters) name.append(ALPHABET.charAt(letter));
+        state = State.SUMMARY;
+        shownAt = now;
+        inputCount = 0;
+        return name.toString();
+    }
+
+    // ---------- Rendering ----------
+
+    /**
+     * Zeichnet die Anzeige über das Spielfeld. Tut nichts, wenn sie nicht sichtbar ist.
+     */
+    public synchronized void render(Graphics g, int width, int height) {
+        State current = state;
+        if (current == State.HIDDEN) return;
+
+        g.setColor(SHADE);
+        g.fillRect(0, 0, width, height);
+
+        int y = height / 4;
+        g.setColor(TITLE_COLOR);
+        g.setFont(TITLE_FONT);
+        drawCentered(g, title, width, y);
+
+        g.setColor(Color.WHITE);
+        g.setFont(TEXT_FONT);
+        for (String line : lines) {
+            y += 28;
+            drawCentered(g, line, width, y);
+        }
+
+        String hint;
+        if (current == State.NAME_ENTRY) {
+            y += 70;
+            drawLetters(g, width, y);
+            y += 20;
+            hint = "Joystick: Buchstabe wählen   A/MENU: bestätigen";
+        } else {
+            hint = "A/MENU: neues Spiel";
+        }
+
+        g.setColor(HINT_COLOR);
+        g.setFont(HINT_FONT);
+        drawCentered(g, hint, width, Math.max(y + 40, height - 30));
+    }
+
+    private void drawLetters(Graphics g, int width, int baseline) {
+        g.setFont(LETTER_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int cell = fm.charWidth('W') + 16;
+        int x = (width - cell * NAME_LENGTH) / 2;
+        boolean blink = (System.nanoTime() / 250_000_000L) % 2 == 0;
+
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            String letter = LETTERS[letters[i]];
+            int lx = x + i * cell + (cell - fm.stringWidth(letter)) / 2;
+            if (i == cursor) {
+                g.setColor(Color.YELLOW);
+                g.fillRect(x + i * cell + 4, baseline + 6, cell - 8, 4);
+                if (!blink) continue;
+            } else {
+                g.setColor(Color.WHITE);
+            }
+            g.drawString(letter, lx, baseline);
+        }
+    }
+
+    private static void drawCentered(Graphics g, String text, int width, int baseline) {
+        g.drawString(text, (width - g.getFontMetrics().stringWidth(text)) / 2, baseline);
+    }
+}
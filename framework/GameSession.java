@@ -0,0 +1,123 @@
+package framework;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Zufall und Zustands-Hash einer Spielsitzung, damit ein Lauf mit gleichem Seed und gleichen Eingaben
+ * bitgenau wiederholbar ist.
+ * <p>
+ * Jede Sitzung hat einen Seed ({@code -Darcade.seed=<zahl>}, sonst zufällig und beim Start ausgegeben). Daraus
+ * wird pro Spiel ein {@link SplittableRandom} abgeleitet; jede Runde bekommt mit {@link #newRound()} einen
+ * eigenen, abgespaltenen Generator. Die Simulation darf nur diesen benutzen, nie {@code new Random()}.
+ * <p>
+ * Nach jedem Tick übergibt das Spiel mit {@link #tick(long)} einen {@link StateHash} seines Zustands. Daraus wird
+ * eine Hash-Kette gebildet; mit {@code -Darcade.hashlog=<verzeichnis>} wird sie pro Runde aufgezeichnet bzw.
+ * bei einem zweiten Lauf mit demselben Seed geprüft und die erste Abweichung samt Tick gemeldet.
+ * <p>
+ * {@link #newRound()} und {@link #tick(long)} werden von der Spielschleife aufgerufen.
+ */
+public final class GameSession {
+
+    /** System-Property: Seed der Sitzung. */
+    public static final String PROPERTY_SEED = "arcade.seed";
+    /** System-Property: Verzeichnis für die Hash-Ketten (aufzeichnen bzw. prüfen). */
+    public static final String PROPERTY_HASHLOG = "arcade.hashlog";
+
+    private static final long SEED = initSeed();
+
+    private final String game;
+    private final long seed;
+    private final SplittableRandom root;
+    private final Path hashLogDir;
+
+    private int round = 0;
+    private long tick = 0;
+    private long chain = 0;
+    private TickHashLog log;
+
+    /**
+     * @param game Name des Spiels; Teil der Ableitung des Generators, damit Spiele derselben Sitzung
+     *             unterschiedliche Folgen bekommen.
+     */
+    public GameSession(String game) {
+        this(game, SEED);
+    }
+
+    /**
+     * @param game Name des Spiels.
+     * @param seed Eigener Seed (z.B. für Wiederholung oder Netzwerkspiel, wo beide Seiten denselben brauchen).
+     */
+    public GameSession(String game, long seed) {
+        this.game = game;
+        this.seed = seed;
+        // String.hashCode ist festgelegt, also auf jedem Rechner gleich
+        this.root = new SplittableRandom(seed ^ game.hashCode() * 0x9E3779B97F4A7C15L);
+        String dir = System.getProperty(PROPERTY_HASHLOG);
+        this.hashLogDir = dir == null || dir.isBlank() ? null : Path.of(dir);
+    }
+
+    private static long initSeed() {
+        Long seed = Long.getLong(PROPERTY_SEED);
+        if (seed != null) {
+            System.out.println("GameSession: Seed " + seed + " (aus -D" + PROPERTY_SEED + ")");
+            return seed;
+        }
+        long random = new SplittableRandom().nextLong();
+        System.out.println("GameSession: Seed " + random + " (wiederholbar mit -D" + PROPERTY_SEED + "=" + random + ")");
+        return random;
+    }
+
+    /**
+     * Beginnt eine neue Runde: Tick-Zähler und Hash-Kette fangen von vorn an.
+     *
+     * @return Der Zufallsgenerator dieser Runde.
+     */
+    public SplittableRandom newRound() {
+        closeLog();
+        round++;
+        tick = 0;
+        chain = 0;
+        if (hashLogDir != null) {
+            Path file = hashLogDir.resolve(String.format("%s-%016x-r%d.hashes", game, seed, round));
+            try {
+                log = TickHashLog.open(file);
+            } catch (IOException e) {
+                System.out.println("GameSession: " + file + " konnte nicht geöffnet werden: " + e.getMessage());
+            }
+        }
+        return root.split();
+    }
+
+    /**
+     * Nach jedem Tick der Simulation aufrufen.
+     *
+     * @param stateHash Hash des Zustands nach dem Tick.
+     * @return Die fortgeschriebene Hash-Kette.
+     */
+    public long tick(long stateHash) {
+        tick++;
+        chain = StateHash.chain(chain, stateHash);
+        if (log != null) log.record(tick, chain);
+        return chain;
+    }
+
+    /** Schließt die Aufzeichnung der laufenden Runde (z.B. in {@code stop()} oder bei Game Over). */
+    public void endRound() {
+        closeLog();
+    }
+
+    private void closeLog() {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    public String getGame() { return game; }
+    public long getSeed() { return seed; }
+    public int getRound() { return round; }
+    public long getTick() { return tick; }
+    public long getChainHash() { return chain; }
+}
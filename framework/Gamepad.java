@@ -1,11 +1,16 @@
 package framework;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Definiert die generische Schnittstelle für ein Gamepad (Controller),
  * über die der Zustand von Joysticks und Buttons abgefragt werden kann.
  */
 public interface Gamepad {
 
+    /** Abfrage-Intervall der Standard-Implementierung von {@link #awaitActivity(long, TimeUnit)}. */
+    long ACTIVITY_POLL_MS = 10;
+
     // --- Joysticks ---
 
     /**
@@ -73,4 +78,39 @@ public interface Gamepad {
      * @return Die {@link Button}-Instanz.
      */
     Button buttonMenu();
+
+    // --- Leerlauf ---
+
+    /**
+     * Wartet, bis sich der Zustand eines Buttons oder Joysticks ändert (für den Leerlauf, siehe {@link IdleGamepad}).
+     * <p>
+     * Die Standard-Implementierung fragt den Zustand alle {@value #ACTIVITY_POLL_MS} ms ab. Implementierungen, die
+     * Ereignisse vom Gerät bekommen (z.B. {@link UsbGamepad}), blockieren stattdessen bis zum nächsten Report.
+     *
+     * @return {@code true} bei einer Änderung, {@code false} wenn die Zeit abgelaufen ist.
+     */
+    default boolean awaitActivity(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int before = stateBits(this);
+        long left;
+        while ((left = deadline - System.nanoTime()) > 0) {
+            Thread.sleep(Math.min(ACTIVITY_POLL_MS, TimeUnit.NANOSECONDS.toMillis(left) + 1));
+            if (stateBits(this) != before) return true;
+        }
+        return false;
+    }
+
+    /** Alle Buttons und Joystick-Richtungen als Bitmaske. */
+    private static int stateBits(Gamepad g) {
+        Joystick j1 = g.joystick1(), j2 = g.joystick2();
+        boolean[] states = {
+                j1.up(), j1.down(), j1.left(), j1.right(), j2.up(), j2.down(), j2.left(), j2.right(),
+                g.buttonA1().isPressed(), g.buttonB1().isPressed(), g.buttonX1().isPressed(), g.buttonY1().isPressed(),
+                g.buttonA2().isPressed(), g.buttonB2().isPressed(), g.buttonX2().isPressed(), g.buttonY2().isPressed(),
+                g.buttonMenu().isPressed()
+        };
+        int bits = 0;
+        for (int i = 0; i < states.length; i++) if (states[i]) bits |= 1 << i;
+        return bits;
+    }
 }
\ No newline at end of file
@@ -3,10 +3,19 @@ package framework;
 public class HighScore {
     private final String name;
     private final int score;
+    private final long timestamp;
 
     public HighScore(String name, int score) {
+        this(name, score, System.currentTimeMillis());
+    }
+
+    /**
+     * @param timestamp Zeitpunkt der Runde in Millisekunden seit 1970 ({@code 0} = unbekannt).
+     */
+    public HighScore(String name, int score, long timestamp) {
         this.name = name;
         this.score = score;
+        this.timestamp = timestamp;
     }
 
     public String getName() {
@@ -16,4 +25,8 @@ public class HighScore {
     public int getScore() {
         return score;
     }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
 }
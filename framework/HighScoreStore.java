@@ -0,0 +1,370 @@
+package framework;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * Persistiert alle gespielten Runden eines Spiels, ohne den Spiel-Thread auf die Festplatte warten zu lassen.
+ * <p>
+ * Neue Runden landen im {@link ScoreJournal}: {@link #append(HighScore)} stellt eine Runde nur in eine
+ * Warteschlange, der gemeinsame Schreib-Thread hängt alle bis dahin aufgelaufenen Runden mit einem
+ * Schreibvorgang und einem {@code fsync} an (Group Commit). Jede Runde kostet so 64 Bytes, egal wie
+ * lang die Historie schon ist. Schlägt das Schreiben fehl (z.B. Platte voll), kommen die Runden zurück an den
+ * Anfang der Warteschlange und werden mit wachsendem Abstand erneut versucht.
+ * <p>
+ * Ein Kompaktierer auf einem eigenen Hintergrund-Thread führt das Journal von Zeit zu Zeit mit dem
+ * sortierten Snapshot ({@link ScoreFile}) zusammen: das Journal wird zu {@code .journal.old} umbenannt
+ * (neue Runden gehen sofort in ein frisches Journal), Snapshot und altes Journal werden zu einem neuen
+ * Snapshot gemischt und atomar ersetzt, danach wird das alte Journal gelöscht. Kompaktiert wird erst,
+ * wenn das Journal mindestens halb so groß wie der Snapshot ist; die Kosten dafür verteilen sich so auf
+ * konstant viele Bytes pro Runde. {@link #getWriteAmplification()} meldet das tatsächliche Verhältnis.
+ * <p>
+ * Wiederherstellung: Snapshot lesen, dann die Journale mit einer Sequenz größer als die im Snapshot
+ * vermerkte nachspielen. Ein Absturz an beliebiger Stelle der Kompaktierung verliert oder verdoppelt
+ * so keine Runde.
+ * <p>
+ * Existiert noch gar nichts, aber eine alte CSV-Datei ({@code name,score} pro Zeile), wird diese beim
+ * ersten {@link #load()} als Snapshot übernommen und als {@code .migrated} aufbewahrt.
+ */
+public class HighScoreStore {
+
+    /** Mindestanzahl an Journal-Einträgen, bevor kompaktiert wird. */
+    private static final int COMPACT_MIN_RECORDS = 256;
+    private static final long RETRY_MIN_MS = 500;
+    private static final long RETRY_MAX_MS = 30_000;
+
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "HighScoreStore-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "HighScoreStore-Compactor");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    /** Reihenfolge im Snapshot: bester Score zuerst, bei Gleichstand die ältere Runde. */
+    private static final Comparator<HighScore> SNAPSHOT_ORDER =
+            Comparator.comparingInt(HighScore::getScore).reversed().thenComparingLong(HighScore::getTimestamp);
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path oldJournalFile;
+    private final Path legacyFile;
+    private final ConcurrentLinkedDeque<HighScore> pending = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean compactScheduled = new AtomicBoolean(false);
+    private final CRC32 crc = new CRC32();
+    private final LatencyStats writeLatency = new LatencyStats();
+    private volatile String game; // für die Flight-Recorder-Ereignisse
+
+    // Geschützt durch "this"
+    private boolean recovered = false;
+    private long nextSequence = 1;
+    private int journalRecords = 0;
+    private long snapshotBytes = 0;
+    private long logicalBytes = 0;
+    private long physicalBytes = 0;
+    private long retryDelayMs = 0; // > 0 nach einem fehlgeschlagenen Schreibversuch
+
+    /**
+     * @param fileName       Name des Snapshots, z.B. {@code "snake_highscores.bin"}; das Journal liegt daneben
+     *                       als {@code "snake_highscores.bin.journal"}.
+     * @param legacyFileName Name der alten CSV-Datei, die bei Bedarf migriert wird (darf {@code null} sein).
+     */
+    public HighScoreStore(String fileName, String legacyFileName) {
+        this.snapshotFile = Path.of(fileName).toAbsolutePath();
+        this.journalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".journal");
+        this.oldJournalFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".journal.old");
+        this.legacyFile = legacyFileName == null ? null : Path.of(legacyFileName).toAbsolutePath();
+        this.game = snapshotFile.getFileName().toString();
+
+        // Beim Beenden der JVM (z.B. EXIT_ON_CLOSE) noch ausstehende Runden schreiben
+        Runtime.getRuntime().addShutdownHook(new Thread(this::writePending, "HighScoreStore-Shutdown"));
+    }
+
+    /**
+     * Liest alle gespeicherten Runden synchron (gedacht für den Spielstart): erst den Snapshot
+     * (bester Score zuerst), dann die noch nicht kompaktierten Runden in Spielreihenfolge.
+     * Beschädigte Einträge werden übersprungen und gemeldet.
+     *
+     * @return Die gespeicherten Runden; leer, wenn noch nichts gespeichert wurde.
+     */
+    public synchronized List<HighScore> load() {
+        if (!Files.exists(snapshotFile) && !Files.exists(journalFile) && !Files.exists(oldJournalFile)
+                && legacyFile != null && Files.exists(legacyFile)) {
+            migrateLegacy();
+        }
+
+        List<HighScore> scores = new ArrayList<>();
+        long sequence = 0;
+        snapshotBytes = 0;
+        if (Files.exists(snapshotFile)) {
+            try {
+                ScoreFile.Contents contents = ScoreFile.read(snapshotFile);
+                reportCorrupted(contents.corrupted, snapshotFile);
+                scores.addAll(contents.scores);
+                sequence = contents.sequence;
+                snapshotBytes = Files.size(snapshotFile);
+            } catch (IOException e) {
+                System.out.println("HighScoreStore: " + snapshotFile.getFileName() + " konnte nicht gelesen werden: " + e.getMessage());
+            }
+        }
+
+        long lastSequence = sequence;
+        journalRecords = 0;
+        for (Path journal : new Path[]{oldJournalFile, journalFile}) {
+            if (!Files.exists(journal)) continue;
+            try {
+                ScoreJournal.Replay replay = ScoreJournal.read(journal, sequence);
+                reportCorrupted(replay.corrupted, journal);
+                scores.addAll(replay.scores);
+                lastSequence = Math.max(lastSequence, replay.lastSequence);
+                if (journal == journalFile) journalRecords = replay.records;
+            } catch (IOException e) {
+                System.out.println("HighScoreStore: " + journal.getFileName() + " konnte nicht gelesen werden: " + e.getMessage());
+            }
+        }
+
+        nextSequence = lastSequence + 1;
+        recovered = true;
+        return scores;
+    }
+
+    private static void reportCorrupted(int corrupted, Path file) {
+        if (corrupted > 0) {
+            System.out.printf("HighScoreStore: %d beschädigte Stelle(n) in %s übersprungen.%n", corrupted, file.getFileName());
+        }
+    }
+
+    /**
+     * Übernimmt die alte CSV-Datei als Snapshot. Fehlerhafte Zeilen werden übersprungen,
+     * Namen dürfen Kommas enthalten. Die CSV-Datei bleibt als {@code .migrated} erhalten.
+     */
+    private void migrateLegacy() {
+        List<HighScore> scores = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(legacyFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                int comma = line.lastIndexOf(',');
+                if (comma <= 0) continue;
+                try {
+                    scores.add(new HighScore(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1).trim()), 0));
+                } catch (NumberFormatException e) {
+                    System.out.println("HighScoreStore: Überspringe fehlerhafte Zeile in " + legacyFile.getFileName() + ": " + line);
+                }
+            }
+
+            scores.sort(SNAPSHOT_ORDER);
+            ScoreFile.writeAtomically(snapshotFile, scores, 0);
+            Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                    StandardCopyOption.REPLACE_EXISTING);
+            System.out.printf("HighScoreStore: %d Einträge aus %s übernommen.%n", scores.size(), legacyFile.getFileName());
+        } catch (IOException e) {
+            System.out.println("HighScoreStore: Migration von " + legacyFile.getFileName() + " fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stellt eine gespielte Runde zum Speichern ein und kehrt sofort zurück.
+     */
+    public void append(HighScore play) {
+        pending.add(play);
+        if (writeScheduled.compareAndSet(false, true)) {
+            WRITER.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Wartet, bis alle bis jetzt eingestellten Runden geschrieben sind oder der Schreibversuch fehlgeschlagen ist
+     * (die Runden bleiben dann für den nächsten Versuch vorgemerkt). Nicht vom Spiel-Thread aufrufen.
+     */
+    public void flush() {
+        try {
+            WRITER.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Verhältnis der tatsächlich geschriebenen Bytes (Journal, Snapshots, Dateiköpfe) zu den
+     * Nutzdaten der gespeicherten Runden selbst (Zeitstempel, Score, Name; siehe
+     * {@link ScoreJournal#payloadSize}), seit dem Start. {@code 1.0} hieße: kein Overhead.
+     */
+    public synchronized double getWriteAmplification() {
+        return logicalBytes == 0 ? 1.0 : (double) physicalBytes / logicalBytes;
+    }
+
+    /**
+     * Dauer der Schreibvorgänge ins Journal (Schreiben und fsync, ein Vorgang je Stapel von Runden).
+     */
+    public LatencyStats getWriteLatency() {
+        return writeLatency;
+    }
+
+    /** Spiel, unter dem die Speichervorgänge im Flight Recorder erscheinen (sonst der Dateiname). */
+    void setGame(String game) {
+        this.game = game;
+    }
+
+    private void commitSaveEvent(ArcadeEvents.HighScoreSaveEvent event, Path file, int records, long bytes, boolean compaction) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.game = game;
+            event.file = file.getFileName().toString();
+            event.records = records;
+            event.bytes = bytes;
+            event.compaction = compaction;
+            event.commit();
+        }
+    }
+
+    private synchronized void writePending() {
+        writeScheduled.set(false);
+        if (pending.isEmpty()) return;
+        if (!recovered) load(); // Sequenzen müssen an das Vorhandene anschließen
+
+        List<HighScore> batch = new ArrayList<>();
+        for (HighScore hs; (hs = pending.poll()) != null; ) {
+            batch.add(hs);
+        }
+
+        boolean created = !Files.exists(journalFile);
+        long firstSequence = nextSequence;
+        ArcadeEvents.HighScoreSaveEvent event = new ArcadeEvents.HighScoreSaveEvent();
+        event.begin();
+        long started = System.nanoTime();
+        int bytes;
+        try (FileChannel ch = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = ScoreJournal.prepareAppend(ch, journalFile);
+            long start = position;
+            journalRecords = ScoreJournal.recordsBefore(position);
+            boolean header = position == 0;
+            ByteBuffer out = ByteBuffer.allocate(batch.size() * ScoreJournal.RECORD_SIZE + (header ? ScoreJournal.HEADER_SIZE : 0));
+            if (header) ScoreJournal.encodeHeader(out);
+            for (HighScore hs : batch) ScoreJournal.encode(hs, nextSequence++, out, crc);
+            out.flip();
+            bytes = out.remaining();
+            try {
+                while (out.hasRemaining()) position += ch.write(out, position);
+                ch.force(true);
+            } catch (IOException e) {
+                // Schon geschriebene Einträge wieder entfernen, sonst stünden sie nach dem Wiederholen doppelt da
+                try {
+                    ch.truncate(start);
+                } catch (IOException ignored) {
+                    // Bleibt ein Rest, schneidet ihn prepareAppend ab, sofern er abgerissen ist
+                }
+                throw e;
+            }
+            physicalBytes += bytes;
+            if (created) ScoreFile.syncDirectory(journalFile);
+            writeLatency.record(System.nanoTime() - started);
+            commitSaveEvent(event, journalFile, batch.size(), bytes, false);
+        } catch (IOException e) {
+            // Zurück an den Anfang der Warteschlange, mit denselben Sequenzen
+            nextSequence = firstSequence;
+            for (int i = batch.size() - 1; i >= 0; i--) pending.addFirst(batch.get(i));
+            retryDelayMs = retryDelayMs == 0 ? RETRY_MIN_MS : Math.min(retryDelayMs * 2, RETRY_MAX_MS);
+            System.out.println("HighScoreStore: " + journalFile.getFileName() + " konnte nicht gespeichert werden ("
+                    + e.getMessage() + "), " + pending.size() + " Runde(n) warten, neuer Versuch in " + retryDelayMs + " ms");
+            writeScheduled.set(true);
+            WRITER.schedule(this::writePending, retryDelayMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        if (retryDelayMs > 0) {
+            System.out.println("HighScoreStore: " + journalFile.getFileName() + " wieder geschrieben.");
+            retryDelayMs = 0;
+        }
+        for (HighScore hs : batch) logicalBytes += ScoreJournal.payloadSize(hs);
+        journalRecords += batch.size();
+
+        if (journalRecords >= COMPACT_MIN_RECORDS
+                && (long) journalRecords * ScoreJournal.RECORD_SIZE * 2 >= snapshotBytes
+                && compactScheduled.compareAndSet(false, true)) {
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    /**
+     * Führt Snapshot und Journal zu einem neuen Snapshot zusammen. Läuft auf dem Kompaktierer-Thread;
+     * der Schreib-Thread wird nur für das Umbenennen des Journals blockiert.
+     */
+    private void compact() {
+        try {
+            synchronized (this) {
+                // Ein übrig gebliebenes altes Journal (Absturz während der Kompaktierung) zuerst abarbeiten
+                if (!Files.exists(oldJournalFile)) {
+                    moveAtomically(journalFile, oldJournalFile);
+                    journalRecords = 0;
+                }
+            }
+
+            // Nicht mappen: Snapshot und altes Journal werden gleich ersetzt bzw. gelöscht
+            List<HighScore> scores = new ArrayList<>();
+            long sequence = 0;
+            if (Files.exists(snapshotFile)) {
+                ScoreFile.Contents contents = ScoreFile.readCopy(snapshotFile);
+                scores.addAll(contents.scores);
+                sequence = contents.sequence;
+            }
+            ScoreJournal.Replay replay = ScoreJournal.readCopy(oldJournalFile, sequence);
+            scores.addAll(replay.scores);
+            sequence = Math.max(sequence, replay.lastSequence);
+            scores.sort(SNAPSHOT_ORDER);
+
+            ArcadeEvents.HighScoreSaveEvent event = new ArcadeEvents.HighScoreSaveEvent();
+            event.begin();
+            long written = ScoreFile.writeAtomically(snapshotFile, scores, sequence);
+            commitSaveEvent(event, snapshotFile, scores.size(), written, true);
+            Files.delete(oldJournalFile);
+            ScoreFile.syncDirectory(oldJournalFile);
+
+            synchronized (this) {
+                snapshotBytes = written;
+                physicalBytes += written;
+                System.out.printf("HighScoreStore: %s kompaktiert (%d Runden, %d Bytes), Write-Amplification %.2f%n",
+                        snapshotFile.getFileName(), scores.size(), written, getWriteAmplification());
+            }
+        } catch (IOException e) {
+            System.out.println("HighScoreStore: Kompaktierung von " + snapshotFile.getFileName() + " fehlgeschlagen: " + e.getMessage());
+        } finally {
+            compactScheduled.set(false);
+        }
+    }
+
+    private static void moveAtomically(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to);
+        }
+        ScoreFile.syncDirectory(to);
+    }
+}
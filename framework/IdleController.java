@@ -0,0 +1,138 @@
+package framework;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leerlauf eines Spiels: Hält die {@link GameLoop} an und legt den {@link InputWatcher} über das
+ * {@link IdleGamepad} schlafen, bis die nächste echte Eingabe kommt.
+ * <p>
+ * Die Spielschleife meldet jeden Tick mit {@link #tick(boolean)}, ob gerade nichts passiert (z.B. Game Over,
+ * Zusammenfassung angezeigt, keine Partikel mehr). Nach {@link #IDLE_AFTER_MS} ms Ruhe geht das Spiel in den
+ * Leerlauf; {@link #enterIdle()} tut das sofort (z.B. für die Pause). Eine Eingabe weckt Schleife und Watcher
+ * innerhalb eines Ticks wieder auf. Beim Aufwachen wird die CPU-Last des Prozesses während des Leerlaufs
+ * ausgegeben.
+ */
+public class IdleController {
+
+    /** Nach so vielen Millisekunden ohne Bewegung geht das Spiel in den Leerlauf. */
+    public static final long IDLE_AFTER_MS = 2000;
+
+    // Nach dem Aufwachen so lange wach bleiben, damit der Watcher die weckende Eingabe noch ausliefern kann
+    private static final long MIN_AWAKE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final String name;
+    private final GameLoop loop;
+
+    // geschützt durch "this"
+    private IdleGamepad gamepad;
+    private boolean idle = false;
+    private long quietSince = -1;
+    private long lastWakeNanos = System.nanoTime() - MIN_AWAKE_NANOS;
+    private long idleStartNanos;
+    private long idleStartCpuNanos;
+    private long totalIdleNanos = 0;
+    private long totalIdleCpuNanos = 0;
+
+    /**
+     * @param name Name des Spiels für die Ausgabe.
+     * @param loop Die Spielschleife, die im Leerlauf angehalten wird.
+     */
+    public IdleController(String name, GameLoop loop) {
+        this.name = name;
+        this.loop = loop;
+    }
+
+    /**
+     * Setzt das Gamepad, an dem der {@link InputWatcher} des Spiels hängt. Ohne Gamepad gibt es keinen Leerlauf,
+     * weil nichts die Schleife wieder wecken würde.
+     */
+    public synchronized void setGamepad(IdleGamepad gamepad) {
+        this.gamepad = gamepad;
+    }
+
+    /**
+     * Aus der Spielschleife, jeden Tick.
+     *
+     * @param quiet {@code true}, wenn sich gerade nichts bewegt und das Spiel nur auf eine Eingabe wartet.
+     */
+    public synchronized void tick(boolean quiet) {
+        if (!quiet) {
+            quietSince = -1;
+            return;
+        }
+        long now = System.nanoTime();
+        if (quietSince < 0) quietSince = now;
+        else if (now - quietSince >= TimeUnit.MILLISECONDS.toNanos(IDLE_AFTER_MS)) enterIdle();
+    }
+
+    /**
+     * Geht sofort in den Leerlauf (frühestens 250 ms nach dem letzten Aufwachen). Aus der Spielschleife
+     * aufgerufen, hält sie nach dem laufenden Tick an.
+     */
+    public synchronized void enterIdle() {
+        if (idle || gamepad == null || System.nanoTime() - lastWakeNanos < MIN_AWAKE_NANOS) return;
+        idle = true;
+        idleStartNanos = System.nanoTime();
+        idleStartCpuNanos = processCpuNanos();
+        loop.park();
+        gamepad.sleep(this::wake);
+        System.out.println("IdleController: " + name + " im Leerlauf.");
+    }
+
+    /**
+     * Beendet den Leerlauf: Schleife und Watcher laufen sofort weiter. Tut nichts, wenn das Spiel nicht schläft.
+     */
+    public void wake() {
+        IdleGamepad sleeping;
+        synchronized (this) {
+            if (!idle) return;
+            idle = false;
+            quietSince = -1;
+            lastWakeNanos = System.nanoTime();
+            loop.unpark();
+            sleeping = gamepad;
+            report();
+        }
+        // Außerhalb der Sperre: ruft seinerseits wake() auf, wenn es noch schläft
+        if (sleeping != null) sleeping.wake();
+    }
+
+    /** @return {@code true}, solange das Spiel im Leerlauf ist. */
+    public synchronized boolean isIdle() {
+        return idle;
+    }
+
+    /** @return Gesamte Zeit im Leerlauf (Nanosekunden), ohne den laufenden Leerlauf. */
+    public synchronized long getTotalIdleNanos() {
+        return totalIdleNanos;
+    }
+
+    /** @return CPU-Zeit des Prozesses während aller Leerläufe (Nanosekunden), oder 0 wenn nicht messbar. */
+    public synchronized long getTotalIdleCpuNanos() {
+        return totalIdleCpuNanos;
+    }
+
+    private void report() {
+        long wall = System.nanoTime() - idleStartNanos;
+        long cpu = Math.max(0, processCpuNanos() - idleStartCpuNanos);
+        totalIdleNanos += wall;
+        totalIdleCpuNanos += cpu;
+        System.out.printf("IdleController: %s wach nach %.1f s Leerlauf, CPU %.1f ms (%.2f %% eines Kerns; gesamt %.2f %%)%n",
+                name, wall / 1e9, cpu / 1e6, percent(cpu, wall), percent(totalIdleCpuNanos, totalIdleNanos));
+    }
+
+    private static double percent(long cpu, long wall) {
+        return wall > 0 ? 100.0 * cpu / wall : 0;
+    }
+
+    /** CPU-Zeit des ganzen Prozesses (alle Threads), oder 0 wenn die JVM sie nicht liefert. */
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+            return Math.max(0, sun.getProcessCpuTime());
+        }
+        return 0;
+    }
+}
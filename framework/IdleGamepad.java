@@ -0,0 +1,145 @@
+package framework;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Gamepad für den {@link InputWatcher}, das im Leerlauf den abfragenden Thread schlafen legt.
+ * <p>
+ * Nach {@link #sleep(Runnable)} blockiert jede Abfrage ({@code isPressed()}, {@code up()}, ...) in
+ * {@link Gamepad#awaitActivity(long, TimeUnit)} des echten Gamepads, statt es dauernd abzufragen. Meldet das Gerät
+ * einen Zustandswechsel, wacht das Gamepad auf, ruft den Aufwach-Rückruf auf (z.B. {@link IdleController#wake()},
+ * das die Spielschleife fortsetzt) und beantwortet erst danach die Abfrage. Der Watcher sieht also denselben
+ * Wechsel wie ohne Leerlauf, und die Eingabe, die den Automaten weckt, geht nicht verloren.
+ * <p>
+ * Nur dem {@link InputWatcher} übergeben; Spiele fragen weiter das echte Gamepad ab.
+ */
+public class IdleGamepad implements Gamepad {
+
+    // So lange wird höchstens am Gerät gewartet, bevor wieder auf ein wake() von außen geprüft wird
+    private static final long WAIT_SLICE_MS = 250;
+
+    private final Gamepad delegate;
+    private final Object gateLock = new Object(); // nur ein Thread wartet am Gerät
+
+    private volatile boolean idle = false;
+    private Runnable onWake; // geschützt durch "this"
+
+    private final Joystick joystick1;
+    private final Joystick joystick2;
+    private final Button buttonA1;
+    private final Button buttonB1;
+    private final Button buttonX1;
+    private final Button buttonY1;
+    private final Button buttonA2;
+    private final Button buttonB2;
+    private final Button buttonX2;
+    private final Button buttonY2;
+    private final Button buttonMenu;
+
+    /**
+     * @param delegate Das echte Gamepad.
+     */
+    public IdleGamepad(Gamepad delegate) {
+        this.delegate = delegate;
+        joystick1 = new GatedJoystick(Gamepad::joystick1);
+        joystick2 = new GatedJoystick(Gamepad::joystick2);
+        buttonA1 = gatedButton(Gamepad::buttonA1);
+        buttonB1 = gatedButton(Gamepad::buttonB1);
+        buttonX1 = gatedButton(Gamepad::buttonX1);
+        buttonY1 = gatedButton(Gamepad::buttonY1);
+        buttonA2 = gatedButton(Gamepad::buttonA2);
+        buttonB2 = gatedButton(Gamepad::buttonB2);
+        buttonX2 = gatedButton(Gamepad::buttonX2);
+        buttonY2 = gatedButton(Gamepad::buttonY2);
+        buttonMenu = gatedButton(Gamepad::buttonMenu);
+    }
+
+    /**
+     * Geht in den Leerlauf: Ab jetzt blockieren Abfragen bis zur nächsten Eingabe.
+     *
+     * @param onWake Wird beim Aufwachen einmal aufgerufen (im Thread des Watchers oder von {@link #wake()}).
+     */
+    public synchronized void sleep(Runnable onWake) {
+        this.onWake = onWake;
+        this.idle = true;
+    }
+
+    /**
+     * Beendet den Leerlauf sofort (auch ohne Eingabe) und ruft den Aufwach-Rückruf auf. Tut nichts,
+     * wenn das Gamepad nicht schläft.
+     */
+    public void wake() {
+        Runnable callback;
+        synchronized (this) {
+            if (!idle) return;
+            idle = false;
+            callback = onWake;
+            onWake = null;
+        }
+        // Außerhalb der Sperre, damit der Rückruf seinerseits wake() aufrufen darf
+        if (callback != null) callback.run();
+    }
+
+    /** @return {@code true}, solange das Gamepad im Leerlauf ist. */
+    public boolean isIdle() {
+        return idle;
+    }
+
+    /** Blockiert den aufrufenden Thread, solange der Leerlauf andauert. */
+    private void gate() {
+        if (!idle) return;
+        synchronized (gateLock) {
+            try {
+                while (idle) {
+                    if (delegate.awaitActivity(WAIT_SLICE_MS, TimeUnit.MILLISECONDS)) wake();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                wake();
+            }
+        }
+    }
+
+    private Button gatedButton(Function<Gamepad, Button> button) {
+        return new Button(() -> {
+            gate();
+            return button.apply(delegate).isPressed();
+        });
+    }
+
+    private class GatedJoystick implements Joystick {
+        private final Function<Gamepad, Joystick> joystick;
+
+        GatedJoystick(Function<Gamepad, Joystick> joystick) {
+            this.joystick = joystick;
+        }
+
+        private Joystick current() {
+            gate();
+            return joystick.apply(delegate);
+        }
+
+        @Override public boolean up() { return current().up(); }
+        @Override public boolean down() { return current().down(); }
+        @Override public boolean left() { return current().left(); }
+        @Override public boolean right() { return current().right(); }
+    }
+
+    @Override
+    public boolean awaitActivity(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitActivity(timeout, unit);
+    }
+
+    @Override public Joystick joystick1() { return joystick1; }
+    @Override public Joystick joystick2() { return joystick2; }
+    @Override public Button buttonA1() { return buttonA1; }
+    @Override public Button buttonB1() { return buttonB1; }
+    @Override public Button buttonX1() { return buttonX1; }
+    @Override public Button buttonY1() { return buttonY1; }
+    @Override public Button buttonA2() { return buttonA2; }
+    @Override public Button buttonB2() { return buttonB2; }
+    @Override public Button buttonX2() { return buttonX2; }
+    @Override public Button buttonY2() { return buttonY2; }
+    @Override public Button buttonMenu() { return buttonMenu; }
+}
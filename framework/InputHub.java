@@ -0,0 +1,94 @@
+package framework;
+
+/**
+ * Verteilt die Ereignisse eines einzigen {@link InputWatcher} an den {@link InputListener} des gerade
+ * laufenden Spiels. So bleibt im {@link ArcadeLauncher} ein Gamepad mit einem Überwachungs-Thread
+ * für alle Spiele bestehen; beim Spielwechsel wird nur der Empfänger ausgetauscht.
+ * <p>
+ * Die Tastenkombination "Y1 gedrückt halten + MENU" geht nicht an das Spiel, sondern an den
+ * Wechsel-Handler (nächstes Spiel).
+ */
+public class InputHub implements InputListener {
+
+    private volatile InputListener target;
+    private volatile Runnable switchHandler;
+    private volatile boolean y1Held = false;
+    private volatile boolean menuConsumed = false;
+
+    /**
+     * Setzt den Empfänger aller Ereignisse; {@code null} verwirft sie (z.B. während eines Wechsels).
+     */
+    public void setListener(InputListener listener) {
+        this.target = listener;
+    }
+
+    /** Wird bei "Y1 halten + MENU" aufgerufen (im Thread des InputWatchers). */
+    public void setSwitchHandler(Runnable handler) {
+        this.switchHandler = handler;
+    }
+
+    // === Buttons Spieler 1 ===
+
+    @Override public void onButtonA1Pressed() { InputListener t = target; if (t != null) t.onButtonA1Pressed(); }
+    @Override public void onButtonA1Released() { InputListener t = target; if (t != null) t.onButtonA1Released(); }
+    @Override public void onButtonB1Pressed() { InputListener t = target; if (t != null) t.onButtonB1Pressed(); }
+    @Override public void onButtonB1Released() { InputListener t = target; if (t != null) t.onButtonB1Released(); }
+    @Override public void onButtonX1Pressed() { InputListener t = target; if (t != null) t.onButtonX1Pressed(); }
+    @Override public void onButtonX1Released() { InputListener t = target; if (t != null) t.onButtonX1Released(); }
+
+    @Override public void onButtonY1Pressed() {
+        y1Held = true;
+        InputListener t = target;
+        if (t != null) t.onButtonY1Pressed();
+    }
+
+    @Override public void onButtonY1Released() {
+        y1Held = false;
+        InputListener t = target;
+        if (t != null) t.onButtonY1Released();
+    }
+
+    // === Buttons Spieler 2 ===
+
+    @Override public void onButtonA2Pressed() { InputListener t = target; if (t != null) t.onButtonA2Pressed(); }
+    @Override public void onButtonA2Released() { InputListener t = target; if (t != null) t.onButtonA2Released(); }
+    @Override public void onButtonB2Pressed() { InputListener t = target; if (t != null) t.onButtonB2Pressed(); }
+    @Override public void onButtonB2Released() { InputListener t = target; if (t != null) t.onButtonB2Released(); }
+    @Override public void onButtonX2Pressed() { InputListener t = target; if (t != null) t.onButtonX2Pressed(); }
+    @Override public void onButtonX2Released() { InputListener t = target; if (t != null) t.onButtonX2Released(); }
+    @Override public void onButtonY2Pressed() { InputListener t = target; if (t != null) t.onButtonY2Pressed(); }
+    @Override public void onButtonY2Released() { InputListener t = target; if (t != null) t.onButtonY2Released(); }
+
+    // === Menü Button ===
+
+    @Override public void onButtonMenuPressed() {
+        Runnable handler = switchHandler;
+        if (y1Held && handler != null) {
+            menuConsumed = true; // auch das Loslassen nicht an das Spiel geben
+            handler.run();
+            return;
+        }
+        InputListener t = target;
+        if (t != null) t.onButtonMenuPressed();
+    }
+
+    @Override public void onButtonMenuReleased() {
+        if (menuConsumed) {
+            menuConsumed = false;
+            return;
+        }
+        InputListener t = target;
+        if (t != null) t.onButtonMenuReleased();
+    }
+
+    // === Joysticks ===
+
+    @Override public void onJoystick1Up() { InputListener t = target; if (t != null) t.onJoystick1Up(); }
+    @Override public void onJoystick1Down() { InputListener t = target; if (t != null) t.onJoystick1Down(); }
+    @Override public void onJoystick1Left() { InputListener t = target; if (t != null) t.onJoystick1Left(); }
+    @Override public void onJoystick1Right() { InputListener t = target; if (t != null) t.onJoystick1Right(); }
+    @Override public void onJoystick2Up() { InputListener t = target; if (t != null) t.onJoystick2Up(); }
+    @Override public void onJoystick2Down() { InputListener t = target; if (t != null) t.onJoystick2Down(); }
+    @Override public void onJoystick2Left() { InputListener t = target; if (t != null) t.onJoystick2Left(); }
+    @Override public void onJoystick2Right() { InputListener t = target; if (t != null) t.onJoystick2Right(); }
+}
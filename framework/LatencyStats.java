@@ -0,0 +1,46 @@
+package framework;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Anzahl, Summe und Maximum von Dauern (z.B. Tick-Dauer, Schreibzeit der Highscores).
+ * <p>
+ * {@link #record(long)} kommt ohne Sperre aus ({@link LongAdder}/{@link LongAccumulator}), damit die Messung
+ * auf heißen Pfaden keine Konkurrenz zwischen Threads erzeugt. Die Werte sind beim Lesen nur ungefähr
+ * zueinander konsistent, was für die Anzeige genügt.
+ */
+public class LatencyStats {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /** Nimmt eine Dauer in Nanosekunden auf. */
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /** @return Anzahl der aufgenommenen Dauern. */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /** @return Mittlere Dauer in Millisekunden, oder 0 ohne Messung. */
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+    }
+
+    /** @return Längste Dauer in Millisekunden seit dem Start bzw. seit {@link #resetMax()}. */
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /** Setzt das Maximum zurück (Anzahl und Mittelwert bleiben). */
+    public void resetMax() {
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,96 @@
+package framework;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Eine begrenzte Bestenliste, die nur die besten {@code capacity} Einträge behält (Top-K).
+ * <p>
+ * Die Einträge liegen absteigend sortiert in einem Array fester Größe. Ein neuer Eintrag wird per
+ * binärer Suche einsortiert; ist die Liste voll und der Score nicht besser als der schlechteste
+ * Eintrag, wird er in O(1) abgelehnt. Bei gleichem Score steht der ältere Eintrag vorne.
+ * <p>
+ * Nach außen gibt die Bestenliste nur unveränderliche Momentaufnahmen heraus ({@link #snapshot()}),
+ * die gefahrlos von anderen Threads gelesen werden können, während neue Einträge hinzukommen.
+ */
+public class Leaderboard {
+
+    private final HighScore[] entries;
+    private int size = 0;
+    private volatile List<HighScore> snapshot = List.of();
+
+    /**
+     * @param capacity Anzahl der Plätze in der Bestenliste.
+     */
+    public Leaderboard(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity muss positiv sein: " + capacity);
+        this.entries = new HighScore[capacity];
+    }
+
+    /**
+     * Prüft in O(1), ob ein Score einen Platz in der Bestenliste bekommen würde.
+     */
+    public synchronized boolean qualifies(int score) {
+        return size < entries.length || score > entries[size - 1].getScore();
+    }
+
+    /**
+     * Versucht, einen Eintrag in die Bestenliste aufzunehmen.
+     *
+     * @return {@code true}, wenn der Eintrag aufgenommen wurde (ggf. auf Kosten des bisher letzten Platzes).
+     */
+    public synchronized boolean offer(HighScore entry) {
+        if (!qualifies(entry.getScore())) return false;
+
+        int pos = insertionPoint(entry.getScore());
+        int moved = Math.min(size, entries.length - 1) - pos;
+        if (moved > 0) {
+            System.arraycopy(entries, pos, entries, pos + 1, moved);
+        }
+        entries[pos] = entry;
+        if (size < entries.length) size++;
+
+        snapshot = List.of(Arrays.copyOf(entries, size));
+        return true;
+    }
+
+    /**
+     * Erster Index, dessen Score echt kleiner ist als {@code score} (absteigend sortiert,
+     * gleiche Scores bleiben in Einfügereihenfolge).
+     */
+    private int insertionPoint(int score) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (entries[mid].getScore() >= score) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Gibt eine unveränderliche Momentaufnahme der Bestenliste zurück (bester Eintrag zuerst).
+     */
+    public List<HighScore> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return Der niedrigste Score, der aktuell noch in der Bestenliste steht, oder
+     * {@link Integer#MIN_VALUE}, solange noch Plätze frei sind.
+     */
+    public synchronized int cutoff() {
+        return size < entries.length ? Integer.MIN_VALUE : entries[size - 1].getScore();
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+}
@@ -0,0 +1,196 @@
+package framework;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binäres Protokoll zwischen {@link LeaderboardSync} und {@link LeaderboardServer}.
+ * <p>
+ * Jede Nachricht ist ein Rahmen aus {@code int Länge | Inhalt}. Zahlen im Inhalt sind Varints
+ * ({@link VarInt}), Scores und Zeitstempel zusätzlich ZigZag-kodiert, Texte {@code varint Länge | UTF-8}.
+ * <pre>
+ * Anfrage: int Magic "ABLS" | byte Version | Text Automat | Text Spiel | varint seit-Version
+ *          | varint Anzahl | Anzahl × (varint Sequenz | Text Name | Score | Zeitstempel)
+ * Antwort: int Magic "ABLS" | byte Version | varint bestätigte Sequenz | varint neue Version
+ *          | varint Anzahl | Anzahl × (varint Id | Text Name | Score | Zeitstempel)
+ * </pre>
+ * Ein Automat schickt seine neuen Runden mit fortlaufender Sequenz; der Server bestätigt die höchste
+ * erhaltene Sequenz, sodass wiederholte Sendungen nach einem Abbruch nichts doppelt eintragen. Im
+ * Gegenzug liefert er alle Runden der anderen Automaten seit der zuletzt gesehenen Version (Delta), jede mit
+ * ihrer Id auf dem Server (ihre Position, aufsteigend), damit der Automat sie nur einmal übernimmt.
+ */
+final class LeaderboardProtocol {
+
+    static final int MAGIC = 0x41424C53; // "ABLS"
+    static final byte VERSION = 2;
+    /** Obergrenze für einen Rahmen, schützt vor kaputten Längenangaben. */
+    static final int MAX_FRAME = 1 << 20;
+    static final int MAX_TEXT = 255;
+
+    private LeaderboardProtocol() {}
+
+    /** Eine Anfrage eines Automaten. */
+    static final class Request {
+        final String cabinet;
+        final String game;
+        final long sinceVersion;
+        final long[] sequences;
+        final List<HighScore> scores;
+
+        Request(String cabinet, String game, long sinceVersion, long[] sequences, List<HighScore> scores) {
+            this.cabinet = cabinet;
+            this.game = game;
+            this.sinceVersion = sinceVersion;
+            this.sequences = sequences;
+            this.scores = scores;
+        }
+    }
+
+    /** Die Antwort des Servers. */
+    static final class Response {
+        final long ackedSequence;
+        final long version;
+        final List<HighScore> deltas;
+        /** Server-Id zu {@link #deltas}, Index für Index, aufsteigend. */
+        final long[] deltaIds;
+
+        Response(long ackedSequence, long version, List<HighScore> deltas, long[] deltaIds) {
+            this.ackedSequence = ackedSequence;
+            this.version = version;
+            this.deltas = deltas;
+            this.deltaIds = deltaIds;
+        }
+    }
+
+    static void writeRequest(DataOutputStream out, Request request) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(64 + request.scores.size() * (10 + 5 + 10 + 5 + MAX_TEXT * 3));
+        buf.putInt(MAGIC).put(VERSION);
+        putText(buf, request.cabinet);
+        putText(buf, request.game);
+        VarInt.write(buf, request.sinceVersion);
+        VarInt.write(buf, request.scores.size());
+        for (int i = 0; i < request.scores.size(); i++) {
+            VarInt.write(buf, request.sequences[i]);
+            putScore(buf, request.scores.get(i));
+        }
+        writeFrame(out, buf);
+    }
+
+    static Request readRequest(DataInputStream in) throws IOException {
+        ByteBuffer buf = readFrame(in);
+        try {
+            checkHeader(buf);
+            String cabinet = getText(buf);
+            String game = getText(buf);
+            long since = VarInt.readLong(buf);
+            int count = count(buf);
+            long[] sequences = new long[count];
+            List<HighScore> scores = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sequences[i] = VarInt.readLong(buf);
+                scores.add(getScore(buf));
+            }
+            return new Request(cabinet, game, since, sequences, scores);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Ungültige Anfrage", e);
+        }
+    }
+
+    static void writeResponse(DataOutputStream out, Response response) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(32 + response.deltas.size() * (10 + 5 + 10 + 5 + MAX_TEXT * 3));
+        buf.putInt(MAGIC).put(VERSION);
+        VarInt.write(buf, response.ackedSequence);
+        VarInt.write(buf, response.version);
+        VarInt.write(buf, response.deltas.size());
+        for (int i = 0; i < response.deltas.size(); i++) {
+            VarInt.write(buf, response.deltaIds[i]);
+            putScore(buf, response.deltas.get(i));
+        }
+        writeFrame(out, buf);
+    }
+
+    static Response readResponse(DataInputStream in) throws IOException {
+        ByteBuffer buf = readFrame(in);
+        try {
+            checkHeader(buf);
+            long acked = VarInt.readLong(buf);
+            long version = VarInt.readLong(buf);
+            int count = count(buf);
+            List<HighScore> deltas = new ArrayList<>(count);
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = VarInt.readLong(buf);
+                deltas.add(getScore(buf));
+            }
+            return new Response(acked, version, deltas, ids);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Ungültige Antwort", e);
+        }
+    }
+
+    // ---------- Hilfsfunktionen ----------
+
+    private static void writeFrame(DataOutputStream out, ByteBuffer buf) throws IOException {
+        buf.flip();
+        out.writeInt(buf.remaining());
+        out.write(buf.array(), 0, buf.remaining());
+        out.flush();
+    }
+
+    private static ByteBuffer readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length <= 0 || length > MAX_FRAME) throw new IOException("Ungültige Rahmenlänge: " + length);
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return ByteBuffer.wrap(data);
+    }
+
+    private static void checkHeader(ByteBuffer buf) throws IOException {
+        if (buf.getInt() != MAGIC) throw new IOException("Falsches Protokoll");
+        byte version = buf.get();
+        if (version != VERSION) throw new IOException("Nicht unterstützte Protokollversion " + version);
+    }
+
+    private static int count(ByteBuffer buf) {
+        int count = VarInt.readInt(buf);
+        // Jeder Eintrag braucht mindestens 3 Bytes; schützt vor riesigen Allokationen
+        if (count < 0 || count > buf.remaining() / 3) throw new IllegalArgumentException("Ungültige Anzahl: " + count);
+        return count;
+    }
+
+    private static void putScore(ByteBuffer buf, HighScore hs) {
+        putText(buf, hs.getName());
+        VarInt.write(buf, VarInt.zigzag(hs.getScore()));
+        VarInt.write(buf, VarInt.zigzag(hs.getTimestamp()));
+    }
+
+    private static HighScore getScore(ByteBuffer buf) {
+        String name = getText(buf);
+        int score = VarInt.unzigzag(VarInt.readInt(buf));
+        long timestamp = VarInt.unzigzag(VarInt.readLong(buf));
+        return new HighScore(name, score, timestamp);
+    }
+
+    private static void putText(ByteBuffer buf, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_TEXT);
+        VarInt.write(buf, length);
+        buf.put(bytes, 0, length);
+    }
+
+    private static String getText(ByteBuffer buf) {
+        int length = VarInt.readInt(buf);
+        if (length < 0 || length > MAX_TEXT || length > buf.remaining()) {
+            throw new IllegalArgumentException("Ungültige Textlänge: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package framework;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Einfacher Leaderboard-Dienst für {@link LeaderboardSync}, gedacht als lokaler Ersatz für Tests
+ * auf einem Rechner (Loopback) oder als kleiner Server im Hallennetz. Die Daten liegen nur im Speicher.
+ * <p>
+ * Pro Spiel werden alle Runden in Eingangsreihenfolge gehalten; die Position ist die Version, ab der
+ * ein Automat beim nächsten Abgleich die Runden der anderen bekommt. Pro Automat merkt sich der
+ * Server die höchste Sequenz, damit wiederholte Sendungen nichts doppelt eintragen.
+ * <p>
+ * Start von der Kommandozeile: {@code java framework.LeaderboardServer [port]}
+ */
+public class LeaderboardServer implements AutoCloseable {
+
+    /** Standard-Port, wenn keiner angegeben ist. */
+    public static final int DEFAULT_PORT = 47800;
+    /** Höchstens so viele Runden anderer Automaten pro Antwort; der Rest kommt beim nächsten Abgleich. */
+    static final int MAX_DELTAS = 1024;
+
+    private static final class Entry {
+        final String cabinet;
+        final HighScore score;
+
+        Entry(String cabinet, HighScore score) {
+            this.cabinet = cabinet;
+            this.score = score;
+        }
+    }
+
+    private static final class GameBoard {
+        final List<Entry> entries = new ArrayList<>();
+        final Map<String, Long> lastSequence = new HashMap<>();
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "LeaderboardServer-Connection");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<String, GameBoard> games = new HashMap<>();
+    private volatile boolean running = true;
+
+    /**
+     * Öffnet den Server-Socket und beginnt, Verbindungen anzunehmen.
+     *
+     * @param port Port, {@code 0} für einen freien Port (siehe {@link #getPort()}).
+     * @param loopbackOnly {@code true}, um nur Verbindungen vom eigenen Rechner anzunehmen.
+     */
+    public LeaderboardServer(int port, boolean loopbackOnly) throws IOException {
+        serverSocket = new ServerSocket(port, 50, loopbackOnly ? InetAddress.getLoopbackAddress() : null);
+        Thread acceptor = new Thread(this::acceptLoop, "LeaderboardServer-Accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return Die Anzahl der gespeicherten Runden eines Spiels. */
+    public synchronized int size(String game) {
+        GameBoard board = games.get(game);
+        return board == null ? 0 : board.entries.size();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) System.out.println("LeaderboardServer: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setSoTimeout(30_000);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            while (running) {
+                LeaderboardProtocol.Request request = LeaderboardProtocol.readRequest(in);
+                LeaderboardProtocol.writeResponse(out, handle(request));
+            }
+        } catch (EOFException | SocketException e) {
+            // Verbindung vom Automaten geschlossen
+        } catch (IOException e) {
+            System.out.println("LeaderboardServer: " + e.getMessage());
+        }
+    }
+
+    /** Trägt die neuen Runden ein und stellt die Runden der anderen Automaten zusammen. */
+    synchronized LeaderboardProtocol.Response handle(LeaderboardProtocol.Request request) {
+        GameBoard board = games.computeIfAbsent(request.game, g -> new GameBoard());
+        long acked = board.lastSequence.getOrDefault(request.cabinet, 0L);
+        for (int i = 0; i < request.scores.size(); i++) {
+            if (request.sequences[i] <= acked) continue; // schon erhalten (Wiederholung)
+            acked = request.sequences[i];
+            board.entries.add(new Entry(request.cabinet, request.scores.get(i)));
+        }
+        board.lastSequence.put(request.cabinet, acked);
+
+        List<HighScore> deltas = new ArrayList<>();
+        long[] ids = new long[Math.min(MAX_DELTAS, board.entries.size())];
+        int version = (int) Math.min(Math.max(request.sinceVersion, 0), board.entries.size());
+        while (version < board.entries.size() && deltas.size() < MAX_DELTAS) {
+            Entry entry = board.entries.get(version++);
+            if (entry.cabinet.equals(request.cabinet)) continue;
+            ids[deltas.size()] = version; // Id = Version nach dieser Runde, beginnt bei 1
+            deltas.add(entry.score);
+        }
+        return new LeaderboardProtocol.Response(acked, version, deltas, Arrays.copyOf(ids, deltas.size()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        new LeaderboardServer(port, false);
+        System.out.println("LeaderboardServer: Lausche auf Port " + port);
+        while (true) {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
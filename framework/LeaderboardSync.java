@@ -0,0 +1,432 @@
+package framework;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Gleicht die Runden mehrerer Automaten über einen {@link LeaderboardServer} ab.
+ * <p>
+ * {@link #submit(HighScore)} stellt eine Runde nur ein; alles Weitere passiert auf einem eigenen
+ * Hintergrund-Thread, sodass die Spielschleife nie auf das Netz wartet:
+ * <ul>
+ *     <li>Neue Runden werden zuerst in eine Offline-Warteschlange auf der Platte geschrieben
+ *     (Format von {@link ScoreJournal}), damit sie einen Neustart oder Netzausfall überstehen.</li>
+ *     <li>Bis zu {@link #MAX_BATCH} Runden gehen gebündelt in einer Anfrage an den Server
+ *     ({@link LeaderboardProtocol}); bestätigte Runden verlassen die Warteschlange.</li>
+ *     <li>Mit der Antwort kommen die neuen Runden der anderen Automaten (Delta seit der letzten
+ *     Version). Sie werden erst in einen Eingang auf der Platte ({@code .remote}, ebenfalls
+ *     {@link ScoreJournal}, Sequenz = Id auf dem Server) geschrieben und dann an {@code onRemoteScore}
+ *     übergeben. Die höchste Id im Eingang ist zugleich der Stand des Abgleichs: Runden und Stand werden
+ *     so mit einem Schreibvorgang gesichert, nach einem Absturz wird nichts doppelt übernommen. Beim Start
+ *     gehen alle Runden aus dem Eingang einmal an {@code onRemoteScore}; das Spiel übernimmt sie daher nur
+ *     in den Speicher, nicht in seinen eigenen {@link HighScoreStore}.</li>
+ *     <li>Ist der Server nicht erreichbar, wird mit exponentiell wachsender Wartezeit (mit Zufallsanteil)
+ *     erneut versucht; ohne neue Runden fragt der Automat alle {@link #POLL_INTERVAL_SECONDS} Sekunden nach.</li>
+ * </ul>
+ * Bestätigte Sequenz und Server-Version liegen in einer kleinen {@code .cursor}-Datei neben der Warteschlange
+ * (die Server-Version kann über der höchsten Id im Eingang liegen, weil eigene Runden nicht zurückkommen).
+ */
+public class LeaderboardSync implements AutoCloseable {
+
+    /** System-Property mit der Adresse des Servers, z.B. {@code -Darcade.leaderboard=halle-pc:47800}. */
+    public static final String PROPERTY_SERVER = "arcade.leaderboard";
+    /** System-Property mit dem Namen dieses Automaten (Standard: Rechnername). */
+    public static final String PROPERTY_CABINET = "arcade.cabinet";
+
+    /** Höchstens so viele Runden pro Anfrage. */
+    public static final int MAX_BATCH = 256;
+    public static final int POLL_INTERVAL_SECONDS = 30;
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(POLL_INTERVAL_SECONDS);
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int CONNECT_TIMEOUT_MS = 2000;
+    private static final int READ_TIMEOUT_MS = 5000;
+    /** Eine vollständig bestätigte Warteschlange wird ab dieser Größe gelöscht und neu begonnen. */
+    private static final int QUEUE_ROTATE_RECORDS = 1024;
+
+    private static final class Queued {
+        final long sequence;
+        final HighScore score;
+
+        Queued(long sequence, HighScore score) {
+            this.sequence = sequence;
+            this.score = score;
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final String cabinet;
+    private final String game;
+    private final Path queueFile;
+    private final Path cursorFile;
+    private final Path remoteFile;
+    private final Consumer<HighScore> onRemoteScore;
+
+    private final Queue<HighScore> submitted = new ConcurrentLinkedQueue<>();
+    private volatile int backlog = 0;
+    private volatile Thread thread;  // laufender Sync-Thread, null nach close()
+    private Thread lastStarted;      // geschützt durch "this"; kann nach close() noch laufen
+
+    // Nur im Sync-Thread benutzt
+    private final ArrayDeque<Queued> unsent = new ArrayDeque<>();
+    private final CRC32 crc = new CRC32();
+    private long nextSequence = 1;
+    private long ackedSequence = 0;
+    private long serverVersion = 0;
+    private int queueRecords = 0;
+    private boolean remoteLoaded = false; // Eingang schon an onRemoteScore übergeben
+    private long lastRemoteId = 0;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private long backoffNanos = 0;
+    private long nextAttemptAt = 0;
+    private long lastExchangeAt = 0;
+
+    /**
+     * Erzeugt den Abgleich aus den System-Properties {@link #PROPERTY_SERVER} und {@link #PROPERTY_CABINET}.
+     *
+     * @return Den (noch nicht gestarteten) Abgleich oder {@code null}, wenn kein Server konfiguriert ist.
+     */
+    public static LeaderboardSync fromSystemProperties(String game, String queueFileName, Consumer<HighScore> onRemoteScore) {
+        String server = System.getProperty(PROPERTY_SERVER);
+        if (server == null || server.isBlank()) return null;
+
+        int colon = server.lastIndexOf(':');
+        String host = colon < 0 ? server : server.substring(0, colon);
+        int port = LeaderboardServer.DEFAULT_PORT;
+        if (colon >= 0) {
+            try {
+                port = Integer.parseInt(server.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                System.out.println("LeaderboardSync: Ungültiger Port in " + PROPERTY_SERVER + "=" + server);
+                return null;
+            }
+        }
+
+        String cabinet = System.getProperty(PROPERTY_CABINET);
+        if (cabinet == null || cabinet.isBlank()) {
+            try {
+                cabinet = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                cabinet = "automat-" + ProcessHandle.current().pid();
+            }
+        }
+        return new LeaderboardSync(host, port, cabinet, game, queueFileName, onRemoteScore);
+    }
+
+    /**
+     * @param cabinet       Eindeutiger Name dieses Automaten.
+     * @param game          Spiel, z.B. {@code "snake"}.
+     * @param queueFileName Datei für die Offline-Warteschlange.
+     * @param onRemoteScore Erhält die Runden der anderen Automaten (im Sync-Thread), jede genau einmal pro Prozess;
+     *                      nur in den Speicher übernehmen, dauerhaft liegen sie im Eingang.
+     */
+    public LeaderboardSync(String host, int port, String cabinet, String game, String queueFileName,
+                           Consumer<HighScore> onRemoteScore) {
+        this.host = host;
+        this.port = port;
+        this.cabinet = cabinet;
+        this.game = game;
+        this.queueFile = Path.of(queueFileName).toAbsolutePath();
+        this.cursorFile = queueFile.resolveSibling(queueFile.getFileName() + ".cursor");
+        this.remoteFile = queueFile.resolveSibling(queueFile.getFileName() + ".remote");
+        this.onRemoteScore = onRemoteScore;
+    }
+
+    /**
+     * Startet den Hintergrund-Thread. Hängt der Thread eines vorherigen {@link #close()} noch (z.B. in einem
+     * Netzwerk-Timeout), wartet der neue Thread auf ihn, bevor er die Warteschlange liest; es laufen also nie
+     * zwei gleichzeitig.
+     */
+    public synchronized void start() {
+        if (thread != null) return;
+        Thread previous = lastStarted;
+        Thread t = new Thread(() -> run(previous), "LeaderboardSync-" + game);
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        thread = t;
+        lastStarted = t;
+        t.start();
+    }
+
+    /**
+     * Stellt eine lokal gespielte Runde zum Abgleich ein und kehrt sofort zurück.
+     */
+    public void submit(HighScore play) {
+        submitted.add(play);
+        Thread t = thread;
+        if (t != null) LockSupport.unpark(t);
+    }
+
+    /** @return Die Anzahl der Runden, die der Server noch nicht bestätigt hat. */
+    public int getBacklog() {
+        return backlog + submitted.size();
+    }
+
+    /**
+     * Beendet den Abgleich. Noch nicht geschriebene Runden landen vorher in der Warteschlange.
+     */
+    @Override
+    public void close() {
+        Thread t;
+        synchronized (this) {
+            t = thread;
+            thread = null;
+        }
+        if (t == null) return;
+        LockSupport.unpark(t);
+        try {
+            t.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- Sync-Thread ----------
+
+    private void run(Thread previous) {
+        Thread self = Thread.currentThread();
+        if (previous != null) {
+            try {
+                previous.join();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+        recover();
+        nextAttemptAt = System.nanoTime();
+        lastExchangeAt = nextAttemptAt - POLL_INTERVAL_NANOS; // gleich beim Start abgleichen
+        while (thread == self) {
+            persistSubmitted();
+
+            long now = System.nanoTime();
+            boolean due = now - nextAttemptAt >= 0
+                    && (!unsent.isEmpty() || now - lastExchangeAt >= POLL_INTERVAL_NANOS);
+            if (due) {
+                try {
+                    boolean more = exchange();
+                    if (backoffNanos > 0) System.out.println("LeaderboardSync: Verbindung zu " + host + ":" + port + " wieder da.");
+                    backoffNanos = 0;
+                    lastExchangeAt = System.nanoTime();
+                    if (more) continue;
+                } catch (IOException e) {
+                    disconnect();
+                    if (backoffNanos == 0) {
+                        System.out.println("LeaderboardSync: Server " + host + ":" + port + " nicht erreichbar ("
+                                + e.getMessage() + "), " + backlog + " Runde(n) warten.");
+                    }
+                    backoffNanos = backoffNanos == 0 ? MIN_BACKOFF_NANOS : Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+                    // Zufallsanteil, damit nicht alle Automaten gleichzeitig wiederkommen
+                    nextAttemptAt = System.nanoTime() + backoffNanos / 2
+                            + ThreadLocalRandom.current().nextLong(backoffNanos / 2 + 1);
+                }
+            }
+
+            now = System.nanoTime();
+            long wakeAt = backoffNanos > 0 ? nextAttemptAt : lastExchangeAt + POLL_INTERVAL_NANOS;
+            if (submitted.isEmpty() && wakeAt - now > 0) {
+                LockSupport.parkNanos(this, wakeAt - now);
+            }
+        }
+        persistSubmitted();
+        disconnect();
+    }
+
+    /** Liest Cursor und Warteschlange nach einem Neustart. */
+    private void recover() {
+        unsent.clear(); // nach close() und erneutem start() wieder von der Platte lesen
+        if (Files.exists(cursorFile)) {
+            try {
+                ByteBuffer cursor = ByteBuffer.wrap(Files.readAllBytes(cursorFile));
+                ackedSequence = cursor.getLong();
+                serverVersion = cursor.getLong();
+            } catch (IOException | RuntimeException e) {
+                System.out.println("LeaderboardSync: " + cursorFile.getFileName() + " unlesbar, beginne von vorn: " + e.getMessage());
+            }
+        }
+        nextSequence = ackedSequence + 1;
+
+        if (Files.exists(queueFile)) {
+            try {
+                // in den Heap statt gemappt, weil die Warteschlange später gelöscht wird
+                ScoreJournal.Replay replay = ScoreJournal.readCopy(queueFile, ackedSequence);
+                for (int i = 0; i < replay.scores.size(); i++) {
+                    unsent.add(new Queued(replay.sequences[i], replay.scores.get(i)));
+                }
+                nextSequence = Math.max(ackedSequence, replay.lastSequence) + 1;
+                queueRecords = replay.records;
+            } catch (IOException e) {
+                System.out.println("LeaderboardSync: " + queueFile.getFileName() + " konnte nicht gelesen werden: " + e.getMessage());
+            }
+        }
+        backlog = unsent.size();
+
+        if (!remoteLoaded && Files.exists(remoteFile)) {
+            try {
+                ScoreJournal.Replay replay = ScoreJournal.readCopy(remoteFile, 0);
+                for (HighScore remote : replay.scores) onRemoteScore.accept(remote);
+                lastRemoteId = replay.lastSequence;
+            } catch (IOException e) {
+                System.out.println("LeaderboardSync: " + remoteFile.getFileName() + " konnte nicht gelesen werden: " + e.getMessage());
+            }
+        }
+        remoteLoaded = true;
+        serverVersion = Math.max(serverVersion, lastRemoteId); // Absturz zwischen Eingang und Cursor
+    }
+
+    /** Schreibt neu eingestellte Runden in die Offline-Warteschlange. */
+    private void persistSubmitted() {
+        if (submitted.isEmpty()) return;
+
+        List<Queued> batch = new ArrayList<>();
+        for (HighScore hs; (hs = submitted.poll()) != null; ) {
+            batch.add(new Queued(nextSequence++, hs));
+        }
+
+        try {
+            queueRecords = append(queueFile, batch);
+        } catch (IOException e) {
+            // Trotzdem senden; nur ein Neustart vor der Bestätigung würde die Runden verlieren
+            System.out.println("LeaderboardSync: " + queueFile.getFileName() + " konnte nicht geschrieben werden: " + e.getMessage());
+        }
+        unsent.addAll(batch);
+        backlog = unsent.size();
+    }
+
+    /**
+     * Ein Abgleich: bis zu {@link #MAX_BATCH} Runden senden, Bestätigung und Delta empfangen.
+     *
+     * @return {@code true}, wenn sofort ein weiterer Abgleich nötig ist (mehr Runden oder mehr Delta).
+     */
+    private boolean exchange() throws IOException {
+        if (socket == null) connect();
+
+        int count = Math.min(unsent.size(), MAX_BATCH);
+        long[] sequences = new long[count];
+        List<HighScore> scores = new ArrayList<>(count);
+        int i = 0;
+        for (Queued q : unsent) {
+            if (i == count) break;
+            sequences[i++] = q.sequence;
+            scores.add(q.score);
+        }
+
+        LeaderboardProtocol.writeRequest(out, new LeaderboardProtocol.Request(cabinet, game, serverVersion, sequences, scores));
+        LeaderboardProtocol.Response response = LeaderboardProtocol.readResponse(in);
+
+        while (!unsent.isEmpty() && unsent.peek().sequence <= response.ackedSequence) unsent.poll();
+        backlog = unsent.size();
+        ackedSequence = Math.max(ackedSequence, response.ackedSequence);
+
+        // Runden der anderen erst in den Eingang, dann übernehmen; schon übernommene (Id) auslassen
+        List<Queued> fresh = new ArrayList<>();
+        for (int k = 0; k < response.deltas.size(); k++) {
+            if (response.deltaIds[k] > lastRemoteId) fresh.add(new Queued(response.deltaIds[k], response.deltas.get(k)));
+        }
+        if (!fresh.isEmpty()) {
+            append(remoteFile, fresh);
+            lastRemoteId = fresh.get(fresh.size() - 1).sequence;
+            for (Queued q : fresh) onRemoteScore.accept(q.score);
+        }
+        serverVersion = Math.max(response.version, lastRemoteId);
+        writeCursor();
+
+        if (unsent.isEmpty() && queueRecords >= QUEUE_ROTATE_RECORDS) {
+            Files.deleteIfExists(queueFile); // alles bestätigt: neu beginnen, Sequenzen laufen weiter
+            queueRecords = 0;
+        }
+        return !unsent.isEmpty() || response.deltas.size() >= LeaderboardServer.MAX_DELTAS;
+    }
+
+    private void connect() throws IOException {
+        Socket s = new Socket();
+        try {
+            s.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            s.setSoTimeout(READ_TIMEOUT_MS);
+            s.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            socket = s;
+        } catch (IOException e) {
+            s.close();
+            throw e;
+        }
+    }
+
+    private void disconnect() {
+        if (socket == null) return;
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Verbindung ist ohnehin weg
+        }
+        socket = null;
+        in = null;
+        out = null;
+    }
+
+    /**
+     * Hängt Einträge an ein Journal an (abgerissenen Rest vorher abschneiden) und wartet auf {@code fsync}.
+     *
+     * @return Anzahl der Einträge im Journal danach.
+     */
+    private int append(Path file, List<Queued> records) throws IOException {
+        boolean created = !Files.exists(file);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = ScoreJournal.prepareAppend(ch, file);
+            int before = ScoreJournal.recordsBefore(position);
+            ByteBuffer buf = ByteBuffer.allocate(records.size() * ScoreJournal.RECORD_SIZE
+                    + (position == 0 ? ScoreJournal.HEADER_SIZE : 0));
+            if (position == 0) ScoreJournal.encodeHeader(buf);
+            for (Queued q : records) ScoreJournal.encode(q.score, q.sequence, buf, crc);
+            buf.flip();
+            while (buf.hasRemaining()) position += ch.write(buf, position);
+            ch.force(true);
+            if (created) ScoreFile.syncDirectory(file);
+            return before + records.size();
+        }
+    }
+
+    /** Sichert bestätigte Sequenz und Server-Version atomar (temporäre Datei, {@code fsync}, umbenennen). */
+    private void writeCursor() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(16).putLong(ackedSequence).putLong(serverVersion).flip();
+        Path temp = cursorFile.resolveSibling(cursorFile.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        try {
+            Files.move(temp, cursorFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, cursorFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
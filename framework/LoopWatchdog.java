@@ -0,0 +1,292 @@
+package framework;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.lang.management.LockInfo;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Erkennt hängende Spielschleifen und einen blockierten Event-Dispatch-Thread und schreibt dazu Berichte.
+ * <p>
+ * Ein eigener Thread prüft alle {@code budget / 4} ms den Herzschlag jeder laufenden {@link GameLoop}
+ * (Beginn des laufenden Ticks) und schickt dem EDT per {@code invokeLater} ein Signal. Dauert ein Tick oder
+ * die Antwort des EDT länger als das Budget, wird einmal pro Hänger ein Bericht geschrieben: betroffener Thread
+ * mit Stacktrace, Abschnitt ({@link GameLoop#stage(String)} bzw. "EDT"), Sperren samt Stack des Besitzers und
+ * angeforderte/gezeichnete Bilder. Die Berichte liegen als Ring von höchstens {@link #MAX_INCIDENTS} Dateien
+ * {@code incident-NN.txt} im Verzeichnis {@value #PROPERTY_DIR} (Standard {@code incidents}); der älteste
+ * wird überschrieben.
+ * <p>
+ * Angehaltene Schleifen ({@link GameLoop#park()}, z.B. durch den {@link IdleController}) werden übersprungen.
+ * Läuft keine Schleife mehr, bekommt auch der EDT keine Signale und der Watchdog-Thread parkt, bis
+ * {@link #watch(GameLoop)} oder {@link GameLoop#unpark()} ihn weckt.
+ * <p>
+ * Die Spielschleife selbst schreibt pro Tick nur zwei Felder; alles andere passiert im Watchdog-Thread.
+ * Budget: {@code -Darcade.watchdog.budgetMs=250}; {@code 0} schaltet den Watchdog ab.
+ */
+public final class LoopWatchdog {
+
+    /** System-Property: Budget in Millisekunden, ab dem ein Tick als hängend gilt ({@code 0}: aus). */
+    public static final String PROPERTY_BUDGET = "arcade.watchdog.budgetMs";
+    /** System-Property: Verzeichnis der Berichte. */
+    public static final String PROPERTY_DIR = "arcade.watchdog.dir";
+    /** Höchstzahl der aufbewahrten Berichte. */
+    public static final int MAX_INCIDENTS = 16;
+
+    private static final long DEFAULT_BUDGET_MS = 250;
+    private static final String STAGE_EDT = "EDT (Zeichnen, Swing-Ereignisse)";
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final LoopWatchdog SHARED = new LoopWatchdog(
+            Long.getLong(PROPERTY_BUDGET, DEFAULT_BUDGET_MS),
+            Path.of(System.getProperty(PROPERTY_DIR, "incidents")));
+
+    /** Eine überwachte Schleife; die Felder gehören dem Watchdog-Thread. */
+    private static final class Watched {
+        final GameLoop loop;
+        long reportedTick = 0; // Beginn des Ticks, zu dem schon ein Bericht geschrieben wurde
+
+        Watched(GameLoop loop) {
+            this.loop = loop;
+        }
+    }
+
+    private final long budgetNanos;
+    private final Path directory;
+    private final List<Watched> loops = new CopyOnWriteArrayList<>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private Thread thread; // geschützt durch "this"
+
+    // EDT-Signal: gesendet um edtPingSent (0 = keines unterwegs), beantwortet durch Zurücksetzen
+    private volatile long edtPingSent = 0;
+    private volatile Thread edt;
+    private long edtReported = 0;
+
+    private int nextIncident = -1; // nur im Watchdog-Thread
+
+    /**
+     * @param budgetMs  Ab dieser Dauer gilt ein Tick als hängend ({@code 0}: Watchdog aus).
+     * @param directory Verzeichnis der Berichte.
+     */
+    public LoopWatchdog(long budgetMs, Path directory) {
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, budgetMs));
+        this.directory = directory.toAbsolutePath();
+    }
+
+    /** Der gemeinsame Watchdog, bei dem sich jede {@link GameLoop} beim Start anmeldet. */
+    public static LoopWatchdog shared() {
+        return SHARED;
+    }
+
+    /** Überwacht die Schleife, bis {@link #unwatch(GameLoop)} aufgerufen wird. */
+    public synchronized void watch(GameLoop loop) {
+        if (budgetNanos == 0) return;
+        loops.add(new Watched(loop));
+        if (thread == null) {
+            thread = new Thread(this::run, "LoopWatchdog");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /** Weckt den Watchdog-Thread, wenn eine angehaltene Schleife weiterläuft. */
+    synchronized void wake() {
+        if (thread != null) LockSupport.unpark(thread);
+    }
+
+    /** Beendet die Überwachung der Schleife. */
+    public void unwatch(GameLoop loop) {
+        loops.removeIf(w -> w.loop == loop);
+    }
+
+    private void run() {
+        long interval = Math.max(TimeUnit.MILLISECONDS.toNanos(10), budgetNanos / 4);
+        while (true) {
+            long now = System.nanoTime();
+            boolean ticking = false;
+            for (Watched w : loops) {
+                checkLoop(w, now);
+                // angehaltene Schleifen halten weder den Watchdog noch das EDT-Signal wach
+                if (!w.loop.isParked() || w.loop.tickStartedNanos() != 0) ticking = true;
+            }
+            if (ticking || edtPingSent != 0) {
+                checkEdt(now, ticking);
+                LockSupport.parkNanos(this, interval);
+            } else {
+                LockSupport.park(this); // bis watch() oder GameLoop.unpark()
+            }
+        }
+    }
+
+    private void checkLoop(Watched w, long now) {
+        long started = w.loop.tickStartedNanos();
+        if (w.reportedTick != 0 && started != w.reportedTick) {
+            System.out.printf("LoopWatchdog: %s läuft wieder (Hänger etwa %.0f ms).%n",
+                    w.loop.getName(), (now - w.reportedTick) / 1e6);
+            w.reportedTick = 0;
+        }
+        if (started == 0 || started == w.reportedTick || now - started < budgetNanos) return;
+
+        w.reportedTick = started;
+        Thread stalled = w.loop.thread();
+        if (stalled == null) return; // gerade gestoppt
+        report(w.loop.getName(), w.loop.currentStage(), stalled, now - started, w.loop.metrics());
+    }
+
+    /** @param ping Neues Signal schicken, falls keins unterwegs ist (nur solange eine Schleife läuft). */
+    private void checkEdt(long now, boolean ping) {
+        long sent = edtPingSent;
+        if (sent == 0) {
+            if (!ping) return;
+            if (edtReported != 0) {
+                System.out.printf("LoopWatchdog: EDT antwortet wieder (Hänger etwa %.0f ms).%n", (now - edtReported) / 1e6);
+                edtReported = 0;
+            }
+            edtPingSent = now;
+            SwingUtilities.invokeLater(() -> {
+                edt = Thread.currentThread();
+                edtPingSent = 0;
+            });
+            return;
+        }
+        if (edtReported == 0 && now - sent >= budgetNanos) {
+            edtReported = sent;
+            // Hängt der EDT schon seit dem Start (z.B. modaler Dialog), hat er noch nie geantwortet
+            Thread edtThread = edt != null ? edt : findEdt();
+            GameMetrics metrics = null;
+            for (Watched w : loops) {
+                metrics = w.loop.metrics();
+                break;
+            }
+            report("EDT", STAGE_EDT, edtThread, now - sent, metrics);
+        }
+    }
+
+    /** Sucht den EDT über seinen Namen, solange er noch auf kein Signal geantwortet hat; sonst {@code null}. */
+    private static Thread findEdt() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().startsWith("AWT-EventQueue")) return t;
+        }
+        return null;
+    }
+
+    // ---------- Berichte ----------
+
+    /** @param stalled Der hängende Thread, {@code null} wenn er unbekannt ist (Bericht dann ohne Stack). */
+    private void report(String source, String stage, Thread stalled, long stalledNanos, GameMetrics metrics) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Hänger: ").append(source).append('\n');
+        sb.append("Zeit: ").append(LocalDateTime.now().format(TIME)).append('\n');
+        sb.append(String.format("Dauer bisher: %.0f ms (Budget %d ms)%n", stalledNanos / 1e6, TimeUnit.NANOSECONDS.toMillis(budgetNanos)));
+        sb.append("Abschnitt: ").append(stage).append('\n');
+        if (metrics != null) {
+            sb.append("Spiel: ").append(metrics.getGame()).append('\n');
+            sb.append(String.format("Bilder angefordert/gezeichnet: %d/%d, Ticks: %d (verspätet %d)%n",
+                    metrics.getFramesRequested(), metrics.getFramesPainted(), metrics.getTicks(), metrics.getLateTicks()));
+        }
+        sb.append('\n');
+
+        @SuppressWarnings("deprecation") // Thread.threadId() gibt es erst ab Java 19
+        long id = stalled != null ? stalled.getId() : -1;
+        ThreadInfo info = stalled != null ? threads.getThreadInfo(new long[]{id}, true, true)[0] : null;
+        if (stalled == null) {
+            sb.append("Thread unbekannt: ").append(source).append(" hat noch auf kein Signal geantwortet.\n");
+        } else if (info == null) {
+            appendStack(sb, stalled.getName(), stalled.getState().toString(), stalled.getStackTrace(), null);
+        } else {
+            appendThread(sb, info);
+            if (info.getLockOwnerId() >= 0) {
+                ThreadInfo owner = threads.getThreadInfo(new long[]{info.getLockOwnerId()}, true, true)[0];
+                if (owner != null) {
+                    sb.append("\nBesitzer der Sperre:\n");
+                    appendThread(sb, owner);
+                }
+            }
+        }
+
+        Path file = writeIncident(sb.toString());
+        System.out.printf("LoopWatchdog: %s hängt seit %.0f ms in \"%s\"%s%n", source, stalledNanos / 1e6, stage,
+                file == null ? "" : " – Bericht: " + file);
+    }
+
+    private static void appendThread(StringBuilder sb, ThreadInfo info) {
+        String state = info.getThreadState().toString();
+        if (info.getLockName() != null) {
+            state += " auf " + info.getLockName()
+                    + (info.getLockOwnerName() != null ? " (gehalten von \"" + info.getLockOwnerName() + "\")" : "");
+        }
+        appendStack(sb, info.getThreadName(), state, info.getStackTrace(), info);
+    }
+
+    private static void appendStack(StringBuilder sb, String name, String state, StackTraceElement[] stack, ThreadInfo info) {
+        sb.append('"').append(name).append("\" ").append(state).append('\n');
+        for (int i = 0; i < stack.length; i++) {
+            sb.append("    at ").append(stack[i]).append('\n');
+            if (info == null) continue;
+            for (MonitorInfo m : info.getLockedMonitors()) {
+                if (m.getLockedStackDepth() == i) sb.append("    - hält ").append(m).append('\n');
+            }
+        }
+        if (info != null) {
+            for (LockInfo l : info.getLockedSynchronizers()) sb.append("    - hält ").append(l).append('\n');
+        }
+    }
+
+    /**
+     * Schreibt den Bericht in die nächste Datei des Rings (erst in eine temporäre Datei, dann umbenannt).
+     *
+     * @return Die Datei, oder {@code null} wenn sie nicht geschrieben werden konnte.
+     */
+    private Path writeIncident(String text) {
+        try {
+            Files.createDirectories(directory);
+            if (nextIncident < 0) nextIncident = findNextSlot();
+            Path file = directory.resolve(String.format("incident-%02d.txt", nextIncident));
+            nextIncident = (nextIncident + 1) % MAX_INCIDENTS;
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, text);
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return file;
+        } catch (IOException e) {
+            System.out.println("LoopWatchdog: Bericht konnte nicht geschrieben werden: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Platz nach dem jüngsten vorhandenen Bericht, damit ein Neustart den Ring fortsetzt. */
+    private int findNextSlot() throws IOException {
+        int newest = -1;
+        FileTime newestTime = null;
+        for (int i = 0; i < MAX_INCIDENTS; i++) {
+            Path file = directory.resolve(String.format("incident-%02d.txt", i));
+            if (!Files.exists(file)) continue;
+            FileTime time = Files.getLastModifiedTime(file);
+            if (newestTime == null || time.compareTo(newestTime) > 0) {
+                newest = i;
+                newestTime = time;
+            }
+        }
+        return (newest + 1) % MAX_INCIDENTS;
+    }
+}
@@ -0,0 +1,180 @@
+package framework;
+
+/**
+ * Reicht alle Ereignisse an den Listener des Spiels weiter, zählt sie für die {@link GameMetrics} und
+ * misst sie als {@link ArcadeEvents.InputDispatchEvent}.
+ */
+class MeteredInputListener implements InputListener {
+
+    private final InputListener target;
+    private final GameMetrics metrics;
+
+    MeteredInputListener(InputListener target, GameMetrics metrics) {
+        this.target = target;
+        this.metrics = metrics;
+    }
+
+    // === Buttons Spieler 1 ===
+
+    @Override public void onButtonA1Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonA1Pressed();
+        metrics.endInput(e, "onButtonA1Pressed");
+    }
+
+    @Override public void onButtonA1Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonA1Released();
+        metrics.endInput(e, "onButtonA1Released");
+    }
+
+    @Override public void onButtonB1Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonB1Pressed();
+        metrics.endInput(e, "onButtonB1Pressed");
+    }
+
+    @Override public void onButtonB1Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonB1Released();
+        metrics.endInput(e, "onButtonB1Released");
+    }
+
+    @Override public void onButtonX1Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonX1Pressed();
+        metrics.endInput(e, "onButtonX1Pressed");
+    }
+
+    @Override public void onButtonX1Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonX1Released();
+        metrics.endInput(e, "onButtonX1Released");
+    }
+
+    @Override public void onButtonY1Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonY1Pressed();
+        metrics.endInput(e, "onButtonY1Pressed");
+    }
+
+    @Override public void onButtonY1Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonY1Released();
+        metrics.endInput(e, "onButtonY1Released");
+    }
+
+    // === Buttons Spieler 2 ===
+
+    @Override public void onButtonA2Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonA2Pressed();
+        metrics.endInput(e, "onButtonA2Pressed");
+    }
+
+    @Override public void onButtonA2Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonA2Released();
+        metrics.endInput(e, "onButtonA2Released");
+    }
+
+    @Override public void onButtonB2Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonB2Pressed();
+        metrics.endInput(e, "onButtonB2Pressed");
+    }
+
+    @Override public void onButtonB2Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonB2Released();
+        metrics.endInput(e, "onButtonB2Released");
+    }
+
+    @Override public void onButtonX2Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonX2Pressed();
+        metrics.endInput(e, "onButtonX2Pressed");
+    }
+
+    @Override public void onButtonX2Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonX2Released();
+        metrics.endInput(e, "onButtonX2Released");
+    }
+
+    @Override public void onButtonY2Pressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonY2Pressed();
+        metrics.endInput(e, "onButtonY2Pressed");
+    }
+
+    @Override public void onButtonY2Released() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonY2Released();
+        metrics.endInput(e, "onButtonY2Released");
+    }
+
+    // === Menü Button ===
+
+    @Override public void onButtonMenuPressed() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonMenuPressed();
+        metrics.endInput(e, "onButtonMenuPressed");
+    }
+
+    @Override public void onButtonMenuReleased() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onButtonMenuReleased();
+        metrics.endInput(e, "onButtonMenuReleased");
+    }
+
+    // === Joysticks ===
+
+    @Override public void onJoystick1Up() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick1Up();
+        metrics.endInput(e, "onJoystick1Up");
+    }
+
+    @Override public void onJoystick1Down() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick1Down();
+        metrics.endInput(e, "onJoystick1Down");
+    }
+
+    @Override public void onJoystick1Left() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick1Left();
+        metrics.endInput(e, "onJoystick1Left");
+    }
+
+    @Override public void onJoystick1Right() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick1Right();
+        metrics.endInput(e, "onJoystick1Right");
+    }
+
+    @Override public void onJoystick2Up() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick2Up();
+        metrics.endInput(e, "onJoystick2Up");
+    }
+
+    @Override public void onJoystick2Down() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick2Down();
+        metrics.endInput(e, "onJoystick2Down");
+    }
+
+    @Override public void onJoystick2Left() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick2Left();
+        metrics.endInput(e, "onJoystick2Left");
+    }
+
+    @Override public void onJoystick2Right() {
+        ArcadeEvents.InputDispatchEvent e = metrics.beginInput();
+        target.onJoystick2Right();
+        metrics.endInput(e, "onJoystick2Right");
+    }
+}
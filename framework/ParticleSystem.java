@@ -0,0 +1,139 @@
+package framework;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Ein einfaches Partikelsystem für visuelles Feedback (z.B. zerstörte Ziegel, eingesammeltes Essen).
+ * <p>
+ * Alle Partikel liegen in primitiven Arrays fester Kapazität; abgelaufene Partikel werden per
+ * Swap-Remove entfernt. Nach dem Erzeugen allokiert das System nichts mehr, weder beim Emittieren
+ * noch beim Aktualisieren oder Zeichnen. Pro Frame ({@link #update()}) dürfen höchstens
+ * {@code emitBudget} neue Partikel entstehen; was darüber hinausgeht oder nicht mehr in die
+ * Kapazität passt, wird verworfen.
+ * <p>
+ * {@link #update()} läuft im Spieltakt, {@link #render(Graphics)} auf dem Swing-Thread;
+ * die Methoden sind daher synchronisiert.
+ */
+public class ParticleSystem {
+
+    private static final float GRAVITY = 0.15f;
+
+    private final int capacity;
+    private final int emitBudget;
+
+    // Partikel (Struct-of-Arrays)
+    private final float[] x, y, vx, vy;
+    private final int[] life, maxLife;
+    private final Color[] color;
+    private int count = 0;
+
+    private int emittedThisFrame = 0;
+    private int seed = 0x2545F491; // Zustand des internen Xorshift-Generators
+
+    /**
+     * @param capacity   Maximale Anzahl gleichzeitig lebender Partikel.
+     * @param emitBudget Maximale Anzahl neuer Partikel pro Frame.
+     */
+    public ParticleSystem(int capacity, int emitBudget) {
+        this.capacity = capacity;
+        this.emitBudget = emitBudget;
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new int[capacity];
+        maxLife = new int[capacity];
+        color = new Color[capacity];
+    }
+
+    /**
+     * Erzeugt eine Explosion aus {@code amount} Partikeln an der gegebenen Position.
+     *
+     * @param speed      Maximale Anfangsgeschwindigkeit in Pixeln pro Frame.
+     * @param lifeFrames Lebensdauer in Frames; kleinere Werte als 1 zählen als 1.
+     * @return Die Anzahl der tatsächlich erzeugten Partikel (durch Budget und Kapazität begrenzt).
+     */
+    public synchronized int emit(float px, float py, int amount, Color c, float speed, int lifeFrames) {
+        int n = Math.min(amount, Math.min(emitBudget - emittedThisFrame, capacity - count));
+        lifeFrames = Math.max(1, lifeFrames); // render() teilt durch maxLife
+        for (int k = 0; k < n; k++) {
+            int i = count++;
+            x[i] = px;
+            y[i] = py;
+            vx[i] = (nextFloat() * 2 - 1) * speed;
+            vy[i] = (nextFloat() * 2 - 1) * speed;
+            life[i] = lifeFrames;
+            maxLife[i] = lifeFrames;
+            color[i] = c;
+        }
+        emittedThisFrame += Math.max(0, n);
+        return Math.max(0, n);
+    }
+
+    /**
+     * Bewegt alle Partikel um einen Frame weiter, entfernt abgelaufene und setzt das Emissionsbudget zurück.
+     */
+    public synchronized void update() {
+        emittedThisFrame = 0;
+        for (int i = 0; i < count; i++) {
+            if (--life[i] <= 0) {
+                remove(i--);
+                continue;
+            }
+            x[i] += vx[i];
+            y[i] += vy[i];
+            vy[i] += GRAVITY;
+        }
+    }
+
+    /**
+     * Zeichnet alle Partikel in einem Durchgang; die Farbe wird nur gewechselt, wenn sie sich
+     * vom vorherigen Partikel unterscheidet. Partikel schrumpfen mit abnehmender Lebensdauer.
+     */
+    public synchronized void render(Graphics g) {
+        Color current = null;
+        for (int i = 0; i < count; i++) {
+            if (color[i] != current) {
+                current = color[i];
+                g.setColor(current);
+            }
+            int size = 1 + (3 * life[i]) / maxLife[i];
+            g.fillRect((int) x[i], (int) y[i], size, size);
+        }
+    }
+
+    /** Entfernt alle Partikel (z.B. beim Neustart). */
+    public synchronized void clear() {
+        count = 0;
+        Arrays.fill(color, null);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void remove(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        life[i] = life[last];
+        maxLife[i] = maxLife[last];
+        color[i] = color[last];
+        color[last] = null;
+    }
+
+    /** Xorshift32, liefert einen Wert in [0, 1). */
+    private float nextFloat() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return (seed >>> 8) * 0x1.0p-24f;
+    }
+}
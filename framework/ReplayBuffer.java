@@ -0,0 +1,188 @@
+package framework;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Ringpuffer der letzten Sekunden eines Spiels für eine Sofort-Wiederholung (z.B. nach dem Game Over).
+ * <p>
+ * Gespeichert werden {@link Scene}s, kodiert mit {@link SceneCodec}: alle {@code keyframeInterval} Ticks ein
+ * Schlüsselbild, dazwischen nur Änderungen. Alle Puffer werden im Konstruktor angelegt (ein {@code byte[]} für die
+ * Daten, primitive Ringe für Lage und Art der Bilder); ist einer voll, fallen die ältesten Bilder heraus. Der
+ * Speicherbedarf hängt also nicht von der Spieldauer ab.
+ * <p>
+ * Abspielen: {@link #frame(int)} setzt ein Bild ab dem vorhergehenden Schlüsselbild zusammen; beim Vorwärtslaufen
+ * wird vom zuletzt gezeigten Bild aus weiter dekodiert, rückwärts höchstens {@code keyframeInterval} Änderungen.
+ * Beides ist schnell genug, um in jedem Tick ein anderes Bild zu zeigen.
+ * <p>
+ * Nicht threadsicher: Aufzeichnen und Abspielen laufen in der Spielschleife.
+ */
+public final class ReplayBuffer {
+
+    private final int keyframeInterval;
+    private final byte[] data;
+    private final int[] frameStart;
+    private final int[] frameLength;
+    private final boolean[] keyframe;
+    private final int maxFrames;
+
+    private long first = 0;  // Nummer des ältesten gespeicherten Bilds
+    private int count = 0;   // Anzahl gespeicherter Bilder
+    private int writePos = 0;
+    private int bytesUsed = 0;
+    private int sinceKeyframe = 0;
+
+    // Aufzeichnung
+    private final Scene previous = new Scene("", 0, 0, 0);
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    // Abspielen
+    private final SceneCodec.Decoder decoder = new SceneCodec.Decoder();
+    private long decoded = -1; // Nummer des Bilds, das der Decoder gerade hält
+
+    /**
+     * @param maxFrames        Höchstzahl gespeicherter Bilder (z.B. 10 s / Takt plus ein Schlüsselbild-Abstand).
+     * @param capacityBytes    Größe des Datenpuffers.
+     * @param keyframeInterval Abstand der Schlüsselbilder in Ticks.
+     */
+    public ReplayBuffer(int maxFrames, int capacityBytes, int keyframeInterval) {
+        if (maxFrames <= keyframeInterval || keyframeInterval <= 0) {
+            throw new IllegalArgumentException("maxFrames muss größer als keyframeInterval (> 0) sein");
+        }
+        this.maxFrames = maxFrames;
+        this.keyframeInterval = keyframeInterval;
+        this.data = new byte[capacityBytes];
+        this.frameStart = new int[maxFrames];
+        this.frameLength = new int[maxFrames];
+        this.keyframe = new boolean[maxFrames];
+    }
+
+    /**
+     * Puffer für die letzten {@code seconds} Sekunden eines Spiels mit dem gegebenen Takt; Schlüsselbild jede halbe
+     * Sekunde, 256 KB Daten.
+     */
+    public static ReplayBuffer forSeconds(int seconds, int tickMillis) {
+        int interval = Math.max(1, 500 / tickMillis);
+        return new ReplayBuffer(seconds * 1000 / tickMillis + interval + 1, 256 * 1024, interval);
+    }
+
+    /** Verwirft alle Bilder (z.B. beim Start einer neuen Runde). */
+    public void clear() {
+        first += count;
+        count = 0;
+        bytesUsed = 0;
+        sinceKeyframe = 0;
+        decoded = -1;
+    }
+
+    /** Nimmt den Zustand nach einem Tick auf. */
+    public void record(Scene scene) {
+        long number = first + count;
+        boolean key = count == 0 || sinceKeyframe >= keyframeInterval - 1 || !previous.sameShape(scene);
+        int length = encode(scene, number, key);
+        if (length > data.length) {
+            System.out.println("ReplayBuffer: Bild mit " + length + " Bytes passt nicht in den Puffer");
+            return;
+        }
+
+        while (count > 0 && (count == maxFrames || bytesUsed + length > data.length)) dropOldest();
+        if (count == 0 && !key) { // Vorgänger verdrängt: neu als Schlüsselbild
+            key = true;
+            length = encode(scene, number, true);
+        }
+
+        int slot = (int) (number % maxFrames);
+        int start = writePos;
+        frameStart[slot] = start;
+        frameLength[slot] = length;
+        keyframe[slot] = key;
+        int tail = Math.min(length, data.length - start);
+        System.arraycopy(scratch.array(), 0, data, start, tail);
+        System.arraycopy(scratch.array(), tail, data, 0, length - tail);
+        writePos = (start + length) % data.length;
+        bytesUsed += length;
+        count++;
+        sinceKeyframe = key ? 0 : sinceKeyframe + 1;
+        previous.copyFrom(scene);
+        if (decoded >= number) decoded = -1;
+    }
+
+    private int encode(Scene scene, long number, boolean key) {
+        while (true) {
+            scratch.clear();
+            try {
+                if (key) SceneCodec.writeKeyframe(scene, number, scratch);
+                else SceneCodec.writeDelta(previous, scene, 1, scratch);
+                return scratch.position();
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+    }
+
+    private void dropOldest() {
+        int slot = (int) (first % maxFrames);
+        bytesUsed -= frameLength[slot];
+        first++;
+        count--;
+        if (decoded < first) decoded = -1;
+    }
+
+    /** Nummer des ältesten Schlüsselbilds; ab dort lässt sich abspielen. */
+    private long oldestKeyframe() {
+        for (long n = first; n < first + count; n++) {
+            if (keyframe[(int) (n % maxFrames)]) return n;
+        }
+        return first + count;
+    }
+
+    /** @return Anzahl der abspielbaren Bilder. */
+    public int size() {
+        return (int) (first + count - oldestKeyframe());
+    }
+
+    /**
+     * Setzt ein Bild zusammen.
+     *
+     * @param index {@code 0} = ältestes abspielbares Bild, {@code size() - 1} = jüngstes.
+     * @return Die Szene; gehört dem Puffer und wird beim nächsten Aufruf überschrieben.
+     */
+    public Scene frame(int index) {
+        int size = size();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index + " / " + size);
+        long target = first + count - size + index;
+
+        long from;
+        if (decoded >= 0 && decoded <= target && target - decoded <= keyframeInterval) {
+            from = decoded + 1; // vorwärts weiter
+        } else {
+            from = target;
+            while (!keyframe[(int) (from % maxFrames)]) from--;
+        }
+        for (long n = from; n <= target; n++) apply(n);
+        decoded = target;
+        return decoder.scene();
+    }
+
+    private void apply(long number) {
+        int slot = (int) (number % maxFrames);
+        int start = frameStart[slot], length = frameLength[slot];
+        ByteBuffer in;
+        if (start + length <= data.length) {
+            in = ByteBuffer.wrap(data, start, length);
+        } else {
+            // Bild läuft über das Pufferende: zusammenhängend in den Arbeitspuffer kopieren
+            if (scratch.capacity() < length) scratch = ByteBuffer.allocate(length);
+            int tail = data.length - start;
+            System.arraycopy(data, start, scratch.array(), 0, tail);
+            System.arraycopy(data, 0, scratch.array(), tail, length - tail);
+            in = ByteBuffer.wrap(scratch.array(), 0, length);
+        }
+        decoder.apply(in);
+    }
+
+    /** @return Belegte Bytes im Datenpuffer. */
+    public int getBytesUsed() {
+        return bytesUsed;
+    }
+}
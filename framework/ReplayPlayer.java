@@ -0,0 +1,115 @@
+package framework;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Sofort-Wiederholung für ein Spiel: nimmt die letzten Sekunden in einem {@link ReplayBuffer} auf und spielt sie
+ * nach dem Game Over vor- und rückwärts ab.
+ * <p>
+ * Aufnehmen und {@link #update()} laufen in der Spielschleife; {@link #toggle()} und {@link #scrub(int)} dürfen aus
+ * dem Eingabe-Thread kommen und werden im nächsten Tick übernommen. Gezeichnet wird eine Kopie der Szene
+ * ({@link #paint(Consumer)}), damit der EDT nie ein halb dekodiertes Bild sieht.
+ */
+public final class ReplayPlayer {
+
+    private final ReplayBuffer buffer;
+    private final AtomicBoolean toggleRequested = new AtomicBoolean();
+    private volatile int speed = 1;     // +1 vorwärts, -1 rückwärts, 0 angehalten
+    private volatile boolean playing = false;
+    private volatile boolean available = false;
+    private int index = 0;              // nur in der Spielschleife
+    private volatile int shownIndex = 0;
+    private volatile int shownSize = 0;
+    private final Scene shown = new Scene("", 0, 0, 0); // Kopie für den EDT, geschützt durch "shown"
+
+    /**
+     * @param seconds    Länge der Wiederholung.
+     * @param tickMillis Takt der Spielschleife.
+     */
+    public ReplayPlayer(int seconds, int tickMillis) {
+        this.buffer = ReplayBuffer.forSeconds(seconds, tickMillis);
+    }
+
+    /** Nimmt den Zustand nach einem Tick auf (nur während des Spiels, nicht beim Abspielen). */
+    public void record(Scene scene) {
+        buffer.record(scene);
+        available = true;
+    }
+
+    /** Beendet das Abspielen und verwirft die Aufnahme (neue Runde). */
+    public void clear() {
+        playing = false;
+        available = false;
+        toggleRequested.set(false);
+        buffer.clear();
+    }
+
+    /** Startet bzw. beendet das Abspielen im nächsten Tick. */
+    public void toggle() {
+        toggleRequested.set(true);
+    }
+
+    /** Abspielrichtung: {@code 1} vorwärts, {@code -1} rückwärts, {@code 0} anhalten. */
+    public void scrub(int direction) {
+        speed = Integer.signum(direction);
+    }
+
+    /**
+     * Ein Tick der Wiederholung: übernimmt {@link #toggle()} und rückt ein Bild in Abspielrichtung weiter; an den
+     * Enden bleibt das Bild stehen.
+     *
+     * @return {@code true}, solange abgespielt wird.
+     */
+    public boolean update() {
+        if (toggleRequested.getAndSet(false)) {
+            if (playing) {
+                playing = false;
+            } else if (buffer.size() > 0) {
+                index = 0;
+                speed = 1;
+                playing = true;
+                show();
+            }
+            return playing;
+        }
+        if (!playing) return false;
+        int next = Math.max(0, Math.min(buffer.size() - 1, index + speed));
+        if (next != index) {
+            index = next;
+            show();
+        }
+        return true;
+    }
+
+    private void show() {
+        Scene scene = buffer.frame(index);
+        synchronized (shown) {
+            shown.copyFrom(scene);
+        }
+        shownIndex = index;
+        shownSize = buffer.size();
+    }
+
+    /** Zeichnet das aktuelle Bild der Wiederholung (aus dem EDT). */
+    public void paint(Consumer<Scene> painter) {
+        synchronized (shown) {
+            painter.accept(shown);
+        }
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /** @return {@code true}, wenn es etwas abzuspielen gibt. */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /** @return Position im Abspielen, {@code 0} (ältestes Bild) bis {@code 1} (Game Over). */
+    public double getProgress() {
+        int size = shownSize;
+        return size <= 1 ? 1 : (double) shownIndex / (size - 1);
+    }
+}
@@ -0,0 +1,89 @@
+package framework;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Paketformat von {@link RollbackSession} (ein UDP-Datagramm pro Tick und Richtung).
+ * <pre>
+ * int Magic "ABRB" | byte Version | long Seed | int Frame | int Ack | byte Vorsprung
+ *   | int Zeit | int Echo | int Sync-Frame | long Sync-Hash | int erster Frame | byte Anzahl | Anzahl × byte Eingabe
+ * </pre>
+ * <ul>
+ *     <li>Frame: nächster Frame, den der Sender simuliert; Ack: höchster lückenlos erhaltener Frame des Empfängers.</li>
+ *     <li>Eingaben: alle noch nicht bestätigten eigenen Eingaben ab "erster Frame" (Redundanz), sodass ein
+ *         verlorenes Paket vom nächsten ersetzt wird.</li>
+ *     <li>Vorsprung: wie viele Frames der Sender dem Empfänger voraus ist (für den Zeitabgleich).</li>
+ *     <li>Zeit/Echo: Millisekunden-Uhr des Senders bzw. die zuletzt erhaltene des Empfängers (Ping).</li>
+ *     <li>Sync: Hash des Zustands nach dem jüngsten Frame, dessen Eingaben beide Seiten sicher kennen.</li>
+ * </ul>
+ * Ganze Zahlen big-endian, wie {@link ByteBuffer} sie schreibt.
+ */
+final class RollbackProtocol {
+
+    static final int MAGIC = 0x41425242; // "ABRB"
+    static final byte VERSION = 1;
+    /** Höchstzahl der Eingaben pro Paket. */
+    static final int MAX_INPUTS = 64;
+    static final int HEADER_SIZE = 4 + 1 + 8 + 4 + 4 + 1 + 4 + 4 + 4 + 8 + 4 + 1;
+    static final int MAX_PACKET = HEADER_SIZE + MAX_INPUTS;
+
+    private RollbackProtocol() {}
+
+    /** Ein Paket; wird wiederverwendet. */
+    static final class Packet {
+        long seed;
+        int frame;
+        int ack;
+        int advantage;
+        int time;
+        int echo;
+        int syncFrame;
+        long syncHash;
+        int firstFrame;
+        int count;
+        final byte[] inputs = new byte[MAX_INPUTS];
+
+        void write(ByteBuffer out) {
+            out.clear();
+            out.putInt(MAGIC);
+            out.put(VERSION);
+            out.putLong(seed);
+            out.putInt(frame);
+            out.putInt(ack);
+            out.put((byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, advantage)));
+            out.putInt(time);
+            out.putInt(echo);
+            out.putInt(syncFrame);
+            out.putLong(syncHash);
+            out.putInt(firstFrame);
+            out.put((byte) count);
+            out.put(inputs, 0, count);
+            out.flip();
+        }
+
+        /**
+         * @return {@code false}, wenn das Datagramm kein gültiges Paket dieser Version ist.
+         */
+        boolean read(ByteBuffer in) {
+            try {
+                if (in.getInt() != MAGIC || in.get() != VERSION) return false;
+                seed = in.getLong();
+                frame = in.getInt();
+                ack = in.getInt();
+                advantage = in.get();
+                time = in.getInt();
+                echo = in.getInt();
+                syncFrame = in.getInt();
+                syncHash = in.getLong();
+                firstFrame = in.getInt();
+                count = in.get() & 0xFF;
+                if (count > MAX_INPUTS) return false;
+                in.get(inputs, 0, count);
+                return true;
+            } catch (BufferUnderflowException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package framework;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Netzwerkspiel für zwei Spieler mit Rollback (nach dem Vorbild von GGPO).
+ * <p>
+ * Beide Automaten simulieren dasselbe deterministische Spiel (siehe {@link GameSession}). Die eigene Eingabe
+ * wirkt sofort; die des Mitspielers wird vorhergesagt (seine letzte bekannte Eingabe bleibt gedrückt). Kommt
+ * die echte Eingabe an und weicht ab, wird der Zustand des betroffenen Frames wiederhergestellt und bis zum
+ * aktuellen Frame neu simuliert. Dafür sichert das Spiel vor jedem Frame einen Schnappschuss in einen von
+ * {@link #SNAPSHOTS} Plätzen ({@link Game#save(int)}).
+ * <p>
+ * Pro Tick geht ein kleines UDP-Paket raus ({@link RollbackProtocol}), das alle noch unbestätigten eigenen
+ * Eingaben enthält; ein verlorenes Paket wird so vom nächsten ersetzt. Wer mehr als
+ * {@link #MAX_PREDICTION} Frames vorhersagen müsste, wartet; wer dem anderen dauerhaft voraus ist, setzt
+ * gelegentlich einen Tick aus, damit beide gleich viel vorhersagen. Zusätzlich wird der {@link StateHash}
+ * sicher bestätigter Frames verglichen und eine Abweichung gemeldet.
+ * <p>
+ * Konfiguration über System-Properties (siehe {@link #fromSystemProperties}):
+ * {@code -Darcade.net.peer=host:port -Darcade.net.port=7460 -Darcade.net.player=1|2}, zum Testen über
+ * Loopback zusätzlich {@code -Darcade.net.lagMs=50 -Darcade.net.jitterMs=10 -Darcade.net.loss=5}.
+ * <p>
+ * Nicht threadsicher: {@link #tick(int)} wird von der Spielschleife aufgerufen; die Getter dienen der Anzeige.
+ */
+public final class RollbackSession implements AutoCloseable {
+
+    /**
+     * Das Spiel aus Sicht der Rollback-Logik. Alle Methoden laufen in der Spielschleife.
+     */
+    public interface Game {
+        /** Beginnt das Spiel mit dem gemeinsamen Seed (Spieler 1 legt ihn fest). */
+        void start(long seed);
+
+        /** Sichert den aktuellen Zustand in Platz {@code slot} ({@code 0 <= slot < SNAPSHOTS}). */
+        void save(int slot);
+
+        /** Stellt den in Platz {@code slot} gesicherten Zustand wieder her. */
+        void load(int slot);
+
+        /** Ein Tick mit den Eingaben beider Spieler. */
+        void advance(int input1, int input2);
+
+        /** Hash des aktuellen Zustands (siehe {@link StateHash}). */
+        long stateHash();
+    }
+
+    /** System-Property: Adresse des Mitspielers ({@code host:port}); ohne sie kein Netzwerkspiel. */
+    public static final String PROPERTY_PEER = "arcade.net.peer";
+    /** System-Property: eigener UDP-Port. */
+    public static final String PROPERTY_PORT = "arcade.net.port";
+    /** System-Property: eigene Spielernummer, {@code 1} oder {@code 2}. */
+    public static final String PROPERTY_PLAYER = "arcade.net.player";
+    /** System-Property: simulierte Verzögerung pro Richtung in Millisekunden. */
+    public static final String PROPERTY_LAG = "arcade.net.lagMs";
+    /** System-Property: zusätzliche zufällige Verzögerung in Millisekunden. */
+    public static final String PROPERTY_JITTER = "arcade.net.jitterMs";
+    /** System-Property: simulierter Paketverlust in Prozent. */
+    public static final String PROPERTY_LOSS = "arcade.net.loss";
+    public static final int DEFAULT_PORT = 7460;
+
+    /** Anzahl der Schnappschuss-Plätze. */
+    public static final int SNAPSHOTS = 32;
+    /** So viele Frames darf die Simulation dem letzten bestätigten Frame des Mitspielers voraus sein. */
+    public static final int MAX_PREDICTION = SNAPSHOTS - 8;
+
+    private static final int INPUT_RING = 128;
+    private static final int NONE = Integer.MAX_VALUE;
+    // Frühestens alle so viele Ticks einen Tick für den Zeitabgleich aussetzen
+    private static final int SKIP_COOLDOWN = 10;
+
+    private final Game game;
+    private final int localPlayer;
+    private final UdpLink link;
+    private final RollbackProtocol.Packet in = new RollbackProtocol.Packet();
+    private final RollbackProtocol.Packet out = new RollbackProtocol.Packet();
+    private final ByteBuffer buffer = ByteBuffer.allocate(RollbackProtocol.MAX_PACKET + 64);
+
+    private long seed;
+    private volatile boolean started = false;
+
+    private int frame = 0; // nächster zu simulierender Frame
+    private final byte[] localInputs = new byte[INPUT_RING];
+    private final byte[] remoteInputs = new byte[INPUT_RING];
+    private final int[] remoteFrames = new int[INPUT_RING]; // Frame, dessen Eingabe im Platz liegt
+    private int remoteConfirmed = -1; // höchster lückenlos erhaltener Frame des Mitspielers
+    private final byte[] usedRemote = new byte[SNAPSHOTS]; // bei der Simulation verwendete (vorhergesagte) Eingabe
+    private final long[] hashes = new long[SNAPSHOTS];     // Zustand nach dem Frame
+    private int rollbackFrom = NONE;
+
+    private int peerAck = -1;    // höchster eigener Frame, den der Mitspieler lückenlos hat
+    private int peerFrame = 0;   // zuletzt gemeldeter Frame des Mitspielers
+    private int peerAdvantage = 0;
+    private int peerTime = 0;
+    private int peerSyncFrame = -1;
+    private long peerSyncHash;
+    private int skipCooldown = 0;
+    private boolean desyncReported = false;
+
+    // Statistik für die Anzeige
+    private volatile int pingMillis = -1;
+    private volatile long rollbacks = 0;
+    private volatile long resimulatedFrames = 0;
+    private volatile int maxRollback = 0;
+    private volatile long stalls = 0;
+    private volatile long skippedTicks = 0;
+
+    /**
+     * @param game        Das Spiel.
+     * @param localPlayer {@code 1} oder {@code 2}; Spieler 1 legt den Seed fest.
+     * @param seed        Seed des Spiels (nur bei Spieler 1 verwendet).
+     * @param link        Verbindung zum Mitspieler; wird mit {@link #close()} geschlossen.
+     */
+    public RollbackSession(Game game, int localPlayer, long seed, UdpLink link) {
+        if (localPlayer != 1 && localPlayer != 2) {
+            throw new IllegalArgumentException("Spieler muss 1 oder 2 sein: " + localPlayer);
+        }
+        this.game = game;
+        this.localPlayer = localPlayer;
+        // Seed 0 bedeutet im Paket "noch nicht festgelegt"
+        this.seed = localPlayer == 1 ? (seed == 0 ? 1 : seed) : 0;
+        this.link = link;
+        Arrays.fill(remoteFrames, -1);
+    }
+
+    /**
+     * Erzeugt eine Sitzung aus den System-Properties.
+     *
+     * @return Die Sitzung, oder {@code null}, wenn {@value #PROPERTY_PEER} nicht gesetzt ist oder der Port
+     * nicht geöffnet werden kann.
+     */
+    public static RollbackSession fromSystemProperties(Game game, long seed) {
+        String peer = System.getProperty(PROPERTY_PEER);
+        if (peer == null || peer.isBlank()) return null;
+
+        int colon = peer.lastIndexOf(':');
+        String host = colon < 0 ? peer : peer.substring(0, colon);
+        int peerPort = DEFAULT_PORT;
+        if (colon >= 0) {
+            try {
+                peerPort = Integer.parseInt(peer.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                System.out.println("RollbackSession: Ungültiger Port in " + PROPERTY_PEER + "=" + peer);
+                return null;
+            }
+        }
+        int player = Integer.getInteger(PROPERTY_PLAYER, 1);
+        if (player != 1 && player != 2) {
+            System.out.println("RollbackSession: " + PROPERTY_PLAYER + " muss 1 oder 2 sein, nicht " + player);
+            return null;
+        }
+
+        try {
+            UdpLink link = new UdpLink(Integer.getInteger(PROPERTY_PORT, DEFAULT_PORT), new InetSocketAddress(host, peerPort),
+                    Integer.getInteger(PROPERTY_LAG, 0), Integer.getInteger(PROPERTY_JITTER, 0),
+                    Integer.getInteger(PROPERTY_LOSS, 0));
+            System.out.println("RollbackSession: Spieler " + player + ", Mitspieler " + host + ":" + peerPort);
+            return new RollbackSession(game, player, seed, link);
+        } catch (IOException e) {
+            System.out.println("RollbackSession: UDP-Port konnte nicht geöffnet werden: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ein Tick der Spielschleife: Pakete auswerten, bei Fehlvorhersage zurückrollen und neu simulieren,
+     * dann den nächsten Frame mit der eigenen Eingabe simulieren und die Eingaben verschicken.
+     *
+     * @param localInput Eigene Eingabe dieses Ticks (0..255).
+     * @return {@code false}, wenn kein neuer Frame simuliert wurde (Mitspieler fehlt, zu weit voraus).
+     */
+    public boolean tick(int localInput) {
+        receiveAll();
+        if (!started) {
+            send();
+            return false;
+        }
+
+        if (rollbackFrom < frame) rollback();
+        rollbackFrom = NONE;
+        checkSync();
+
+        if (frame - remoteConfirmed > MAX_PREDICTION) {
+            stalls++;
+            send();
+            return false;
+        }
+        if (skipCooldown > 0) skipCooldown--;
+        if (shouldSkip()) {
+            skippedTicks++;
+            skipCooldown = SKIP_COOLDOWN;
+            send();
+            return false;
+        }
+
+        localInputs[frame % INPUT_RING] = (byte) localInput;
+        simulate(frame);
+        frame++;
+        send();
+        return true;
+    }
+
+    // ---------- Simulation ----------
+
+    private void simulate(int f) {
+        int slot = f % SNAPSHOTS;
+        game.save(slot);
+        int remote = remoteInput(f);
+        usedRemote[slot] = (byte) remote;
+        int local = localInputs[f % INPUT_RING] & 0xFF;
+        if (localPlayer == 1) game.advance(local, remote);
+        else game.advance(remote, local);
+        hashes[slot] = game.stateHash();
+    }
+
+    /** Die bekannte Eingabe des Mitspielers, sonst die Vorhersage (seine letzte bestätigte). */
+    private int remoteInput(int f) {
+        int slot = f % INPUT_RING;
+        if (remoteFrames[slot] == f) return remoteInputs[slot] & 0xFF;
+        return remoteConfirmed >= 0 ? remoteInputs[remoteConfirmed % INPUT_RING] & 0xFF : 0;
+    }
+
+    private void rollback() {
+        int depth = frame - rollbackFrom;
+        game.load(rollbackFrom % SNAPSHOTS);
+        for (int f = rollbackFrom; f < frame; f++) simulate(f);
+        rollbacks++;
+        resimulatedFrames += depth;
+        if (depth > maxRollback) maxRollback = depth;
+    }
+
+    /** Zeitabgleich: einen Tick aussetzen, wenn wir dem Mitspieler mehr voraus sind als er uns. */
+    private boolean shouldSkip() {
+        if (skipCooldown > 0) return false;
+        int localAdvantage = frame - peerFrame;
+        return (localAdvantage - peerAdvantage) / 2 >= 1;
+    }
+
+    private void checkSync() {
+        int f = peerSyncFrame;
+        if (desyncReported || f < 0 || f > remoteConfirmed || f >= frame || f <= frame - SNAPSHOTS) return;
+        if (hashes[f % SNAPSHOTS] != peerSyncHash) {
+            desyncReported = true;
+            System.out.printf("RollbackSession: Zustände weichen ab in Frame %d (hier %016x, Mitspieler %016x)%n",
+                    f, hashes[f % SNAPSHOTS], peerSyncHash);
+        }
+    }
+
+    // ---------- Netzwerk ----------
+
+    private void receiveAll() {
+        while (link.receive(buffer)) {
+            if (in.read(buffer)) onPacket(in);
+        }
+    }
+
+    private void onPacket(RollbackProtocol.Packet p) {
+        if (!started) {
+            if (localPlayer == 2) {
+                if (p.seed == 0) return; // Spieler 1 ist noch nicht bereit
+                seed = p.seed;
+            }
+            started = true;
+            game.start(seed);
+            System.out.println("RollbackSession: Mitspieler verbunden, Seed " + seed);
+        }
+        if (p.seed != seed) return; // Hallo-Paket von Spieler 2 vor dem Start
+
+        peerAck = Math.max(peerAck, p.ack);
+        if (p.frame >= peerFrame) {
+            peerFrame = p.frame;
+            peerAdvantage = p.advantage;
+            peerTime = p.time;
+            if (p.echo != 0) pingMillis = now() - p.echo;
+            if (p.syncFrame > peerSyncFrame) {
+                peerSyncFrame = p.syncFrame;
+                peerSyncHash = p.syncHash;
+            }
+        }
+
+        for (int k = 0; k < p.count; k++) {
+            int f = p.firstFrame + k;
+            if (f <= remoteConfirmed) continue;
+            if (f >= remoteConfirmed + INPUT_RING) break;
+            int slot = f % INPUT_RING;
+            if (remoteFrames[slot] == f) continue;
+            remoteFrames[slot] = f;
+            remoteInputs[slot] = p.inputs[k];
+            // Schon mit einer Vorhersage simuliert, die nicht stimmte?
+            if (f < frame && usedRemote[f % SNAPSHOTS] != p.inputs[k]) rollbackFrom = Math.min(rollbackFrom, f);
+        }
+        while (remoteFrames[(remoteConfirmed + 1) % INPUT_RING] == remoteConfirmed + 1) remoteConfirmed++;
+    }
+
+    private void send() {
+        out.seed = seed;
+        out.frame = frame;
+        out.ack = remoteConfirmed;
+        out.advantage = frame - peerFrame;
+        out.time = now();
+        out.echo = peerTime;
+        int sync = Math.min(remoteConfirmed, frame - 1);
+        out.syncFrame = sync;
+        out.syncHash = sync >= 0 ? hashes[sync % SNAPSHOTS] : 0;
+
+        int first = Math.max(peerAck + 1, frame - INPUT_RING + 1);
+        int count = Math.max(0, Math.min(frame - first, RollbackProtocol.MAX_INPUTS));
+        out.firstFrame = first;
+        out.count = count;
+        for (int k = 0; k < count; k++) out.inputs[k] = localInputs[(first + k) % INPUT_RING];
+
+        out.write(buffer);
+        link.send(buffer);
+    }
+
+    /** Millisekunden-Uhr fürs Paket; nie 0, weil 0 "kein Echo" bedeutet. */
+    private static int now() {
+        int ms = (int) (System.nanoTime() / 1_000_000L);
+        return ms == 0 ? 1 : ms;
+    }
+
+    // ---------- Anzeige ----------
+
+    /** @return {@code true}, sobald der Mitspieler geantwortet hat. */
+    public boolean isStarted() { return started; }
+    public int getLocalPlayer() { return localPlayer; }
+    /** @return Anzahl der simulierten Frames. */
+    public int getFrame() { return frame; }
+    /** @return Ungefährer Round-Trip in Millisekunden (inkl. bis zu einem Tick Wartezeit), {@code -1} wenn unbekannt. */
+    public int getPingMillis() { return pingMillis; }
+    public long getRollbacks() { return rollbacks; }
+    public long getResimulatedFrames() { return resimulatedFrames; }
+    /** @return Größte Anzahl an Frames, die auf einmal neu simuliert wurden. */
+    public int getMaxRollback() { return maxRollback; }
+    /** @return Ticks, in denen auf den Mitspieler gewartet wurde. */
+    public long getStalls() { return stalls; }
+    /** @return Ticks, die für den Zeitabgleich ausgesetzt wurden. */
+    public long getSkippedTicks() { return skippedTicks; }
+
+    @Override
+    public void close() {
+        link.close();
+        if (started) {
+            System.out.printf("RollbackSession: %d Frames, %d Rollbacks (%d Frames neu simuliert, max. %d), %d Wartetakte, %d ausgesetzt%n",
+                    frame, rollbacks, resimulatedFrames, maxRollback, stalls, skippedTicks);
+        }
+    }
+}
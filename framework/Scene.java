@@ -0,0 +1,101 @@
+package framework;
+
+import java.util.Arrays;
+
+/**
+ * Was ein Zuschauer von einem Tick sehen muss, in einer für alle Spiele gleichen Form: eine Liste ganzer Zahlen
+ * (Positionen, Punkte, ...) und optional ein Gitter aus Zellen mit Werten 0..255 (Schlange, Ziegel).
+ * Die Bedeutung der Einträge legt das Spiel fest; der Zuschauer erkennt es am Namen.
+ * <p>
+ * {@link SceneCodec} kodiert nur die Änderungen zum vorherigen Tick, daher sollten sich die Einträge von Tick
+ * zu Tick wenig ändern (z.B. Positionen statt Geschwindigkeiten). Das Spiel legt eine Szene einmalig an und
+ * füllt sie jeden Tick neu.
+ */
+public final class Scene {
+
+    private String game;
+    private int gridWidth;
+    private int gridHeight;
+    private int[] values;
+    private int valueCount;
+    private byte[] cells;
+
+    /**
+     * @param game       Name des Spiels.
+     * @param values     Anzahl der Zahlen (kann mit {@link #setValueCount} geändert werden).
+     * @param gridWidth  Breite des Gitters in Zellen ({@code 0}: kein Gitter).
+     * @param gridHeight Höhe des Gitters in Zellen.
+     */
+    public Scene(String game, int values, int gridWidth, int gridHeight) {
+        this.game = game;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.values = new int[Math.max(values, 8)];
+        this.valueCount = values;
+        this.cells = new byte[gridWidth * gridHeight];
+    }
+
+    /** Ändert die Anzahl der Zahlen; neue Einträge sind {@code 0}. */
+    public void setValueCount(int count) {
+        if (count > values.length) values = Arrays.copyOf(values, Math.max(count, values.length * 2));
+        if (count > valueCount) Arrays.fill(values, valueCount, count, 0);
+        valueCount = count;
+    }
+
+    public void set(int index, int value) {
+        if (index >= valueCount) throw new IndexOutOfBoundsException(index + " >= " + valueCount);
+        values[index] = value;
+    }
+
+    public int get(int index) {
+        return index < valueCount ? values[index] : 0;
+    }
+
+    public void setCell(int x, int y, int value) {
+        cells[y * gridWidth + x] = (byte) value;
+    }
+
+    public void setCell(int index, int value) {
+        cells[index] = (byte) value;
+    }
+
+    public int getCell(int x, int y) {
+        return cells[y * gridWidth + x] & 0xFF;
+    }
+
+    public int getCell(int index) {
+        return cells[index] & 0xFF;
+    }
+
+    /** Setzt alle Zellen auf {@code 0}. */
+    public void clearCells() {
+        Arrays.fill(cells, (byte) 0);
+    }
+
+    /** Übernimmt Spiel, Maße und Inhalt einer anderen Szene. */
+    public void copyFrom(Scene other) {
+        reshape(other.game, other.gridWidth, other.gridHeight);
+        setValueCount(other.valueCount);
+        System.arraycopy(other.values, 0, values, 0, other.valueCount);
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+    }
+
+    /** Wechselt Spiel und Gittermaße (für Decoder und {@link #copyFrom}). */
+    void reshape(String game, int gridWidth, int gridHeight) {
+        this.game = game;
+        if (gridWidth * gridHeight != cells.length) cells = new byte[gridWidth * gridHeight];
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+    }
+
+    /** @return {@code true}, wenn beide Szenen zum selben Spiel mit denselben Gittermaßen gehören. */
+    boolean sameShape(Scene other) {
+        return game.equals(other.game) && gridWidth == other.gridWidth && gridHeight == other.gridHeight;
+    }
+
+    public String getGame() { return game; }
+    public int getGridWidth() { return gridWidth; }
+    public int getGridHeight() { return gridHeight; }
+    public int getValueCount() { return valueCount; }
+    public int getCellCount() { return cells.length; }
+}
@@ -0,0 +1,195 @@
+package framework;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kompakte Kodierung einer Folge von {@link Scene}s: Schlüsselbilder mit dem vollständigen Zustand und
+ * dazwischen nur die Änderungen.
+ * <pre>
+ * Schlüsselbild: byte 1 | varint Tick | Text Spiel | varint Breite | varint Höhe
+ *                | varint Anzahl | Anzahl × ZigZag Zahl | Läufe (varint Länge | varint Zellwert) bis Breite × Höhe
+ * Änderung:      byte 2 | varint Tick-Abstand | varint Anzahl
+ *                | varint geändert | geändert × (varint Index-Lücke | ZigZag Differenz)
+ *                | varint geändert | geändert × (varint Index-Lücke | varint Zellwert)
+ * </pre>
+ * Index-Lücke ist der Abstand zum vorigen geänderten Index minus 1; Zahlen ({@link VarInt}) und Texte
+ * ({@code varint Länge | UTF-8}) wie in {@link LeaderboardProtocol}. Ein Tick, in dem sich eine Position um
+ * wenige Pixel ändert, kostet so eine Handvoll Bytes.
+ * <p>
+ * Eine Änderung lässt sich nur auf den Zustand anwenden, gegen den sie kodiert wurde; nach einer Lücke
+ * (verworfene Bilder, Einstieg mitten im Strom) muss der Empfänger auf das nächste Schlüsselbild warten.
+ */
+public final class SceneCodec {
+
+    public static final byte KEYFRAME = 1;
+    public static final byte DELTA = 2;
+    private static final int MAX_TEXT = 255;
+
+    private SceneCodec() {}
+
+    /** Schreibt den vollständigen Zustand. */
+    public static void writeKeyframe(Scene scene, long tick, ByteBuffer out) {
+        out.put(KEYFRAME);
+        VarInt.write(out, tick);
+        byte[] name = scene.getGame().getBytes(StandardCharsets.UTF_8);
+        VarInt.write(out, name.length);
+        out.put(name);
+        VarInt.write(out, scene.getGridWidth());
+        VarInt.write(out, scene.getGridHeight());
+
+        int count = scene.getValueCount();
+        VarInt.write(out, count);
+        for (int i = 0; i < count; i++) VarInt.write(out, VarInt.zigzag(scene.get(i)));
+
+        int cells = scene.getCellCount();
+        int i = 0;
+        while (i < cells) {
+            int value = scene.getCell(i);
+            int run = 1;
+            while (i + run < cells && scene.getCell(i + run) == value) run++;
+            VarInt.write(out, run);
+            VarInt.write(out, value);
+            i += run;
+        }
+    }
+
+    /**
+     * Schreibt die Änderungen von {@code previous} nach {@code scene}. Beide müssen zum selben Spiel mit denselben
+     * Gittermaßen gehören (sonst ein Schlüsselbild schreiben).
+     *
+     * @param tickGap Ticks seit {@code previous}.
+     */
+    public static void writeDelta(Scene previous, Scene scene, int tickGap, ByteBuffer out) {
+        out.put(DELTA);
+        VarInt.write(out, tickGap);
+
+        int count = scene.getValueCount();
+        VarInt.write(out, count);
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            if (scene.get(i) != previous.get(i)) changed++;
+        }
+        VarInt.write(out, changed);
+        int last = -1;
+        for (int i = 0; i < count && changed > 0; i++) {
+            int diff = scene.get(i) - previous.get(i);
+            if (diff == 0) continue;
+            VarInt.write(out, i - last - 1);
+            VarInt.write(out, VarInt.zigzag(diff));
+            last = i;
+            changed--;
+        }
+
+        int cells = scene.getCellCount();
+        changed = 0;
+        for (int i = 0; i < cells; i++) {
+            if (scene.getCell(i) != previous.getCell(i)) changed++;
+        }
+        VarInt.write(out, changed);
+        last = -1;
+        for (int i = 0; i < cells && changed > 0; i++) {
+            int value = scene.getCell(i);
+            if (value == previous.getCell(i)) continue;
+            VarInt.write(out, i - last - 1);
+            VarInt.write(out, value);
+            last = i;
+            changed--;
+        }
+    }
+
+    /**
+     * Setzt einen Strom aus Schlüsselbildern und Änderungen wieder zu Szenen zusammen.
+     */
+    public static final class Decoder {
+        private final Scene scene = new Scene("", 0, 0, 0);
+        private boolean synced = false;
+        private long tick = 0;
+
+        /**
+         * Wendet ein kodiertes Bild an.
+         *
+         * @return {@code false}, wenn es eine Änderung ohne vorheriges Schlüsselbild war (wird übersprungen).
+         * @throws IllegalArgumentException wenn das Bild kaputt ist; danach wird auf das nächste Schlüsselbild gewartet.
+         */
+        public boolean apply(ByteBuffer in) {
+            try {
+                byte type = in.get();
+                if (type == KEYFRAME) {
+                    readKeyframe(in);
+                    synced = true;
+                    return true;
+                }
+                if (type != DELTA) throw new IllegalArgumentException("Unbekannter Bildtyp " + type);
+                if (!synced) return false;
+                readDelta(in);
+                return true;
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                synced = false;
+                throw new IllegalArgumentException("Kaputtes Bild: " + e, e);
+            }
+        }
+
+        private void readKeyframe(ByteBuffer in) {
+            tick = VarInt.readLong(in);
+            int length = VarInt.readInt(in);
+            if (length < 0 || length > MAX_TEXT) throw new IllegalArgumentException("Name zu lang");
+            byte[] name = new byte[length];
+            in.get(name);
+            int width = VarInt.readInt(in);
+            int height = VarInt.readInt(in);
+            if (width < 0 || height < 0 || (long) width * height > 1 << 20) throw new IllegalArgumentException("Gitter zu groß");
+            scene.reshape(new String(name, StandardCharsets.UTF_8), width, height);
+
+            int count = VarInt.readInt(in);
+            if (count < 0 || count > 1 << 16) throw new IllegalArgumentException("Zu viele Zahlen");
+            scene.setValueCount(count);
+            for (int i = 0; i < count; i++) scene.set(i, VarInt.unzigzag(VarInt.readInt(in)));
+
+            int cells = scene.getCellCount();
+            int i = 0;
+            while (i < cells) {
+                int run = VarInt.readInt(in);
+                int value = VarInt.readInt(in);
+                if (run <= 0 || i + run > cells) throw new IllegalArgumentException("Ungültiger Lauf");
+                for (int k = 0; k < run; k++) scene.setCell(i + k, value);
+                i += run;
+            }
+        }
+
+        private void readDelta(ByteBuffer in) {
+            tick += VarInt.readInt(in);
+            int count = VarInt.readInt(in);
+            if (count < 0 || count > 1 << 16) throw new IllegalArgumentException("Zu viele Zahlen");
+            scene.setValueCount(count);
+            int changed = VarInt.readInt(in);
+            int index = -1;
+            for (int k = 0; k < changed; k++) {
+                index += VarInt.readInt(in) + 1;
+                scene.set(index, scene.get(index) + VarInt.unzigzag(VarInt.readInt(in)));
+            }
+            changed = VarInt.readInt(in);
+            index = -1;
+            for (int k = 0; k < changed; k++) {
+                index += VarInt.readInt(in) + 1;
+                scene.setCell(index, VarInt.readInt(in));
+            }
+        }
+
+        /** @return Die zuletzt zusammengesetzte Szene (wird bei jedem Bild überschrieben). */
+        public Scene scene() {
+            return scene;
+        }
+
+        /** @return Tick der zuletzt zusammengesetzten Szene. */
+        public long tick() {
+            return tick;
+        }
+
+        /** @return {@code true}, solange seit dem letzten Schlüsselbild alles angewendet werden konnte. */
+        public boolean isSynced() {
+            return synced;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package framework;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binäres, versioniertes Dateiformat für gespielte Runden (Snapshot des {@link ScoreJournal}).
+ * <pre>
+ * Header : int Magic "ABHS" | byte Version | 3 Bytes reserviert | long Sequenz (ab Version 2)
+ * Eintrag: byte 0xA5 (Sync) | varint Länge | Nutzdaten | int CRC32 der Nutzdaten
+ * Nutzdaten: varint Namenslänge | Name (UTF-8) | zigzag-varint Score | zigzag-varint Zeitstempel
+ * </pre>
+ * Die Sequenz im Header ist die letzte Journal-Sequenz, die im Snapshot enthalten ist. Beim Lesen
+ * wird die Datei in den Speicher gemappt ({@link #read}) oder, wenn sie danach ersetzt oder gelöscht werden
+ * soll, in einen Heap-Puffer gelesen ({@link #readCopy}); ein Eintrag mit falscher Prüfsumme oder kaputtem Aufbau
+ * wird übersprungen, und das Lesen setzt beim nächsten Sync-Byte wieder auf. Beschädigung betrifft
+ * so immer nur einzelne Einträge. Dateien der Version 1 (ohne Sequenz) werden weiterhin gelesen.
+ */
+public final class ScoreFile {
+
+    static final int MAGIC = 0x41424853; // "ABHS"
+    static final byte VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    private static final int HEADER_SIZE_V1 = 8;
+    private static final byte SYNC = (byte) 0xA5;
+    private static final int MAX_PAYLOAD = 4096;
+
+    private ScoreFile() {}
+
+    /** Ergebnis von {@link #read(Path)}. */
+    public static final class Contents {
+        public final List<HighScore> scores;
+        /** Letzte im Snapshot enthaltene Journal-Sequenz ({@code 0} bei Version 1). */
+        public final long sequence;
+        /** Anzahl der übersprungenen, beschädigten Stellen. */
+        public final int corrupted;
+
+        Contents(List<HighScore> scores, long sequence, int corrupted) {
+            this.scores = scores;
+            this.sequence = sequence;
+            this.corrupted = corrupted;
+        }
+    }
+
+    /**
+     * Liest alle gültigen Einträge einer Datei über einen gemappten Puffer.
+     *
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein gültiger Header vorhanden ist.
+     */
+    public static Contents read(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return decode(data, file);
+    }
+
+    /**
+     * Wie {@link #read}, aber über {@link FileChannel#read} in einen Heap-Puffer. Für Dateien, die danach ersetzt
+     * oder gelöscht werden: Eine gemappte Datei lässt sich unter Windows erst nach der Garbage Collection des
+     * Puffers umbenennen oder löschen.
+     */
+    public static Contents readCopy(Path file) throws IOException {
+        return decode(readFully(file), file);
+    }
+
+    /** Liest die ganze Datei in einen Heap-Puffer; die Datei ist danach wieder geschlossen. */
+    static ByteBuffer readFully(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("Datei zu groß: " + file);
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining() && channel.read(data, data.position()) >= 0) {}
+            return data.flip();
+        }
+    }
+
+    private static Contents decode(ByteBuffer data, Path file) throws IOException {
+        if (data.limit() < HEADER_SIZE_V1 || data.getInt(0) != MAGIC) {
+            throw new IOException("Keine Highscore-Datei: " + file);
+        }
+        byte version = data.get(4);
+        if (version != 1 && (version != VERSION || data.limit() < HEADER_SIZE)) {
+            throw new IOException("Nicht unterstützte Version " + version + ": " + file);
+        }
+        long sequence = version == 1 ? 0 : data.getLong(8);
+
+        List<HighScore> scores = new ArrayList<>();
+        int corrupted = 0;
+        CRC32 crc = new CRC32();
+        int pos = version == 1 ? HEADER_SIZE_V1 : HEADER_SIZE;
+        int limit = data.limit();
+        while (pos < limit) {
+            int next = decodeRecord(data, pos, crc, scores);
+            if (next > 0) {
+                pos = next;
+                continue;
+            }
+            // Beschädigt: bis zum nächsten Sync-Byte vorspulen
+            corrupted++;
+            pos++;
+            while (pos < limit && data.get(pos) != SYNC) pos++;
+        }
+        return new Contents(scores, sequence, corrupted);
+    }
+
+    /**
+     * Dekodiert den Eintrag an {@code pos} und hängt ihn an {@code out} an.
+     *
+     * @return Die Position hinter dem Eintrag oder {@code -1}, wenn er beschädigt ist.
+     */
+    private static int decodeRecord(ByteBuffer data, int pos, CRC32 crc, List<HighScore> out) {
+        if (data.get(pos) != SYNC) return -1;
+        try {
+            ByteBuffer in = data.duplicate().position(pos + 1);
+            int length = VarInt.readInt(in);
+            int start = in.position();
+            if (length <= 0 || length > MAX_PAYLOAD || start + length + 4 > data.limit()) return -1;
+
+            crc.reset();
+            crc.update(in.duplicate().limit(start + length));
+            if ((int) crc.getValue() != data.getInt(start + length)) return -1;
+
+            in.limit(start + length);
+            int nameLength = VarInt.readInt(in);
+            if (nameLength < 0 || nameLength > in.remaining()) return -1;
+            byte[] name = new byte[nameLength];
+            in.get(name);
+            int score = VarInt.unzigzag(VarInt.readInt(in));
+            long timestamp = VarInt.unzigzag(VarInt.readLong(in));
+
+            out.add(new HighScore(new String(name, StandardCharsets.UTF_8), score, timestamp));
+            return start + length + 4;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Kodiert einen Eintrag (inklusive Sync-Byte, Länge und Prüfsumme) an die aktuelle Position des Puffers.
+     */
+    public static void encode(HighScore score, ByteBuffer out, CRC32 crc) {
+        byte[] name = score.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_PAYLOAD / 2) {
+            name = Arrays.copyOf(name, MAX_PAYLOAD / 2);
+        }
+        int scoreBits = VarInt.zigzag(score.getScore());
+        long timeBits = VarInt.zigzag(score.getTimestamp());
+        int length = VarInt.size(name.length) + name.length + VarInt.size(scoreBits) + VarInt.size(timeBits);
+
+        out.put(SYNC);
+        VarInt.write(out, length);
+        int start = out.position();
+        VarInt.write(out, name.length);
+        out.put(name);
+        VarInt.write(out, scoreBits);
+        VarInt.write(out, timeBits);
+
+        crc.reset();
+        crc.update(out.duplicate().position(start).limit(start + length));
+        out.putInt((int) crc.getValue());
+    }
+
+    /** Obergrenze für die Größe eines kodierten Eintrags in Bytes. */
+    public static int maxEncodedSize(HighScore score) {
+        return 1 + 5 + 5 + score.getName().length() * 3 + 5 + 10 + 4;
+    }
+
+    /** Schreibt den Dateikopf an die aktuelle Position des Puffers. */
+    static void encodeHeader(ByteBuffer out, long sequence) {
+        out.putInt(MAGIC).put(VERSION).put((byte) 0).put((byte) 0).put((byte) 0).putLong(sequence);
+    }
+
+    /**
+     * Legt eine neue Datei mit den gegebenen Einträgen an: temporäre Datei schreiben, {@code fsync},
+     * dann atomar an den Zielnamen umbenennen.
+     *
+     * @param sequence Letzte Journal-Sequenz, die in {@code scores} enthalten ist.
+     * @return Die Anzahl der geschriebenen Bytes.
+     */
+    public static long writeAtomically(Path file, List<HighScore> scores, long sequence) throws IOException {
+        int size = HEADER_SIZE;
+        for (HighScore hs : scores) size += maxEncodedSize(hs);
+        ByteBuffer out = ByteBuffer.allocate(size);
+        encodeHeader(out, sequence);
+        CRC32 crc = new CRC32();
+        for (HighScore hs : scores) encode(hs, out, crc);
+        out.flip();
+        long written = out.remaining();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        syncDirectory(file);
+        return written;
+    }
+
+    /** Macht Umbenennungen dauerhaft (unter Linux nötig, unter Windows nicht möglich und unnötig). */
+    static void syncDirectory(Path file) {
+        try (FileChannel dir = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // Plattform unterstützt kein fsync auf Verzeichnissen
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package framework;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index über alle gespielten Runden eines Spiels (nicht nur die Bestenliste).
+ * <p>
+ * Die Anzahl der Runden pro Score liegt in einem Fenwick-Baum (Binary Indexed Tree) über
+ * Score-Buckets, sodass Platzierung ({@link #rank(int)}) und Perzentil ({@link #percentile(int)})
+ * in O(log n) beantwortet werden – "Platz 4.213 von 180.000" ohne die Historie zu durchsuchen.
+ * Für Top-N-Abfragen sind die Runden zusätzlich absteigend nach Score geordnet, für
+ * Spielerabfragen merkt sich ein Index die Bestleistung jedes Namens.
+ * <p>
+ * Der Index wird inkrementell mit {@link #record(HighScore)} aufgebaut. Scores kleiner 0 werden
+ * als 0 gezählt, Scores ab {@link #MAX_BUCKETS} im obersten Bucket (die Platzierung wird dort
+ * ungenau, Top-N und Spielerbestwerte bleiben exakt).
+ */
+public class ScoreHistory {
+
+    /** Obergrenze für die Anzahl der Score-Buckets (ein Bucket pro Score-Wert). */
+    public static final int MAX_BUCKETS = 1 << 20;
+
+    private long[] tree = new long[1024 + 1]; // Fenwick-Baum, 1-basiert
+    private int buckets = 1024;
+    private long total = 0;
+
+    private final NavigableMap<Integer, List<HighScore>> byScore = new TreeMap<>();
+    private final Map<String, HighScore> bestByPlayer = new HashMap<>();
+
+    /**
+     * Nimmt eine gespielte Runde in den Index auf.
+     */
+    public synchronized void record(HighScore play) {
+        int bucket = bucketOf(play.getScore());
+        while (bucket >= buckets && buckets < MAX_BUCKETS) {
+            grow();
+        }
+        for (int i = Math.min(bucket, buckets - 1) + 1; i <= buckets; i += i & -i) {
+            tree[i]++;
+        }
+        total++;
+
+        byScore.computeIfAbsent(play.getScore(), k -> new ArrayList<>(1)).add(play);
+        bestByPlayer.merge(play.getName(), play, (old, neu) -> neu.getScore() > old.getScore() ? neu : old);
+    }
+
+    /**
+     * Verdoppelt die Anzahl der Buckets. Da alle neuen Buckets leer sind, bleiben die bisherigen
+     * Knoten gültig; nur der neue Wurzelknoten an Position {@code 2n} deckt alles ab.
+     */
+    private void grow() {
+        long[] bigger = new long[buckets * 2 + 1];
+        System.arraycopy(tree, 0, bigger, 0, tree.length);
+        buckets *= 2;
+        bigger[buckets] = total;
+        tree = bigger;
+    }
+
+    private static int bucketOf(int score) {
+        return Math.max(0, Math.min(score, MAX_BUCKETS - 1));
+    }
+
+    /** Anzahl der Runden mit Score-Bucket {@code <= bucket}. */
+    private long countAtMost(int bucket) {
+        long sum = 0;
+        for (int i = Math.min(bucket, buckets - 1) + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return Die Anzahl aller aufgezeichneten Runden.
+     */
+    public synchronized long size() {
+        return total;
+    }
+
+    /**
+     * Platzierung, die eine Runde mit diesem Score erreicht: 1 + Anzahl der Runden mit echt
+     * höherem Score. O(log n).
+     */
+    public synchronized long rank(int score) {
+        int bucket = bucketOf(score);
+        return total - countAtMost(bucket) + 1;
+    }
+
+    /**
+     * Anteil der Runden (0..100), deren Score kleiner oder gleich dem gegebenen ist. O(log n).
+     */
+    public synchronized double percentile(int score) {
+        if (total == 0) return 100.0;
+        return 100.0 * countAtMost(bucketOf(score)) / total;
+    }
+
+    /**
+     * Die besten {@code n} Runden, bester Score zuerst (bei Gleichstand die ältere zuerst).
+     * O(log n + N).
+     */
+    public synchronized List<HighScore> top(int n) {
+        List<HighScore> result = new ArrayList<>(Math.min(n, 64));
+        for (List<HighScore> plays : byScore.descendingMap().values()) {
+            for (HighScore play : plays) {
+                if (result.size() >= n) return List.copyOf(result);
+                result.add(play);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * @return Die beste Runde des Spielers oder {@code null}, wenn er noch nicht gespielt hat.
+     */
+    public synchronized HighScore bestOf(String player) {
+        return bestByPlayer.get(player);
+    }
+
+    /**
+     * Platzierung der besten Runde des Spielers, oder {@code -1}, wenn er noch nicht gespielt hat.
+     */
+    public synchronized long rankOf(String player) {
+        HighScore best = bestByPlayer.get(player);
+        return best == null ? -1 : rank(best.getScore());
+    }
+}
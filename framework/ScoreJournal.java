@@ -0,0 +1,205 @@
+package framework;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Journal mit Einträgen fester Größe, an das neue Runden nur angehängt werden.
+ * <pre>
+ * Header : int Magic "ABHJ" | byte Version | 3 Bytes reserviert
+ * Eintrag: long Sequenz | long Zeitstempel | int Score | byte Namenslänge | 39 Bytes Name (UTF-8)
+ *          | int CRC32 der ersten 60 Bytes                                       = 64 Bytes
+ * </pre>
+ * Durch die feste Größe liegt Eintrag {@code i} immer an {@code HEADER_SIZE + i * RECORD_SIZE}: ein
+ * beschädigter Eintrag wird einfach übersprungen, ein beim Stromausfall abgerissener letzter Eintrag
+ * ist schon an der Dateilänge zu erkennen und wird vor dem nächsten Anhängen abgeschnitten
+ * ({@link #prepareAppend}). Die fortlaufende Sequenznummer sagt bei der Wiederherstellung,
+ * welche Einträge bereits im Snapshot ({@link ScoreFile}) stecken.
+ * <p>
+ * Längere Namen werden auf {@link #MAX_NAME_BYTES} Bytes gekürzt.
+ */
+final class ScoreJournal {
+
+    static final int MAGIC = 0x4142484A; // "ABHJ"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 64;
+    static final int MAX_NAME_BYTES = 39;
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+
+    private ScoreJournal() {}
+
+    /** Ergebnis von {@link #read(Path, long)}. */
+    static final class Replay {
+        /** Die Runden mit einer Sequenz größer als die angefragte, in Schreibreihenfolge. */
+        final List<HighScore> scores;
+        /** Die Sequenzen zu {@link #scores}, Index für Index. */
+        final long[] sequences;
+        /** Höchste gültige Sequenz im Journal (auch von übersprungenen Einträgen), sonst {@code 0}. */
+        final long lastSequence;
+        /** Anzahl der vollständigen Eintrags-Plätze im Journal. */
+        final int records;
+        /** Anzahl der beschädigten Einträge. */
+        final int corrupted;
+
+        Replay(List<HighScore> scores, long[] sequences, long lastSequence, int records, int corrupted) {
+            this.scores = scores;
+            this.sequences = sequences;
+            this.lastSequence = lastSequence;
+            this.records = records;
+            this.corrupted = corrupted;
+        }
+    }
+
+    /**
+     * Liest alle gültigen Einträge mit einer Sequenz größer {@code afterSequence} über einen gemappten Puffer.
+     *
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein gültiger Header vorhanden ist.
+     */
+    static Replay read(Path file, long afterSequence) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return decode(data, file, afterSequence);
+    }
+
+    /**
+     * Wie {@link #read}, aber in einen Heap-Puffer ({@link ScoreFile#readCopy}): für Journale, die danach
+     * gelöscht oder ersetzt werden.
+     */
+    static Replay readCopy(Path file, long afterSequence) throws IOException {
+        return decode(ScoreFile.readFully(file), file, afterSequence);
+    }
+
+    private static Replay decode(ByteBuffer data, Path file, long afterSequence) throws IOException {
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Kein Highscore-Journal: " + file);
+        }
+        if (data.get(4) != VERSION) {
+            throw new IOException("Nicht unterstützte Version " + data.get(4) + ": " + file);
+        }
+
+        int records = (data.limit() - HEADER_SIZE) / RECORD_SIZE; // abgerissener Rest fällt weg
+        List<HighScore> scores = new ArrayList<>();
+        long[] sequences = new long[records];
+        long lastSequence = 0;
+        int corrupted = 0;
+        CRC32 crc = new CRC32();
+        byte[] name = new byte[MAX_NAME_BYTES];
+
+        for (int i = 0; i < records; i++) {
+            int pos = HEADER_SIZE + i * RECORD_SIZE;
+            crc.reset();
+            crc.update(data.duplicate().position(pos).limit(pos + CRC_OFFSET));
+            int nameLength = data.get(pos + 20);
+            if ((int) crc.getValue() != data.getInt(pos + CRC_OFFSET) || nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+                corrupted++;
+                continue;
+            }
+
+            long sequence = data.getLong(pos);
+            lastSequence = Math.max(lastSequence, sequence);
+            if (sequence <= afterSequence) continue;
+
+            data.get(pos + 21, name, 0, nameLength);
+            sequences[scores.size()] = sequence;
+            scores.add(new HighScore(new String(name, 0, nameLength, StandardCharsets.UTF_8),
+                    data.getInt(pos + 16), data.getLong(pos + 8)));
+        }
+        return new Replay(scores, Arrays.copyOf(sequences, scores.size()), lastSequence, records, corrupted);
+    }
+
+    /**
+     * Kodiert einen Eintrag mit genau {@link #RECORD_SIZE} Bytes an die aktuelle Position des Puffers.
+     */
+    static void encode(HighScore score, long sequence, ByteBuffer out, CRC32 crc) {
+        byte[] name = score.getName().getBytes(StandardCharsets.UTF_8);
+        int nameLength = Math.min(name.length, MAX_NAME_BYTES);
+        // Nicht mitten in einem UTF-8-Zeichen abschneiden
+        while (nameLength < name.length && nameLength > 0 && (name[nameLength] & 0xC0) == 0x80) {
+            nameLength--;
+        }
+
+        int start = out.position();
+        out.putLong(sequence);
+        out.putLong(score.getTimestamp());
+        out.putInt(score.getScore());
+        out.put((byte) nameLength);
+        out.put(name, 0, nameLength);
+        for (int i = nameLength; i < MAX_NAME_BYTES; i++) out.put((byte) 0);
+
+        crc.reset();
+        crc.update(out.duplicate().position(start).limit(start + CRC_OFFSET));
+        out.putInt((int) crc.getValue());
+    }
+
+    /**
+     * @return Nutzdaten einer Runde ohne Format-Overhead: Zeitstempel, Score und Name in UTF-8 (gekürzt wie in
+     * {@link #encode}).
+     */
+    static int payloadSize(HighScore score) {
+        return 8 + 4 + Math.min(score.getName().getBytes(StandardCharsets.UTF_8).length, MAX_NAME_BYTES);
+    }
+
+    /**
+     * Bringt ein Journal vor dem Anhängen in einen gültigen Zustand: Ein abgerissener letzter Eintrag wird
+     * abgeschnitten, damit neue Einträge wieder an {@code HEADER_SIZE + i * RECORD_SIZE} liegen; ein fehlender
+     * oder abgerissener Dateikopf wird neu geschrieben. Ein Journal mit fremdem Kopf wird als {@code .corrupt}
+     * beiseitegelegt und neu begonnen.
+     *
+     * @param ch   Zum Lesen und Schreiben geöffnetes Journal.
+     * @return Position, an der angehängt wird; bei {@code 0} muss der Dateikopf ({@link #encodeHeader}) mit.
+     */
+    static long prepareAppend(FileChannel ch, Path file) throws IOException {
+        long size = ch.size();
+        if (size < HEADER_SIZE) {
+            if (size > 0) {
+                System.out.println("ScoreJournal: Abgerissener Dateikopf in " + file.getFileName() + ", wird neu geschrieben.");
+                ch.truncate(0);
+            }
+            return 0;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && ch.read(header, header.position()) >= 0) {}
+        if (header.getInt(0) != MAGIC || header.get(4) != VERSION) {
+            Path corrupt = file.resolveSibling(file.getFileName() + ".corrupt");
+            Files.copy(file, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("ScoreJournal: " + file.getFileName() + " hat keinen gültigen Kopf, beiseitegelegt als "
+                    + corrupt.getFileName() + ".");
+            ch.truncate(0);
+            return 0;
+        }
+
+        long end = HEADER_SIZE + (size - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+        if (end != size) {
+            System.out.printf("ScoreJournal: Abgerissenen Eintrag (%d Bytes) am Ende von %s abgeschnitten.%n",
+                    size - end, file.getFileName());
+            ch.truncate(end);
+            ch.force(true);
+        }
+        return end;
+    }
+
+    /** @return Anzahl der Einträge vor einer Position aus {@link #prepareAppend}. */
+    static int recordsBefore(long position) {
+        return position == 0 ? 0 : (int) ((position - HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    /** Schreibt den Dateikopf an die aktuelle Position des Puffers. */
+    static void encodeHeader(ByteBuffer out) {
+        out.putInt(MAGIC).put(VERSION).put((byte) 0).put((byte) 0).put((byte) 0);
+    }
+}
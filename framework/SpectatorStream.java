@@ -0,0 +1,256 @@
+package framework;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Überträgt das laufende Spiel Tick für Tick an Zuschauer (z.B. einen Bildschirm in der Lobby, siehe
+ * {@code SpectatorViewer}).
+ * <p>
+ * Das Spiel füllt nach jedem Tick eine {@link Scene} und übergibt sie {@link #publish(Scene)}; kodiert wird mit
+ * {@link SceneCodec}: alle {@value #KEYFRAME_INTERVAL_MS} ms und beim Spielwechsel ein Schlüsselbild, dazwischen
+ * nur Änderungen. Jedes Bild geht als {@code varint Länge | Bild} über TCP
+ * ({@code -Darcade.spectator.port=7470}) oder einen Unix-Socket ({@code -Darcade.spectator.socket=/pfad}).
+ * <p>
+ * Die Spielschleife wartet nie auf einen Zuschauer: Jeder hat einen eigenen Sende-Thread und höchstens
+ * {@value #MAX_QUEUED_BYTES} Bytes in der Warteschlange. Wird es mehr, werden seine wartenden Bilder verworfen
+ * und er bekommt als nächstes ein Schlüsselbild. Ohne Zuschauer wird nichts kodiert.
+ */
+public final class SpectatorStream implements AutoCloseable {
+
+    /** System-Property: TCP-Port für Zuschauer. */
+    public static final String PROPERTY_PORT = "arcade.spectator.port";
+    /** System-Property: Pfad eines Unix-Sockets für Zuschauer (statt TCP). */
+    public static final String PROPERTY_SOCKET = "arcade.spectator.socket";
+    public static final long KEYFRAME_INTERVAL_MS = 2000;
+    public static final int MAX_QUEUED_BYTES = 64 * 1024;
+    /** Obergrenze für ein Bild, schützt den Zuschauer vor kaputten Längenangaben. */
+    public static final int MAX_FRAME = 1 << 20;
+
+    private static final SpectatorStream SHARED = fromSystemProperties();
+
+    private final ServerSocketChannel server;
+    private final String address;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+
+    // Nur in der Spielschleife (publish ist nicht für mehrere Spiele gleichzeitig gedacht)
+    private final Scene previous = new Scene("", 0, 0, 0);
+    private boolean hasPrevious = false;
+    private long tick = 0;
+    private long lastKeyframeNanos = 0;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong framesDropped = new AtomicLong();
+
+    /** Ein Zuschauer mit eigener Warteschlange und eigenem Sende-Thread. */
+    private final class Client {
+        final SocketChannel channel;
+        final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+        final AtomicInteger queuedBytes = new AtomicInteger();
+        boolean needsKeyframe = true; // nur in der Spielschleife
+        volatile boolean open = true;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void offer(byte[] frame, boolean keyframe) {
+            if (queuedBytes.get() + frame.length > MAX_QUEUED_BYTES) {
+                // Zuschauer kommt nicht hinterher: Rückstand verwerfen und mit einem Schlüsselbild neu aufsetzen
+                List<byte[]> dropped = new ArrayList<>();
+                queue.drainTo(dropped);
+                for (byte[] f : dropped) queuedBytes.addAndGet(-f.length);
+                framesDropped.addAndGet(dropped.size());
+                if (!keyframe) {
+                    needsKeyframe = true;
+                    framesDropped.incrementAndGet();
+                    return;
+                }
+            }
+            queuedBytes.addAndGet(frame.length);
+            queue.offer(frame);
+            needsKeyframe = false;
+        }
+
+        void run() {
+            try {
+                while (open) {
+                    byte[] frame = queue.poll(1, TimeUnit.SECONDS);
+                    if (frame == null) continue;
+                    ByteBuffer out = ByteBuffer.wrap(frame);
+                    while (out.hasRemaining()) channel.write(out);
+                    queuedBytes.addAndGet(-frame.length);
+                    bytesSent.addAndGet(frame.length);
+                }
+            } catch (IOException e) {
+                System.out.println("SpectatorStream: Zuschauer getrennt: " + e.getMessage());
+            } catch (InterruptedException e) {
+                // beendet
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            open = false;
+            clients.remove(this);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // schon zu
+            }
+        }
+    }
+
+    private SpectatorStream(ServerSocketChannel server, String address) {
+        this.server = server;
+        this.address = address;
+        if (server != null) {
+            Thread acceptor = new Thread(this::acceptLoop, "SpectatorStream-Accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+    }
+
+    /**
+     * Der gemeinsame Strom aller Spiele dieses Prozesses; ohne Konfiguration ein abgeschalteter Strom, dessen
+     * {@link #hasViewers()} immer {@code false} liefert.
+     */
+    public static SpectatorStream shared() {
+        return SHARED;
+    }
+
+    private static SpectatorStream fromSystemProperties() {
+        String socket = System.getProperty(PROPERTY_SOCKET);
+        Integer port = Integer.getInteger(PROPERTY_PORT);
+        try {
+            if (socket != null && !socket.isBlank()) {
+                Path path = Path.of(socket);
+                Files.deleteIfExists(path); // Überbleibsel eines früheren Laufs
+                ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                server.bind(UnixDomainSocketAddress.of(path));
+                System.out.println("SpectatorStream: Zuschauer über " + path);
+                return new SpectatorStream(server, path.toString());
+            }
+            if (port != null) {
+                ServerSocketChannel server = ServerSocketChannel.open();
+                server.bind(new InetSocketAddress(port));
+                System.out.println("SpectatorStream: Zuschauer über TCP-Port " + port);
+                return new SpectatorStream(server, ":" + port);
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            System.out.println("SpectatorStream: Konnte nicht geöffnet werden: " + e.getMessage());
+        }
+        return new SpectatorStream(null, null);
+    }
+
+    private void acceptLoop() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel channel = server.accept();
+                Client client = new Client(channel);
+                clients.add(client);
+                Thread sender = new Thread(client::run, "SpectatorStream-Send");
+                sender.setDaemon(true);
+                sender.start();
+                System.out.println("SpectatorStream: Zuschauer verbunden (" + clients.size() + ")");
+            } catch (IOException e) {
+                if (server.isOpen()) System.out.println("SpectatorStream: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, wenn jemand zuschaut; nur dann lohnt es sich, eine {@link Scene} zu füllen.
+     */
+    public boolean hasViewers() {
+        return !clients.isEmpty();
+    }
+
+    /**
+     * Überträgt den Zustand nach einem Tick an alle Zuschauer. Kehrt sofort zurück.
+     */
+    public void publish(Scene scene) {
+        if (clients.isEmpty()) {
+            hasPrevious = false;
+            return;
+        }
+        tick++;
+        long now = System.nanoTime();
+        boolean keyframeDue = !hasPrevious || !previous.sameShape(scene)
+                || now - lastKeyframeNanos >= TimeUnit.MILLISECONDS.toNanos(KEYFRAME_INTERVAL_MS);
+
+        byte[] keyframe = null;
+        byte[] delta = null;
+        if (keyframeDue) {
+            keyframe = encode(scene, true);
+            lastKeyframeNanos = now;
+        } else {
+            delta = encode(scene, false);
+        }
+        for (Client client : clients) {
+            if (keyframeDue || client.needsKeyframe) {
+                if (keyframe == null) keyframe = encode(scene, true);
+                client.offer(keyframe, true);
+            } else {
+                client.offer(delta, false);
+            }
+        }
+        previous.copyFrom(scene);
+        hasPrevious = true;
+    }
+
+    /** Kodiert ein Bild samt Längenpräfix (ein Array pro Bild, von allen Zuschauern geteilt). */
+    private byte[] encode(Scene scene, boolean keyframe) {
+        while (true) {
+            buffer.clear();
+            buffer.position(5); // Platz für das Längenpräfix
+            try {
+                if (keyframe) SceneCodec.writeKeyframe(scene, tick, buffer);
+                else SceneCodec.writeDelta(previous, scene, 1, buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+        int length = buffer.position() - 5;
+        byte[] frame = new byte[VarInt.size(length) + length];
+        ByteBuffer out = ByteBuffer.wrap(frame);
+        VarInt.write(out, length);
+        out.put(buffer.array(), 5, length);
+        return frame;
+    }
+
+    /** @return Adresse, an der Zuschauer sich verbinden können, oder {@code null} wenn abgeschaltet. */
+    public String getAddress() { return address; }
+    public int getViewerCount() { return clients.size(); }
+    public long getBytesSent() { return bytesSent.get(); }
+    /** @return Bilder, die verworfen wurden, weil ein Zuschauer nicht hinterherkam. */
+    public long getFramesDropped() { return framesDropped.get(); }
+
+    @Override
+    public void close() {
+        try {
+            if (server != null) server.close();
+        } catch (IOException e) {
+            // schon zu
+        }
+        for (Client client : clients) client.close();
+    }
+}
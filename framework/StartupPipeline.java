@@ -0,0 +1,114 @@
+package framework;
+
+import javax.swing.*;
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Programmstart mit parallelen Phasen statt nacheinander.
+ * <p>
+ * Die voneinander unabhängigen Schritte laufen gleichzeitig:
+ * <ul>
+ *     <li>HID-Aufzählung ({@link UsbGamepad}) im Hintergrund; bis dahin liefert ein {@link DeferredGamepad}
+ *     "nichts gedrückt", danach das echte Gerät.</li>
+ *     <li>Das erste Spiel wird im Hintergrund erzeugt (Highscores lesen, Levelpaket öffnen) und aufgewärmt.</li>
+ *     <li>Die Schriftarten der Spiele werden im Hintergrund geladen.</li>
+ *     <li>Im Event-Dispatch-Thread öffnet sich das Fenster sofort mit einer Ladeanzeige.</li>
+ * </ul>
+ * Sind alle Phasen fertig, wird die {@link StartupTimeline} ausgegeben.
+ * <p>
+ * Mit {@code -Darcade.exitAfterStartup=true} werden zusätzlich alle Spiele erzeugt und das Programm
+ * danach beendet. Das dient als Trainingslauf für ein AppCDS-Archiv ({@code -XX:ArchiveClassesAtExit},
+ * siehe {@code start-arcade.sh}), mit dem die Klassen nach dem Einschalten des Automaten schneller geladen sind.
+ * Schlägt dabei eine Phase oder ein Spiel fehl, endet das Programm mit Status 1.
+ */
+public final class StartupPipeline {
+
+    /** System-Property: nach dem Start alle Spiele erzeugen und beenden (AppCDS-Trainingslauf). */
+    public static final String PROPERTY_EXIT_AFTER_STARTUP = "arcade.exitAfterStartup";
+
+    /** Schriftarten, die die Spiele benutzen. */
+    private static final String[] PRELOAD_FONTS = {"Arial", "Monospaced"};
+
+    private StartupPipeline() {}
+
+    /**
+     * Startet ein einzelnes Spiel (für die {@code main}-Methoden der Spiele). Kehrt sofort zurück.
+     */
+    public static void launch(Class<? extends ArcadeGame> game) {
+        launch(List.of(game));
+    }
+
+    /**
+     * Startet die Spiele im {@link ArcadeLauncher}. Kehrt sofort zurück.
+     */
+    public static void launch(List<Class<? extends ArcadeGame>> games) {
+        StartupTimeline.mark("main()");
+
+        ExecutorService startup = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "Startup");
+            t.setDaemon(true);
+            return t;
+        });
+
+        DeferredGamepad gamepad = new DeferredGamepad();
+        CompletableFuture<Void> hid = CompletableFuture.runAsync(() -> {
+            StartupTimeline.Phase phase = StartupTimeline.begin("HID-Aufzählung");
+            try {
+                gamepad.attach(new UsbGamepad());
+            } finally {
+                phase.end();
+            }
+        }, startup);
+        CompletableFuture<Void> fonts = CompletableFuture.runAsync(StartupPipeline::preloadFonts, startup);
+
+        ArcadeLauncher launcher = new ArcadeLauncher(gamepad, games);
+        launcher.prepareFirstGame();
+        SwingUtilities.invokeLater(launcher::start);
+
+        CompletableFuture.allOf(hid, fonts, launcher.firstGameShown()).whenComplete((v, error) -> {
+            StartupTimeline.print();
+            startup.shutdown();
+            if (Boolean.getBoolean(PROPERTY_EXIT_AFTER_STARTUP)) {
+                Throwable failure = error;
+                if (failure == null) {
+                    try {
+                        launcher.prepareAll().join();
+                    } catch (CompletionException e) {
+                        failure = e;
+                    }
+                }
+                if (failure != null) {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    System.out.println("StartupPipeline: Trainingslauf fehlgeschlagen: " + cause);
+                    System.exit(1);
+                }
+                System.out.println("StartupPipeline: Trainingslauf beendet.");
+                System.exit(0);
+            }
+        });
+    }
+
+    /**
+     * Lädt die Schriftarten samt Glyphen, damit das erste Zeichnen nicht darauf warten muss.
+     */
+    private static void preloadFonts() {
+        StartupTimeline.Phase phase = StartupTimeline.begin("Schriften laden");
+        try {
+            FontRenderContext frc = new FontRenderContext(null, true, true);
+            for (String family : PRELOAD_FONTS) {
+                for (int style : new int[]{Font.PLAIN, Font.BOLD}) {
+                    new Font(family, style, 20).getStringBounds("Score: 0123456789 GAME OVER", frc);
+                }
+            }
+        } finally {
+            phase.end();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package framework;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zeichnet die Phasen des Programmstarts mit Dauer und Thread auf und gibt sie als Zeitleiste aus.
+ * <p>
+ * Alle Zeiten sind relativ zum Start der JVM. Nach {@link #print()} werden keine weiteren Phasen mehr
+ * aufgezeichnet; die Aufrufe kosten dann fast nichts und dürfen im Code bleiben.
+ * <pre>
+ * StartupTimeline.Phase phase = StartupTimeline.begin("HID-Aufzählung");
+ * try {
+ *     gamepad = new UsbGamepad();
+ * } finally {
+ *     phase.end();
+ * }
+ * </pre>
+ */
+public final class StartupTimeline {
+
+    /** Eine laufende Phase; {@link #end()} beendet sie. */
+    public static final class Phase implements AutoCloseable {
+        private final String name;
+        private final String thread;
+        private final double startMs;
+        private volatile double endMs = -1;
+
+        private Phase(String name, String thread, double startMs) {
+            this.name = name;
+            this.thread = thread;
+            this.startMs = startMs;
+        }
+
+        /** Beendet die Phase; weitere Aufrufe ändern nichts. */
+        public void end() {
+            if (endMs < 0) endMs = now();
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+    }
+
+    // nanoTime beim Laden der Klasse, zusammen mit der JVM-Laufzeit zu diesem Zeitpunkt
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final double ORIGIN_UPTIME_MS = ManagementFactory.getRuntimeMXBean().getUptime();
+
+    private static final List<Phase> phases = new ArrayList<>();
+    private static boolean finished = false;
+
+    static {
+        // Alles vor dem Laden dieser Klasse: JVM-Start, Klassenladen bis main()
+        Phase boot = new Phase("JVM-Start bis main()", "main", 0);
+        boot.endMs = ORIGIN_UPTIME_MS;
+        phases.add(boot);
+    }
+
+    private StartupTimeline() {}
+
+    /** Millisekunden seit dem Start der JVM. */
+    public static double now() {
+        return ORIGIN_UPTIME_MS + (System.nanoTime() - ORIGIN_NANOS) / 1e6;
+    }
+
+    /**
+     * Beginnt eine Phase im aktuellen Thread.
+     */
+    public static synchronized Phase begin(String name) {
+        Phase phase = new Phase(name, Thread.currentThread().getName(), now());
+        if (!finished) phases.add(phase);
+        return phase;
+    }
+
+    /**
+     * Markiert einen Zeitpunkt (Phase ohne Dauer), z.B. "Erstes Bild".
+     */
+    public static void mark(String name) {
+        begin(name).end();
+    }
+
+    /**
+     * Gibt die Zeitleiste aus und beendet die Aufzeichnung.
+     */
+    public static synchronized void print() {
+        if (finished) return;
+        finished = true;
+
+        StringBuilder sb = new StringBuilder("StartupTimeline: Start nach ").append(String.format("%.0f ms", now())).append('\n');
+        for (Phase p : phases) {
+            double end = p.endMs < 0 ? now() : p.endMs;
+            sb.append(String.format("  %8.1f – %8.1f ms  %7.1f ms  %-32s [%s]%s%n",
+                    p.startMs, end, end - p.startMs, p.name, p.thread, p.endMs < 0 ? " (läuft noch)" : ""));
+        }
+        System.out.print(sb);
+    }
+}
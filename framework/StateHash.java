@@ -0,0 +1,68 @@
+package framework;
+
+/**
+ * Schneller Hash über den Zustand einer Simulation (FNV-1a über 64-Bit-Werte), z.B. nach jedem Tick.
+ * <p>
+ * Zwei Läufe mit gleichem Seed und gleichen Eingaben müssen in jedem Tick denselben Hash liefern; ein
+ * Unterschied zeigt die Abweichung im selben Tick. Kein kryptografischer Hash. Gleitkommazahlen gehen
+ * bitgenau ein ({@link Double#doubleToRawLongBits}).
+ * <pre>
+ * long h = new StateHash().add(score).add(ballX).add(ballY).value();
+ * </pre>
+ */
+public final class StateHash {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET;
+
+    /** Beginnt einen neuen Hash (das Objekt kann wiederverwendet werden). */
+    public StateHash reset() {
+        hash = OFFSET;
+        return this;
+    }
+
+    public StateHash add(long value) {
+        hash = (hash ^ value) * PRIME;
+        return this;
+    }
+
+    public StateHash add(int value) {
+        return add((long) value);
+    }
+
+    public StateHash add(boolean value) {
+        return add(value ? 1L : 0L);
+    }
+
+    public StateHash add(double value) {
+        return add(Double.doubleToRawLongBits(value));
+    }
+
+    /** Fügt die ersten {@code length} Werte des Arrays hinzu. */
+    public StateHash add(int[] values, int length) {
+        for (int i = 0; i < length; i++) add(values[i]);
+        return this;
+    }
+
+    /** Fügt die ersten {@code length} Werte des Arrays bitgenau hinzu. */
+    public StateHash add(double[] values, int length) {
+        for (int i = 0; i < length; i++) add(values[i]);
+        return this;
+    }
+
+    /** @return Der Hash der bisher hinzugefügten Werte. */
+    public long value() {
+        return hash;
+    }
+
+    /**
+     * Verkettet den Hash des letzten Ticks mit dem des aktuellen. Die Kette unterscheidet sich ab dem ersten
+     * abweichenden Tick dauerhaft, sodass ein Vergleich des letzten Werts genügt, um zu wissen, ob zwei Läufe
+     * bis hierhin gleich waren.
+     */
+    public static long chain(long previous, long tickHash) {
+        return (previous ^ tickHash) * PRIME + Long.rotateLeft(previous, 31);
+    }
+}
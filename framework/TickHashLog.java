@@ -0,0 +1,88 @@
+package framework;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Schreibt die Hash-Kette einer Runde Tick für Tick in eine Datei oder vergleicht sie mit einer vorhandenen.
+ * <p>
+ * Gibt es die Datei noch nicht, wird aufgezeichnet; gibt es sie schon (gleiches Spiel, gleicher Seed, gleiche
+ * Runde), wird geprüft und die erste Abweichung mit Tick-Nummer gemeldet. Format: pro Tick ein {@code long}.
+ * Wird von {@link GameSession} benutzt.
+ */
+final class TickHashLog implements AutoCloseable {
+
+    private final Path file;
+    private final DataOutputStream out;   // beim Aufzeichnen
+    private final DataInputStream expected; // beim Prüfen
+    private boolean diverged = false;
+    private boolean ended = false;
+
+    private TickHashLog(Path file, DataOutputStream out, DataInputStream expected) {
+        this.file = file;
+        this.out = out;
+        this.expected = expected;
+    }
+
+    /**
+     * Öffnet die Datei zum Prüfen, falls vorhanden, sonst zum Aufzeichnen.
+     */
+    static TickHashLog open(Path file) throws IOException {
+        if (Files.exists(file)) {
+            System.out.println("TickHashLog: Prüfe gegen " + file);
+            return new TickHashLog(file, null, new DataInputStream(new BufferedInputStream(Files.newInputStream(file))));
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        return new TickHashLog(file, new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file))), null);
+    }
+
+    /**
+     * @param tick  Nummer des Ticks in der Runde (ab 1).
+     * @param chain Hash-Kette nach diesem Tick.
+     */
+    void record(long tick, long chain) {
+        try {
+            if (out != null) {
+                out.writeLong(chain);
+                return;
+            }
+            if (diverged || ended) return;
+            long want;
+            try {
+                want = expected.readLong();
+            } catch (EOFException e) {
+                ended = true;
+                System.out.println("TickHashLog: Aufzeichnung " + file.getFileName() + " endet vor Tick " + tick);
+                return;
+            }
+            if (want != chain) {
+                diverged = true;
+                System.out.printf("TickHashLog: Abweichung in Tick %d (%s): erwartet %016x, ist %016x%n",
+                        tick, file.getFileName(), want, chain);
+            }
+        } catch (IOException e) {
+            System.out.println("TickHashLog: " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (out != null) out.close();
+            if (expected != null) {
+                if (!diverged && !ended) {
+                    System.out.println("TickHashLog: " + file.getFileName() + " bis hierhin bitgenau gleich.");
+                }
+                expected.close();
+            }
+        } catch (IOException e) {
+            System.out.println("TickHashLog: " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
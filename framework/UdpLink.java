@@ -0,0 +1,109 @@
+package framework;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nicht blockierende UDP-Verbindung zu genau einem Mitspieler, für {@link RollbackSession}.
+ * <p>
+ * Zum Testen über Loopback lassen sich Verzögerung, Schwankung und Paketverlust simulieren; sie wirken
+ * beim Senden, also je Richtung (50 ms auf beiden Seiten ergeben 100 ms Round-Trip). Verzögerte Pakete
+ * verschickt ein eigener Thread, Senden und Empfangen selbst blockieren nie.
+ */
+public final class UdpLink implements AutoCloseable {
+
+    private final DatagramChannel channel;
+    private final InetSocketAddress peer;
+    private final int lagMs;
+    private final int jitterMs;
+    private final int lossPercent;
+    private final SplittableRandom random = new SplittableRandom();
+    private final ScheduledExecutorService delayed;
+
+    /**
+     * @param localPort   Eigener UDP-Port.
+     * @param peer        Adresse des Mitspielers.
+     * @param lagMs       Simulierte Verzögerung pro Richtung ({@code 0}: keine).
+     * @param jitterMs    Zusätzliche zufällige Verzögerung {@code 0..jitterMs}; Pakete können sich dabei überholen.
+     * @param lossPercent Simulierter Paketverlust in Prozent.
+     */
+    public UdpLink(int localPort, InetSocketAddress peer, int lagMs, int jitterMs, int lossPercent) throws IOException {
+        this.channel = DatagramChannel.open();
+        channel.configureBlocking(false);
+        channel.bind(new InetSocketAddress(localPort));
+        this.peer = peer;
+        this.lagMs = Math.max(0, lagMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.lossPercent = Math.max(0, Math.min(100, lossPercent));
+        if (this.lagMs > 0 || this.jitterMs > 0) {
+            delayed = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "UdpLink-Lag");
+                t.setDaemon(true);
+                return t;
+            });
+        } else {
+            delayed = null;
+        }
+    }
+
+    /**
+     * Schickt das Paket (von {@code position} bis {@code limit}). Fehler werden nur gemeldet: UDP darf verlieren.
+     */
+    public void send(ByteBuffer packet) {
+        if (lossPercent > 0 && random.nextInt(100) < lossPercent) return;
+        if (delayed == null) {
+            sendNow(packet);
+            return;
+        }
+        ByteBuffer copy = ByteBuffer.allocate(packet.remaining()).put(packet).flip();
+        long delay = lagMs + (jitterMs > 0 ? random.nextInt(jitterMs + 1) : 0);
+        delayed.schedule(() -> sendNow(copy), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void sendNow(ByteBuffer packet) {
+        try {
+            channel.send(packet, peer);
+        } catch (IOException e) {
+            System.out.println("UdpLink: Senden an " + peer + " fehlgeschlagen: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Holt ein empfangenes Paket, ohne zu warten.
+     *
+     * @param into Wird geleert und mit dem Paket gefüllt (danach zum Lesen bereit).
+     * @return {@code false}, wenn gerade nichts angekommen ist.
+     */
+    public boolean receive(ByteBuffer into) {
+        into.clear();
+        try {
+            if (channel.receive(into) == null) return false;
+        } catch (IOException e) {
+            // z.B. ICMP "Port nicht erreichbar", solange der Mitspieler noch nicht läuft
+            return false;
+        }
+        into.flip();
+        return true;
+    }
+
+    /** @return Eigene Adresse (z.B. der tatsächlich vergebene Port bei {@code localPort = 0}). */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    @Override
+    public void close() {
+        if (delayed != null) delayed.shutdownNow();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // schon zu
+        }
+    }
+}
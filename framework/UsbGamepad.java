@@ -7,6 +7,7 @@ import purejavahidapi.PureJavaHidApi;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Gamepad-Implementierung für den echten USB-Joystick (DragonRise Generic USB Joystick).
@@ -21,6 +22,10 @@ public class UsbGamepad implements Gamepad {
     // Liste, die den Zustand und die Verbindung zu jedem physischen Gamepad speichert.
     private final List<HidGamepadState> connectedDevices = new ArrayList<>();
 
+    // Zählt Zustandswechsel (Button oder Joystick-Richtung), für awaitActivity(); geschützt durch "activity"
+    private final Object activity = new Object();
+    private long activityCount = 0;
+
     // Framework-spezifische Joystick-Instanzen
     private final Joystick joystick1;
     private final Joystick joystick2;
@@ -94,10 +99,45 @@ public class UsbGamepad implements Gamepad {
      */
     private void setupDeviceListener(HidDevice device, HidGamepadState state) {
         device.setInputReportListener((src, reportId, data, len) -> {
-            state.update(data, len);
+            ArcadeEvents.HidReportEvent event = new ArcadeEvents.HidReportEvent();
+            event.begin();
+            boolean changed = state.update(data, len);
+            GameMetrics.hidReport(changed);
+            event.end();
+            if (event.shouldCommit()) {
+                event.game = GameMetrics.activeGame();
+                event.joystick = state.joystickId;
+                event.length = len;
+                event.changed = changed;
+                event.commit();
+            }
+            if (changed) {
+                synchronized (activity) {
+                    activityCount++;
+                    activity.notifyAll();
+                }
+            }
         });
     }
 
+    /**
+     * Blockiert ohne Abfrage, bis ein HID-Report einen Zustandswechsel meldet (Button oder Joystick-Richtung;
+     * Rauschen innerhalb der Deadzone zählt nicht).
+     */
+    @Override
+    public boolean awaitActivity(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (activity) {
+            long seen = activityCount;
+            while (activityCount == seen) {
+                long left = deadline - System.nanoTime();
+                if (left <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(activity, left);
+            }
+            return true;
+        }
+    }
+
     // ===================== Gamepad-Interface Implementierung =====================
 
     /**
@@ -179,9 +219,11 @@ public class UsbGamepad implements Gamepad {
 
         /**
          * Aktualisiert den Zustand basierend auf einem eingehenden HID-Report.
+         *
+         * @return {@code true}, wenn sich ein Button oder eine Joystick-Richtung geändert hat.
          */
-        public void update(byte[] data, int len) {
-            if (len < 7) return;
+        public boolean update(byte[] data, int len) {
+            if (len < 7) return false;
 
             int lx = data[0] & 0xFF; // X-Achse
             int ly = data[1] & 0xFF; // Y-Achse
@@ -194,9 +236,20 @@ public class UsbGamepad implements Gamepad {
                 System.out.printf("UsbGamepad [J%d]: Center gesetzt: X=%d, Y=%d%n", joystickId, centerX, centerY);
             }
 
+            boolean changed = btn != buttons
+                    || zone(lx, centerX) != zone(x, centerX)
+                    || zone(ly, centerY) != zone(y, centerY);
             x = lx;
             y = ly;
             buttons = btn;
+            return changed;
+        }
+
+        /** -1, 0 oder 1: Achse links/oben, in der Deadzone oder rechts/unten. */
+        private static int zone(int value, int center) {
+            if (value < center - DEADZONE) return -1;
+            if (value > center + DEADZONE) return 1;
+            return 0;
         }
     }
 
@@ -0,0 +1,114 @@
+package framework;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Kodierung von Ganzzahlen mit variabler Länge (LEB128): 7 Bit Nutzdaten pro Byte, das oberste
+ * Bit zeigt an, dass ein weiteres Byte folgt. Kleine Werte brauchen so nur ein Byte.
+ * Vorzeichenbehaftete Werte werden vorher per ZigZag auf nicht-negative abgebildet
+ * (0, -1, 1, -2, ... → 0, 1, 2, 3, ...), damit auch kleine negative Zahlen kurz bleiben.
+ */
+public final class VarInt {
+
+    private VarInt() {}
+
+    /** ZigZag-Kodierung für {@code int}. */
+    public static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /** Umkehrung von {@link #zigzag(int)}. */
+    public static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /** ZigZag-Kodierung für {@code long}. */
+    public static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /** Umkehrung von {@link #zigzag(long)}. */
+    public static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Schreibt {@code value} als vorzeichenlose Varint (1 bis 5 Bytes).
+     *
+     * @throws BufferOverflowException wenn der Puffer voll ist.
+     */
+    public static void write(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Schreibt {@code value} als vorzeichenlose Varint (1 bis 10 Bytes).
+     *
+     * @throws BufferOverflowException wenn der Puffer voll ist.
+     */
+    public static void write(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Liest eine vorzeichenlose Varint mit höchstens 5 Bytes.
+     *
+     * @throws BufferUnderflowException wenn der Puffer vorher endet.
+     * @throws IllegalArgumentException wenn die Kodierung zu lang ist.
+     */
+    public static int readInt(ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) return result;
+        }
+        throw new IllegalArgumentException("Varint zu lang");
+    }
+
+    /**
+     * Liest eine vorzeichenlose Varint mit höchstens 10 Bytes.
+     *
+     * @throws BufferUnderflowException wenn der Puffer vorher endet.
+     * @throws IllegalArgumentException wenn die Kodierung zu lang ist.
+     */
+    public static long readLong(ByteBuffer in) {
+        long result = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return result;
+        }
+        throw new IllegalArgumentException("Varint zu lang");
+    }
+
+    /** Anzahl der Bytes, die {@link #write(ByteBuffer, int)} für den Wert braucht. */
+    public static int size(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /** Anzahl der Bytes, die {@link #write(ByteBuffer, long)} für den Wert braucht. */
+    public static int size(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,22 @@
+#!/bin/sh
+# Startet den ArcadeLauncher mit einem AppCDS-Archiv (JDK 21).
+#
+# Beim ersten Aufruf (oder wenn das Archiv fehlt) läuft ein Trainingslauf: alle Spiele werden
+# einmal erzeugt, die dabei geladenen Klassen landen in arcade.jsa. Danach startet der Launcher
+# mit dem Archiv, sodass die Klassen nach dem Einschalten des Automaten nicht erst geladen und
+# geprüft werden müssen. Nach einem Update der Klassen einfach arcade.jsa löschen.
+#
+# Klassenpfad über ARCADE_CLASSPATH anpassen (Standard: Ausgabe von IntelliJ plus lib/).
+
+cd "$(dirname "$0")" || exit 1
+
+CP="${ARCADE_CLASSPATH:-out/production/ArcadeBuddyV2:lib/*}"
+ARCHIVE="${ARCADE_CDS_ARCHIVE:-arcade.jsa}"
+
+if [ ! -f "$ARCHIVE" ]; then
+    echo "start-arcade: Erzeuge AppCDS-Archiv $ARCHIVE ..."
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -Darcade.exitAfterStartup=true \
+        -cp "$CP" framework.ArcadeLauncher || rm -f "$ARCHIVE"
+fi
+
+exec java -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -cp "$CP" framework.ArcadeLauncher "$@"